@@ -0,0 +1,122 @@
+/**
+ * @project lbsgap
+ * @file BjBatchEncoder.java
+ * @package com.bignaga.codec.netty
+ * @author zhonghao
+ * @date 2026/10/18 00:10
+ * @copyright bignaga
+ */
+package com.bignaga.codec.netty;
+
+import com.bignaga.codec.Codec;
+import com.bignaga.codec.annotation.Message;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.EncoderException;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.PromiseNotifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * encodes the @Message objects written between two flushes into one buffer by
+ * {@link Codec#encodeAll(Iterable, ByteBuf, com.bignaga.codec.MessageFraming)}, each framed by {@link HeaderLayout}
+ * if one is given: one allocation, one write and one syscall per flush instead of one per message.
+ *
+ * the promises of the messages of a batch complete with the write of the batch. other objects are passed on
+ * untouched, after the messages written before them; at most maxBatchSize messages are held, a full batch is
+ * written without waiting for the flush
+ * @author zhonghao
+ * @date 2026/10/18 00:10
+ * @see BjMessageEncoder
+ * @since
+ */
+public class BjBatchEncoder extends ChannelOutboundHandlerAdapter {
+    private final HeaderLayout layout;
+    private final int maxBatchSize;
+    private final boolean preferDirect;
+    private final List<Object> messages = new ArrayList<>();
+    private final List<ChannelPromise> promises = new ArrayList<>();
+
+    public BjBatchEncoder(HeaderLayout layout) {
+        this(layout, 1024, true);
+    }
+
+    /**
+     * @param layout the header of every message, null to write the bodies only
+     * @param maxBatchSize the number of messages a batch holds at most
+     * @param preferDirect allocate direct buffers if the allocator of the channel supports them
+     */
+    public BjBatchEncoder(HeaderLayout layout, int maxBatchSize, boolean preferDirect) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize " + maxBatchSize + " <= 0");
+        }
+        this.layout = layout;
+        this.maxBatchSize = maxBatchSize;
+        this.preferDirect = preferDirect;
+    }
+
+    public HeaderLayout getLayout() {
+        return layout;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (null == msg || !msg.getClass().isAnnotationPresent(Message.class)) {
+            //keep the order of the writes
+            writeBatch(ctx);
+            ctx.write(msg, promise);
+            return;
+        }
+        messages.add(msg);
+        promises.add(promise);
+        if (messages.size() >= maxBatchSize) {
+            writeBatch(ctx);
+        }
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception {
+        writeBatch(ctx);
+        ctx.flush();
+    }
+
+    @Override
+    public void close(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception {
+        flush(ctx);
+        ctx.close(promise);
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        writeBatch(ctx);
+    }
+
+    private void writeBatch(ChannelHandlerContext ctx) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        ChannelPromise[] batchPromises = promises.toArray(new ChannelPromise[0]);
+        ByteBuf byteBuf = preferDirect ? ctx.alloc().ioBuffer() : ctx.alloc().heapBuffer();
+        try {
+            Codec.encodeAll(messages, byteBuf, layout);
+        } catch (Throwable e) {
+            byteBuf.release();
+            EncoderException cause = e instanceof EncoderException ? (EncoderException) e : new EncoderException(e);
+            for (ChannelPromise promise : batchPromises) {
+                promise.tryFailure(cause);
+            }
+            return;
+        } finally {
+            for (Object message : messages) {
+                ReferenceCountUtil.release(message);
+            }
+            messages.clear();
+            promises.clear();
+        }
+        ctx.write(byteBuf).addListener(new PromiseNotifier<>(false, batchPromises));
+    }
+}
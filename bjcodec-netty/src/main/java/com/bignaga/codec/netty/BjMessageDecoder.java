@@ -0,0 +1,208 @@
+/**
+ * @project lbsgap
+ * @file BjMessageDecoder.java
+ * @package com.bignaga.codec.netty
+ * @author zhonghao
+ * @date 2026/10/17 22:10
+ * @copyright bignaga
+ */
+package com.bignaga.codec.netty;
+
+import com.bignaga.codec.Codec;
+import com.bignaga.codec.Codecs;
+import com.bignaga.codec.copyfromgson.reflect.ResumableReader;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.TooLongFrameException;
+
+import java.util.List;
+
+/**
+ * splits the inbound bytes into frames of {@link HeaderLayout} and decodes the body of each frame into the @Message
+ * class of its message id by {@link Codecs#decode(int, ByteBuf)}, so no LengthFieldBasedFrameDecoder is needed in front of it.
+ *
+ * the header is read in place and the body is decoded from a slice of the cumulation, the frame is never copied;
+ * the length of a frame is checked against {@link HeaderLayout#getMaxFrameLength()} as soon as the length field is readable,
+ * an oversized frame is discarded as it arrives and a {@link TooLongFrameException} is fired.
+ * a frame with an empty body decodes to nothing and is dropped.
+ *
+ * frames longer than incrementalThreshold are decoded as they arrive by a {@link ResumableReader} of {@link Codec#newReader(Class)}:
+ * once the header is readable, every read decodes the complete fields/elements received so far and consumes them,
+ * so the cumulation never has to hold the whole frame. the part decoded of a frame cut short by the end of the input
+ * is released and a {@link CorruptedFrameException} is fired, the part decoded when the handler is removed is released.
+ *
+ * the @Message classes must have been scanned by {@link Codecs#scan(String...)}, an unknown message id is an error
+ * @author zhonghao
+ * @date 2026/10/17 22:10
+ * @see HeaderLayout
+ * @since
+ */
+public class BjMessageDecoder extends ByteToMessageDecoder {
+    private final HeaderLayout layout;
+    private final int incrementalThreshold;
+    /**
+     * bytes of an oversized frame still to be discarded
+     */
+    private long bytesToDiscard;
+    /**
+     * reader of the body of the frame being decoded incrementally, null if none
+     */
+    private ResumableReader<?> bodyReader;
+    /**
+     * bytes of that body not consumed yet
+     */
+    private int bodyRemaining;
+
+    /**
+     * frames are decoded once they have arrived whole
+     */
+    public BjMessageDecoder(HeaderLayout layout) {
+        this(layout, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param incrementalThreshold frames longer than this are decoded as they arrive
+     */
+    public BjMessageDecoder(HeaderLayout layout, int incrementalThreshold) {
+        if (null == layout) {
+            throw new NullPointerException("layout");
+        }
+        this.layout = layout;
+        this.incrementalThreshold = incrementalThreshold;
+    }
+
+    public HeaderLayout getLayout() {
+        return layout;
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+        if (bytesToDiscard > 0) {
+            discard(in);
+            return;
+        }
+        if (null != bodyReader) {
+            resumeBody(in, out);
+            return;
+        }
+        int lengthFieldEnd = layout.getLengthFieldEndOffset();
+        if (in.readableBytes() < lengthFieldEnd) {
+            return;
+        }
+        int frameIndex = in.readerIndex();
+        long frameLength = layout.getFrameLength(in, frameIndex);
+        if (frameLength < layout.getHeaderLength()) {
+            in.skipBytes(lengthFieldEnd);
+            throw new CorruptedFrameException("frame length " + frameLength + " < header length " + layout.getHeaderLength());
+        }
+        if (frameLength > layout.getMaxFrameLength()) {
+            //nothing of the frame is kept, it is dropped as it arrives
+            bytesToDiscard = frameLength;
+            discard(in);
+            throw new TooLongFrameException("frame length " + frameLength + " > " + layout.getMaxFrameLength());
+        }
+        int length = (int) frameLength;
+        int headerLength = layout.getHeaderLength();
+        if (length > incrementalThreshold && length > headerLength) {
+            if (in.readableBytes() >= headerLength) {
+                startBody(in, out, frameIndex, length);
+            }
+            return;
+        }
+        if (in.readableBytes() < length) {
+            return;
+        }
+        int messageId = layout.getMessageId(in, frameIndex);
+        ByteBuf body = in.slice(frameIndex + headerLength, length - headerLength);
+        //the frame is consumed before decoding, a bad body does not block the next frames
+        in.readerIndex(frameIndex + length);
+        Object message = Codecs.decode(messageId, body);
+        if (null != message) {
+            out.add(message);
+        }
+    }
+
+    private void startBody(ByteBuf in, List<Object> out, int frameIndex, int frameLength) {
+        int messageId = layout.getMessageId(in, frameIndex);
+        Class<?> messageClass = Codecs.messageClassOf(messageId);
+        if (null == messageClass) {
+            bytesToDiscard = frameLength;
+            discard(in);
+            throw new IllegalArgumentException("unknown messageType " + messageId);
+        }
+        in.skipBytes(layout.getHeaderLength());
+        bodyReader = Codec.newReader(messageClass);
+        bodyRemaining = frameLength - layout.getHeaderLength();
+        resumeBody(in, out);
+    }
+
+    /**
+     * decode what has arrived of the body, the bytes consumed are released by the cumulation
+     */
+    private void resumeBody(ByteBuf in, List<Object> out) {
+        int readable = Math.min(in.readableBytes(), bodyRemaining);
+        boolean whole = readable == bodyRemaining;
+        ByteBuf body = in.slice(in.readerIndex(), readable);
+        boolean done;
+        try {
+            done = bodyReader.resume(body);
+        } catch (RuntimeException e) {
+            failBody(in);
+            throw e;
+        }
+        in.skipBytes(body.readerIndex());
+        bodyRemaining -= body.readerIndex();
+        if (done) {
+            Object message = bodyReader.result();
+            bodyReader = null;
+            //the bytes not read by the message, as the slice of a whole frame ignores them
+            bytesToDiscard = bodyRemaining;
+            discard(in);
+            out.add(message);
+        } else if (whole) {
+            //all of the body has arrived but the message is not complete
+            failBody(in);
+            throw new CorruptedFrameException("the message does not fit in its frame");
+        }
+    }
+
+    @Override
+    protected void decodeLast(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+        super.decodeLast(ctx, in, out);
+        if (null != bodyReader) {
+            int remaining = bodyRemaining;
+            failBody(in);
+            throw new CorruptedFrameException("the input ended " + remaining + " bytes before the end of the frame");
+        }
+    }
+
+    @Override
+    protected void handlerRemoved0(ChannelHandlerContext ctx) throws Exception {
+        abandonBody();
+    }
+
+    private void failBody(ByteBuf in) {
+        abandonBody();
+        bytesToDiscard = bodyRemaining;
+        discard(in);
+    }
+
+    /**
+     * release what has been decoded of the body
+     */
+    private void abandonBody() {
+        if (null != bodyReader) {
+            ResumableReader<?> reader = bodyReader;
+            bodyReader = null;
+            reader.abandon();
+        }
+    }
+
+    private void discard(ByteBuf in) {
+        int n = (int) Math.min(bytesToDiscard, in.readableBytes());
+        in.skipBytes(n);
+        bytesToDiscard -= n;
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * @project lbsgap
+ * @file BjMessageEncoder.java
+ * @package com.bignaga.codec.netty
+ * @author zhonghao
+ * @date 2026/10/17 22:40
+ * @copyright bignaga
+ */
+package com.bignaga.codec.netty;
+
+import com.bignaga.codec.Codec;
+import com.bignaga.codec.Codecs;
+import com.bignaga.codec.annotation.Message;
+import com.bignaga.codec.utils.ZeroCopy;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.EncoderException;
+import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.util.ReferenceCountUtil;
+
+/**
+ * encodes @Message objects into frames of {@link HeaderLayout}, the counterpart of {@link BjMessageDecoder}.
+ *
+ * the buffer is allocated from the allocator of the channel, direct if preferDirect, sized to the whole frame
+ * ({@link Codec#fixedSizeOf(Class)}, or {@link Codec#sizeOf(Object)} for variable layouts); the header is reserved,
+ * the body is encoded right behind it by {@link Codec#encode(Object, ByteBuf)} and the header is backfilled
+ * at its saved index, so the frame is written in one pass into one buffer.
+ * the message id is the value of the @Message annotation of the message class.
+ *
+ * with a zeroCopyThreshold, large byte[]/ByteBuf payloads are not copied, see {@link ZeroCopy}.
+ *
+ * objects whose class is not annotated with @Message are passed on untouched
+ * @author zhonghao
+ * @date 2026/10/17 22:40
+ * @see HeaderLayout
+ * @since
+ */
+public class BjMessageEncoder extends MessageToByteEncoder<Object> {
+    private final HeaderLayout layout;
+    private final boolean preferDirect;
+    private final int zeroCopyThreshold;
+
+    public BjMessageEncoder(HeaderLayout layout) {
+        this(layout, true);
+    }
+
+    /**
+     * @param preferDirect allocate direct buffers if the allocator of the channel supports them
+     */
+    public BjMessageEncoder(HeaderLayout layout, boolean preferDirect) {
+        this(layout, preferDirect, 0);
+    }
+
+    /**
+     * @param preferDirect allocate direct buffers if the allocator of the channel supports them
+     * @param zeroCopyThreshold if > 0, frames are written as a {@link CompositeByteBuf} by {@link ZeroCopy}: the
+     *                          payloads of at least that many bytes are components of it instead of copies
+     */
+    public BjMessageEncoder(HeaderLayout layout, boolean preferDirect, int zeroCopyThreshold) {
+        super(preferDirect);
+        if (null == layout) {
+            throw new NullPointerException("layout");
+        }
+        this.layout = layout;
+        this.preferDirect = preferDirect;
+        this.zeroCopyThreshold = zeroCopyThreshold;
+    }
+
+    public HeaderLayout getLayout() {
+        return layout;
+    }
+
+    @Override
+    public boolean acceptOutboundMessage(Object msg) throws Exception {
+        return null != msg && msg.getClass().isAnnotationPresent(Message.class);
+    }
+
+    @Override
+    protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, Object msg, boolean preferDirect) throws Exception {
+        int fixedSize = Codec.fixedSizeOf(msg.getClass());
+        int size = layout.getHeaderLength() + (fixedSize >= 0 ? fixedSize : Codec.sizeOf(msg));
+        return preferDirect ? ctx.alloc().ioBuffer(size) : ctx.alloc().heapBuffer(size);
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (zeroCopyThreshold <= 0 || !acceptOutboundMessage(msg)) {
+            super.write(ctx, msg, promise);
+            return;
+        }
+        CompositeByteBuf frame;
+        try {
+            ByteBuf header = preferDirect ? ctx.alloc().ioBuffer() : ctx.alloc().heapBuffer();
+            frame = ZeroCopy.encode(ctx.alloc(), header, zeroCopyThreshold, byteBuf -> writeFrame(msg, byteBuf));
+            try {
+                layout.writeHeader(frame, 0, frame.readableBytes(), Codecs.messageTypeOf(msg.getClass()));
+            } catch (RuntimeException e) {
+                frame.release();
+                throw e;
+            }
+        } catch (EncoderException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new EncoderException(e);
+        } finally {
+            ReferenceCountUtil.release(msg);
+        }
+        //the payloads go out with a gathering write
+        ctx.write(frame, promise);
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, Object msg, ByteBuf out) throws Exception {
+        int frameIndex = out.writerIndex();
+        writeFrame(msg, out);
+        layout.writeHeader(out, frameIndex, out.writerIndex() - frameIndex, Codecs.messageTypeOf(msg.getClass()));
+    }
+
+    /**
+     * the room of the header and the body
+     */
+    private void writeFrame(Object msg, ByteBuf out) {
+        out.writeZero(layout.getHeaderLength());
+        Codec.encode(msg, out);
+    }
+}
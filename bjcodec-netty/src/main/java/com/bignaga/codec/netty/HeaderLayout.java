@@ -0,0 +1,241 @@
+/**
+ * @project lbsgap
+ * @file HeaderLayout.java
+ * @package com.bignaga.codec.netty
+ * @author zhonghao
+ * @date 2026/10/17 22:10
+ * @copyright bignaga
+ */
+package com.bignaga.codec.netty;
+
+import com.bignaga.codec.FieldCodecs;
+import com.bignaga.codec.LengthLengthEnum;
+import com.bignaga.codec.MessageElementType;
+import com.bignaga.codec.MessageFraming;
+import com.bignaga.codec.utils.CodecUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.TooLongFrameException;
+
+import java.nio.ByteOrder;
+
+/**
+ * layout of the frame header in front of every message body, immutable:
+ * <pre>
+ * +------------------- headerLength -------------------+
+ * | ... | length field | ... | message id | ...         | body (a @Message of the message id) |
+ *       ^ lengthFieldOffset  ^ messageIdOffset
+ * </pre>
+ * the frame length is lengthFieldOffset + the size of the length field + the value of the length field + lengthAdjustment,
+ * as {@link io.netty.handler.codec.LengthFieldBasedFrameDecoder} computes it; the header bytes other than the
+ * length field and the message id are zeros when encoding and ignored when decoding.
+ * @author zhonghao
+ * @date 2026/10/17 22:10
+ * @see BjMessageDecoder
+ * @see BjMessageEncoder
+ * @see BjBatchEncoder
+ * @since
+ */
+public final class HeaderLayout implements MessageFraming {
+    private final int headerLength;
+    private final int lengthFieldOffset;
+    private final LengthLengthEnum lengthFieldLength;
+    private final int lengthAdjustment;
+    private final int messageIdOffset;
+    private final MessageElementType messageIdType;
+    private final ByteOrder byteOrder;
+    private final int maxFrameLength;
+    private final int lengthFieldEndOffset;
+    private final int messageIdSize;
+
+    /**
+     * @param headerLength the number of bytes in front of the body
+     * @param lengthFieldOffset offset of the length field in the header
+     * @param lengthFieldLength size of the length field, not NONE
+     * @param lengthAdjustment added to the value of the length field to get the number of bytes after the length field
+     * @param messageIdOffset offset of the message id in the header
+     * @param messageIdType U8/S8/U16/S16/U32/S32
+     * @param byteOrder byte order of the length field and the message id
+     * @param maxFrameLength longer frames are rejected before they are read
+     * @throws IllegalArgumentException if the fields do not fit in the header
+     */
+    public HeaderLayout(int headerLength,
+                        int lengthFieldOffset,
+                        LengthLengthEnum lengthFieldLength,
+                        int lengthAdjustment,
+                        int messageIdOffset,
+                        MessageElementType messageIdType,
+                        ByteOrder byteOrder,
+                        int maxFrameLength) {
+        if (null == lengthFieldLength || lengthFieldLength == LengthLengthEnum.NONE) {
+            throw new IllegalArgumentException("the length field must have a size");
+        }
+        if (null == messageIdType || !FieldCodecs.isNumeric(messageIdType) || messageIdType == MessageElementType.LONG) {
+            throw new IllegalArgumentException("the message id must be U8/S8/U16/S16/U32/S32: " + messageIdType);
+        }
+        this.lengthFieldEndOffset = lengthFieldOffset + CodecUtils.lengthSize(lengthFieldLength);
+        this.messageIdSize = FieldCodecs.sizeOf(messageIdType);
+        if (lengthFieldOffset < 0 || lengthFieldEndOffset > headerLength) {
+            throw new IllegalArgumentException("the length field is out of the header");
+        }
+        if (messageIdOffset < 0 || messageIdOffset + messageIdSize > headerLength) {
+            throw new IllegalArgumentException("the message id is out of the header");
+        }
+        if (maxFrameLength < headerLength) {
+            throw new IllegalArgumentException("maxFrameLength " + maxFrameLength + " < headerLength " + headerLength);
+        }
+        this.headerLength = headerLength;
+        this.lengthFieldOffset = lengthFieldOffset;
+        this.lengthFieldLength = lengthFieldLength;
+        this.lengthAdjustment = lengthAdjustment;
+        this.messageIdOffset = messageIdOffset;
+        this.messageIdType = messageIdType;
+        this.byteOrder = null == byteOrder ? ByteOrder.BIG_ENDIAN : byteOrder;
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    /**
+     * read the frame length from the header of the frame at frameIndex, the reader index is not moved
+     * @return the number of bytes of the whole frame, header included
+     */
+    long getFrameLength(ByteBuf byteBuf, int frameIndex) {
+        int index = frameIndex + lengthFieldOffset;
+        boolean le = byteOrder == ByteOrder.LITTLE_ENDIAN;
+        long length;
+        switch (lengthFieldLength) {
+            case ONE_BYTES: length = byteBuf.getUnsignedByte(index); break;
+            case TWO_BYTES: length = le ? byteBuf.getUnsignedShortLE(index) : byteBuf.getUnsignedShort(index); break;
+            default: length = le ? byteBuf.getUnsignedIntLE(index) : byteBuf.getUnsignedInt(index); break;
+        }
+        return length + lengthAdjustment + lengthFieldEndOffset;
+    }
+
+    /**
+     * read the message id from the header of the frame at frameIndex, the reader index is not moved
+     */
+    int getMessageId(ByteBuf byteBuf, int frameIndex) {
+        int index = frameIndex + messageIdOffset;
+        boolean le = byteOrder == ByteOrder.LITTLE_ENDIAN;
+        switch (messageIdType) {
+            case U8: return byteBuf.getUnsignedByte(index);
+            case S8: return byteBuf.getByte(index);
+            case U16: return le ? byteBuf.getUnsignedShortLE(index) : byteBuf.getUnsignedShort(index);
+            case S16: return le ? byteBuf.getShortLE(index) : byteBuf.getShort(index);
+            default: return le ? byteBuf.getIntLE(index) : byteBuf.getInt(index);
+        }
+    }
+
+    /**
+     * write the length field of the frame of frameLength bytes at frameIndex, the writer index is not moved
+     * @throws IllegalArgumentException if the length does not fit in the length field
+     */
+    void setFrameLength(ByteBuf byteBuf, int frameIndex, int frameLength) {
+        long length = (long) frameLength - lengthAdjustment - lengthFieldEndOffset;
+        int size = CodecUtils.lengthSize(lengthFieldLength);
+        if (length < 0 || size < 4 && length >= 1L << (size * 8) || length > 0xFFFFFFFFL) {
+            throw new IllegalArgumentException("frame length " + frameLength + " does not fit in the length field " + lengthFieldLength);
+        }
+        int index = frameIndex + lengthFieldOffset;
+        boolean le = byteOrder == ByteOrder.LITTLE_ENDIAN;
+        switch (lengthFieldLength) {
+            case ONE_BYTES: byteBuf.setByte(index, (int) length); break;
+            case TWO_BYTES: if (le) byteBuf.setShortLE(index, (int) length); else byteBuf.setShort(index, (int) length); break;
+            default: if (le) byteBuf.setIntLE(index, (int) length); else byteBuf.setInt(index, (int) length); break;
+        }
+    }
+
+    @Override
+    public int headerLength() {
+        return headerLength;
+    }
+
+    /**
+     * fill the length field and the message id of the frame at frameIndex
+     * @throws TooLongFrameException if frameLength > maxFrameLength
+     * @throws IllegalArgumentException if the length does not fit in the length field or the message id in its field
+     */
+    @Override
+    public void writeHeader(ByteBuf byteBuf, int frameIndex, int frameLength, int messageType) {
+        if (frameLength > maxFrameLength) {
+            throw new TooLongFrameException("frame length " + frameLength + " > " + maxFrameLength);
+        }
+        setMessageId(byteBuf, frameIndex, messageType);
+        setFrameLength(byteBuf, frameIndex, frameLength);
+    }
+
+    /**
+     * write the message id into the header of the frame at frameIndex, the writer index is not moved
+     * @throws IllegalArgumentException if the message id does not fit in the message id field, a peer would
+     * read another id
+     */
+    void setMessageId(ByteBuf byteBuf, int frameIndex, int messageId) {
+        if (!fitsMessageId(messageId)) {
+            throw new IllegalArgumentException("message id " + messageId + " does not fit in the message id field " + messageIdType);
+        }
+        int index = frameIndex + messageIdOffset;
+        boolean le = byteOrder == ByteOrder.LITTLE_ENDIAN;
+        switch (messageIdSize) {
+            case 1: byteBuf.setByte(index, messageId); break;
+            case 2: if (le) byteBuf.setShortLE(index, messageId); else byteBuf.setShort(index, messageId); break;
+            default: if (le) byteBuf.setIntLE(index, messageId); else byteBuf.setInt(index, messageId); break;
+        }
+    }
+
+    private boolean fitsMessageId(int messageId) {
+        switch (messageIdType) {
+            case U8: return messageId >= 0 && messageId <= 0xFF;
+            case S8: return messageId >= Byte.MIN_VALUE && messageId <= Byte.MAX_VALUE;
+            case U16: return messageId >= 0 && messageId <= 0xFFFF;
+            case S16: return messageId >= Short.MIN_VALUE && messageId <= Short.MAX_VALUE;
+            default: return true;
+        }
+    }
+
+    public int getHeaderLength() {
+        return headerLength;
+    }
+
+    public int getLengthFieldOffset() {
+        return lengthFieldOffset;
+    }
+
+    public LengthLengthEnum getLengthFieldLength() {
+        return lengthFieldLength;
+    }
+
+    /**
+     * @return offset of the first byte after the length field
+     */
+    public int getLengthFieldEndOffset() {
+        return lengthFieldEndOffset;
+    }
+
+    public int getLengthAdjustment() {
+        return lengthAdjustment;
+    }
+
+    public int getMessageIdOffset() {
+        return messageIdOffset;
+    }
+
+    public MessageElementType getMessageIdType() {
+        return messageIdType;
+    }
+
+    public ByteOrder getByteOrder() {
+        return byteOrder;
+    }
+
+    public int getMaxFrameLength() {
+        return maxFrameLength;
+    }
+
+    @Override
+    public String toString() {
+        return "HeaderLayout{headerLength=" + headerLength
+                + ", lengthField=" + lengthFieldLength + "@" + lengthFieldOffset
+                + ", lengthAdjustment=" + lengthAdjustment
+                + ", messageId=" + messageIdType + "@" + messageIdOffset
+                + ", byteOrder=" + byteOrder
+                + ", maxFrameLength=" + maxFrameLength + "}";
+    }
+}
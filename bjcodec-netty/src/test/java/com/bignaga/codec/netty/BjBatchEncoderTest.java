@@ -0,0 +1,102 @@
+/**
+ * @project lbsgap
+ * @file BjBatchEncoderTest.java
+ * @package com.bignaga.codec.netty
+ * @author zhonghao
+ * @date 2026/10/18 17:40
+ * @copyright bignaga
+ */
+package com.bignaga.codec.netty;
+
+import com.bignaga.codec.Codecs;
+import com.bignaga.codec.LengthLengthEnum;
+import com.bignaga.codec.MessageElementType;
+import com.bignaga.codec.annotation.Message;
+import com.bignaga.codec.annotation.MessageElement;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.EncoderException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * batches of {@link BjBatchEncoder} read back by {@link BjMessageDecoder}
+ * @author zhonghao
+ * @date 2026/10/18 17:40
+ * @see BjBatchEncoder
+ * @since
+ */
+public class BjBatchEncoderTest {
+
+    @Message(300)
+    public static class Wide {
+        @MessageElement(index = 0, type = MessageElementType.U8)
+        public int value;
+    }
+
+    @BeforeAll
+    public static void scan() {
+        Codecs.scan("com.bignaga.codec.netty");
+    }
+
+    @Test
+    public void promisesCompleteWithTheBatch() {
+        EmbeddedChannel encoder = new EmbeddedChannel(new BjBatchEncoder(BjMessageDecoderTest.LAYOUT));
+        ChannelFuture first = encoder.write(BjMessageDecoderTest.Point.of(1, 2));
+        ChannelFuture second = encoder.write(BjMessageDecoderTest.Blob.of("batch", 10));
+        assertFalse(first.isDone());
+        assertFalse(second.isDone());
+
+        encoder.flush();
+        assertTrue(first.isSuccess());
+        assertTrue(second.isSuccess());
+        ByteBuf batch = encoder.readOutbound();
+        assertNull(encoder.readOutbound());
+
+        EmbeddedChannel decoder = new EmbeddedChannel(new BjMessageDecoder(BjMessageDecoderTest.LAYOUT));
+        decoder.writeInbound(batch);
+        BjMessageDecoderTest.Point point = decoder.readInbound();
+        assertEquals(1, point.x);
+        BjMessageDecoderTest.assertBlob(decoder.readInbound(), "batch", 10);
+        assertNull(decoder.readInbound());
+    }
+
+    @Test
+    public void otherObjectsKeepTheirPlace() {
+        EmbeddedChannel encoder = new EmbeddedChannel(new BjBatchEncoder(BjMessageDecoderTest.LAYOUT));
+        encoder.write(BjMessageDecoderTest.Point.of(1, 2));
+        encoder.write("between");
+        encoder.write(BjMessageDecoderTest.Point.of(3, 4));
+        encoder.flush();
+
+        ByteBuf before = encoder.readOutbound();
+        assertSame("between", encoder.readOutbound());
+        ByteBuf after = encoder.readOutbound();
+        assertNull(encoder.readOutbound());
+
+        EmbeddedChannel decoder = new EmbeddedChannel(new BjMessageDecoder(BjMessageDecoderTest.LAYOUT));
+        decoder.writeInbound(before, after);
+        assertEquals(1, decoder.<BjMessageDecoderTest.Point>readInbound().x);
+        assertEquals(3, decoder.<BjMessageDecoderTest.Point>readInbound().x);
+    }
+
+    @Test
+    public void promisesFailWithTheBatch() {
+        HeaderLayout narrow = new HeaderLayout(2, 0, LengthLengthEnum.ONE_BYTES, 0, 1,
+                MessageElementType.U8, ByteOrder.BIG_ENDIAN, 255);
+        EmbeddedChannel encoder = new EmbeddedChannel(new BjBatchEncoder(narrow));
+        ChannelFuture future = encoder.writeAndFlush(new Wide());
+        assertFalse(future.isSuccess());
+        assertTrue(future.cause() instanceof EncoderException, String.valueOf(future.cause()));
+        assertNull(encoder.readOutbound());
+    }
+}
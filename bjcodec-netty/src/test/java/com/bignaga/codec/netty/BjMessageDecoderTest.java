@@ -0,0 +1,191 @@
+/**
+ * @project lbsgap
+ * @file BjMessageDecoderTest.java
+ * @package com.bignaga.codec.netty
+ * @author zhonghao
+ * @date 2026/10/18 17:40
+ * @copyright bignaga
+ */
+package com.bignaga.codec.netty;
+
+import com.bignaga.codec.Codecs;
+import com.bignaga.codec.LengthLengthEnum;
+import com.bignaga.codec.MessageElementType;
+import com.bignaga.codec.annotation.Length;
+import com.bignaga.codec.annotation.Message;
+import com.bignaga.codec.annotation.MessageElement;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.TooLongFrameException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * frames written by {@link BjMessageEncoder} and read back by {@link BjMessageDecoder} through {@link EmbeddedChannel}s
+ * @author zhonghao
+ * @date 2026/10/18 17:40
+ * @see BjMessageDecoder
+ * @see BjMessageEncoder
+ * @since
+ */
+public class BjMessageDecoderTest {
+    /**
+     * u32 length of the whole frame | u32 message id
+     */
+    static final HeaderLayout LAYOUT = new HeaderLayout(8, 0, LengthLengthEnum.FOUR_BYTES, -4, 4,
+            MessageElementType.U32, ByteOrder.BIG_ENDIAN, 256);
+
+    @Message(1)
+    public static class Point {
+        @MessageElement(index = 0, type = MessageElementType.S32)
+        public int x;
+        @MessageElement(index = 1, type = MessageElementType.S32)
+        public int y;
+
+        static Point of(int x, int y) {
+            Point point = new Point();
+            point.x = x;
+            point.y = y;
+            return point;
+        }
+    }
+
+    @Message(2)
+    public static class Blob {
+        @MessageElement(index = 0, type = MessageElementType.BYTES, lengthStack = {@Length(length = LengthLengthEnum.TWO_BYTES)})
+        public String name;
+        @MessageElement(index = 1, type = MessageElementType.BYTES, lengthStack = {@Length(length = LengthLengthEnum.FOUR_BYTES)})
+        public ByteBuf payload;
+        @MessageElement(index = 2, type = MessageElementType.S16)
+        public short tail;
+
+        static Blob of(String name, int payloadLength) {
+            Blob blob = new Blob();
+            blob.name = name;
+            blob.payload = Unpooled.buffer(payloadLength);
+            for (int i = 0; i < payloadLength; ++i) {
+                blob.payload.writeByte(i);
+            }
+            blob.tail = -2;
+            return blob;
+        }
+    }
+
+    @BeforeAll
+    public static void scan() {
+        Codecs.scan("com.bignaga.codec.netty");
+    }
+
+    @Test
+    public void roundTripOfSplitFrames() {
+        ByteBuf frames = encode(Point.of(1, -1), Blob.of("blob", 20), Point.of(2, 3));
+        EmbeddedChannel decoder = new EmbeddedChannel(new BjMessageDecoder(LAYOUT));
+        writeInChunks(decoder, frames, 1);
+
+        Point first = decoder.readInbound();
+        assertEquals(1, first.x);
+        assertEquals(-1, first.y);
+        assertBlob(decoder.readInbound(), "blob", 20);
+        Point last = decoder.readInbound();
+        assertEquals(2, last.x);
+        assertEquals(3, last.y);
+        assertNull(decoder.readInbound());
+        assertFalse(decoder.finish());
+    }
+
+    @Test
+    public void oversizedFrameIsDiscarded() {
+        ByteBuf frames = Unpooled.buffer();
+        frames.writeInt(300).writeInt(1).writeZero(292);
+        frames.writeBytes(encode(Point.of(4, 5)));
+        EmbeddedChannel decoder = new EmbeddedChannel(new BjMessageDecoder(LAYOUT));
+
+        assertThrows(TooLongFrameException.class, () -> decoder.writeInbound(frames.readRetainedSlice(100)));
+        decoder.writeInbound(frames);
+        Point point = decoder.readInbound();
+        assertEquals(4, point.x);
+        assertEquals(5, point.y);
+        assertNull(decoder.readInbound());
+    }
+
+    @Test
+    public void largeFramesAreDecodedAsTheyArrive() {
+        ByteBuf frames = encode(Blob.of("incremental", 200), Point.of(6, 7));
+        EmbeddedChannel decoder = new EmbeddedChannel(new BjMessageDecoder(LAYOUT, 16));
+        writeInChunks(decoder, frames, 7);
+
+        assertBlob(decoder.readInbound(), "incremental", 200);
+        Point point = decoder.readInbound();
+        assertEquals(6, point.x);
+        assertNull(decoder.readInbound());
+        assertFalse(decoder.finish());
+    }
+
+    @Test
+    public void truncatedLargeFrameFailsOnClose() {
+        ByteBuf frames = encode(Blob.of("truncated", 200));
+        ByteBuf half = frames.readRetainedSlice(100);
+        EmbeddedChannel decoder = new EmbeddedChannel(new BjMessageDecoder(LAYOUT, 16));
+        decoder.writeInbound(half);
+        assertNull(decoder.readInbound());
+
+        assertThrows(CorruptedFrameException.class, decoder::finish);
+        //the payload read of the frame has been released
+        assertEquals(1, frames.refCnt());
+        frames.release();
+    }
+
+    @Test
+    public void otherObjectsPassTheEncoder() {
+        EmbeddedChannel encoder = new EmbeddedChannel(new BjMessageEncoder(LAYOUT));
+        encoder.writeOutbound("text", Point.of(8, 9));
+        assertSame("text", encoder.readOutbound());
+        ByteBuf frame = encoder.readOutbound();
+        assertEquals("00000010" + "00000001" + "00000008" + "00000009", ByteBufUtil.hexDump(frame));
+        frame.release();
+    }
+
+    /**
+     * the frames of messages as {@link BjMessageEncoder} writes them
+     */
+    static ByteBuf encode(Object... messages) {
+        EmbeddedChannel encoder = new EmbeddedChannel(new BjMessageEncoder(LAYOUT, false));
+        encoder.writeOutbound(messages);
+        ByteBuf frames = Unpooled.buffer();
+        for (ByteBuf frame; null != (frame = encoder.readOutbound()); ) {
+            frames.writeBytes(frame);
+            frame.release();
+        }
+        return frames;
+    }
+
+    static void writeInChunks(EmbeddedChannel channel, ByteBuf byteBuf, int chunkSize) {
+        while (byteBuf.isReadable()) {
+            channel.writeInbound(byteBuf.readRetainedSlice(Math.min(chunkSize, byteBuf.readableBytes())));
+        }
+        byteBuf.release();
+    }
+
+    static void assertBlob(Blob blob, String name, int payloadLength) {
+        assertEquals(name, blob.name);
+        byte[] expected = new byte[payloadLength];
+        for (int i = 0; i < payloadLength; ++i) {
+            expected[i] = (byte) i;
+        }
+        assertArrayEquals(expected, ByteBufUtil.getBytes(blob.payload));
+        assertEquals(-2, blob.tail);
+        blob.payload.release();
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * @project lbsgap
+ * @file HeaderLayoutTest.java
+ * @package com.bignaga.codec.netty
+ * @author zhonghao
+ * @date 2026/10/18 17:10
+ * @copyright bignaga
+ */
+package com.bignaga.codec.netty;
+
+import com.bignaga.codec.LengthLengthEnum;
+import com.bignaga.codec.MessageElementType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * the message id and the length field are written only if they fit in their field
+ * @author zhonghao
+ * @date 2026/10/18 17:10
+ * @see HeaderLayout
+ * @since
+ */
+public class HeaderLayoutTest {
+    /**
+     * length:1 | id:1
+     */
+    private static final HeaderLayout LAYOUT = new HeaderLayout(2, 0, LengthLengthEnum.ONE_BYTES, 0, 1,
+            MessageElementType.U8, ByteOrder.BIG_ENDIAN, 1024);
+
+    @Test
+    public void writesHeader() {
+        ByteBuf byteBuf = Unpooled.buffer().writeZero(4);
+        LAYOUT.writeHeader(byteBuf, 0, 4, 255);
+        assertEquals("03ff0000", ByteBufUtil.hexDump(byteBuf));
+        assertEquals(255, LAYOUT.getMessageId(byteBuf, 0));
+        assertEquals(4, LAYOUT.getFrameLength(byteBuf, 0));
+    }
+
+    @Test
+    public void rejectsMessageIdOutOfItsField() {
+        ByteBuf byteBuf = Unpooled.buffer().writeZero(4);
+        assertThrows(IllegalArgumentException.class, () -> LAYOUT.writeHeader(byteBuf, 0, 4, 300));
+        assertThrows(IllegalArgumentException.class, () -> LAYOUT.writeHeader(byteBuf, 0, 4, -1));
+
+        HeaderLayout signed = new HeaderLayout(3, 0, LengthLengthEnum.ONE_BYTES, 0, 1,
+                MessageElementType.S16, ByteOrder.BIG_ENDIAN, 1024);
+        signed.writeHeader(byteBuf, 0, 4, -32768);
+        assertEquals(-32768, signed.getMessageId(byteBuf, 0));
+        assertThrows(IllegalArgumentException.class, () -> signed.writeHeader(byteBuf, 0, 4, 32768));
+    }
+
+    @Test
+    public void rejectsFrameLengthOutOfItsField() {
+        HeaderLayout layout = new HeaderLayout(2, 0, LengthLengthEnum.ONE_BYTES, 0, 1,
+                MessageElementType.U8, ByteOrder.BIG_ENDIAN, 4096);
+        ByteBuf byteBuf = Unpooled.buffer().writeZero(300);
+        assertThrows(IllegalArgumentException.class, () -> layout.writeHeader(byteBuf, 0, 300, 1));
+    }
+}
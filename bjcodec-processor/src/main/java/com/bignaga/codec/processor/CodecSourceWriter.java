@@ -0,0 +1,190 @@
+/**
+ * @project lbsgap
+ * @file CodecSourceWriter.java
+ * @package com.bignaga.codec.processor
+ * @author zhonghao
+ * @date 2026/10/17 11:20
+ * @copyright bignaga
+ */
+package com.bignaga.codec.processor;
+
+import com.bignaga.codec.ByteOrderEnum;
+import com.bignaga.codec.MessageElementType;
+
+import javax.lang.model.type.TypeKind;
+import java.util.List;
+
+/**
+ * emits the java source of a generated {@link com.bignaga.codec.MessageCodec}
+ *
+ * numeric and reserve fields are read/written with straight ByteBuf calls,
+ * all other fields go through an {@link com.bignaga.codec.ElementCodec} bound once in a static field
+ * @author zhonghao
+ * @date 2026/10/17 11:20
+ * @see
+ * @since
+ */
+final class CodecSourceWriter {
+    private static final String INDENT = "    ";
+
+    private final StringBuilder out = new StringBuilder(4096);
+
+    static String write(String packageName, String codecName, String messageType, List<ElementModel> elements) {
+        return new CodecSourceWriter().source(packageName, codecName, messageType, elements);
+    }
+
+    private String source(String packageName, String codecName, String messageType, List<ElementModel> elements) {
+        line(0, "// generated by bjcodec-processor, do not edit");
+        if (!packageName.isEmpty()) {
+            line(0, "package " + packageName + ";");
+        }
+        line(0, "");
+        line(0, "import com.bignaga.codec.ElementCodec;");
+        line(0, "import com.bignaga.codec.MessageCodec;");
+        line(0, "import io.netty.buffer.ByteBuf;");
+        line(0, "");
+        line(0, "public final class " + codecName + " implements MessageCodec<" + messageType + "> {");
+        for (ElementModel element : elements) {
+            if (!element.isInlined()) {
+                line(1, "private static final ElementCodec<" + element.boxedType + "> " + codecField(element)
+                        + " = ElementCodec.of(" + messageType + ".class, \"" + element.name + "\");");
+            }
+        }
+        line(0, "");
+        line(1, "@Override");
+        line(1, "public " + messageType + " decode(ByteBuf byteBuf) {");
+        line(2, messageType + " value = new " + messageType + "();");
+        for (ElementModel element : elements) {
+            decode(element);
+        }
+        line(2, "return value;");
+        line(1, "}");
+        line(0, "");
+        line(1, "@Override");
+        line(1, "public void encode(" + messageType + " value, ByteBuf byteBuf) {");
+        for (ElementModel element : elements) {
+            encode(element);
+        }
+        line(1, "}");
+        line(0, "}");
+        return out.toString();
+    }
+
+    private void decode(ElementModel element) {
+        if (element.elementType == MessageElementType.RESERVE) {
+            line(2, "byteBuf.skipBytes(" + element.lengthStack[0].value() + ");");
+            return;
+        }
+        String read;
+        if (element.isInlined()) {
+            read = convertFromWire(element, readWire(element));
+            if (element.boxed) {
+                read = element.boxedType + ".valueOf(" + read + ")";
+            }
+        } else {
+            read = codecField(element) + ".read(byteBuf)";
+        }
+        if (null == element.setter) {
+            line(2, "value." + element.name + " = " + read + ";");
+        } else {
+            line(2, "value." + element.setter + "(" + read + ");");
+        }
+    }
+
+    private void encode(ElementModel element) {
+        if (element.elementType == MessageElementType.RESERVE) {
+            line(2, "byteBuf.writeZero(" + element.lengthStack[0].value() + ");");
+            return;
+        }
+        String get = null == element.getter ? "value." + element.name : "value." + element.getter + "()";
+        if (!element.isInlined()) {
+            line(2, codecField(element) + ".write(" + get + ", byteBuf);");
+            return;
+        }
+        if (element.boxed) {
+            String local = element.name + "Value";
+            line(2, element.boxedType + " " + local + " = " + get + ";");
+            get = local;
+        }
+        boolean le = element.byteOrder == ByteOrderEnum.LITTLE_ENDIAN;
+        switch (element.elementType) {
+            case U8:
+            case S8:
+                line(2, "byteBuf.writeByte(" + toWireInt(element, get) + ");");
+                break;
+            case U16:
+            case S16:
+                line(2, "byteBuf.writeShort" + (le ? "LE" : "") + "(" + toWireInt(element, get) + ");");
+                break;
+            case S32:
+            case U32:
+                line(2, "byteBuf.writeInt" + (le ? "LE" : "") + "(" + toWireInt(element, get) + ");");
+                break;
+            case LONG:
+                line(2, "byteBuf.writeLong" + (le ? "LE" : "") + "(" + toWireLong(element, get) + ");");
+                break;
+            default:
+                throw new IllegalStateException("not inlined: " + element.elementType);
+        }
+    }
+
+    private static String readWire(ElementModel element) {
+        String le = element.byteOrder == ByteOrderEnum.LITTLE_ENDIAN ? "LE" : "";
+        switch (element.elementType) {
+            case U8: return "byteBuf.readUnsignedByte()";
+            case S8: return "byteBuf.readByte()";
+            case U16: return "byteBuf.readUnsignedShort" + le + "()";
+            case S16: return "byteBuf.readShort" + le + "()";
+            case S32: return "byteBuf.readInt" + le + "()";
+            case U32: return "byteBuf.readUnsignedInt" + le + "()";
+            case LONG: return "byteBuf.readLong" + le + "()";
+            default: throw new IllegalStateException("not inlined: " + element.elementType);
+        }
+    }
+
+    private static String convertFromWire(ElementModel element, String wire) {
+        switch (element.primitiveKind) {
+            case BOOLEAN: return wire + " != 0";
+            case BYTE: return "(byte) " + wire;
+            case SHORT: return "(short) " + wire;
+            case INT: return "(int) " + wire;
+            case LONG: return wire;
+            default: throw new IllegalStateException("not inlined: " + element.primitiveKind);
+        }
+    }
+
+    private static String toWireInt(ElementModel element, String value) {
+        if (element.boxed) {
+            if (element.primitiveKind == TypeKind.BOOLEAN) {
+                return "null == " + value + " || !" + value + " ? 0 : 1";
+            }
+            return "null == " + value + " ? 0 : " + value + ".intValue()";
+        }
+        switch (element.primitiveKind) {
+            case BOOLEAN: return value + " ? 1 : 0";
+            case LONG: return "(int) " + value;
+            default: return value;
+        }
+    }
+
+    private static String toWireLong(ElementModel element, String value) {
+        if (element.boxed) {
+            if (element.primitiveKind == TypeKind.BOOLEAN) {
+                return "null == " + value + " || !" + value + " ? 0L : 1L";
+            }
+            return "null == " + value + " ? 0L : " + value + ".longValue()";
+        }
+        return element.primitiveKind == TypeKind.BOOLEAN ? value + " ? 1L : 0L" : value;
+    }
+
+    private static String codecField(ElementModel element) {
+        return element.name + "Codec";
+    }
+
+    private void line(int indent, String s) {
+        for (int i = 0; i < indent; ++i) {
+            out.append(INDENT);
+        }
+        out.append(s).append('\n');
+    }
+}
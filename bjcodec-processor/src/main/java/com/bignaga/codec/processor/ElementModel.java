@@ -0,0 +1,95 @@
+/**
+ * @project lbsgap
+ * @file ElementModel.java
+ * @package com.bignaga.codec.processor
+ * @author zhonghao
+ * @date 2026/10/17 11:02
+ * @copyright bignaga
+ */
+package com.bignaga.codec.processor;
+
+import com.bignaga.codec.ByteOrderEnum;
+import com.bignaga.codec.MessageElementType;
+import com.bignaga.codec.annotation.Length;
+
+import javax.lang.model.type.TypeKind;
+
+/**
+ * one {@code @MessageElement} field of a message class, as seen by {@link MessageCodecProcessor}
+ * @author zhonghao
+ * @date 2026/10/17 11:02
+ * @see
+ * @since
+ */
+final class ElementModel {
+    final String name;
+    final int index;
+    final MessageElementType elementType;
+    final ByteOrderEnum byteOrder;
+    final Length[] lengthStack;
+    /**
+     * source form of the field type, boxed if the field is primitive
+     */
+    final String boxedType;
+    /**
+     * kind of the field once unboxed, {@link TypeKind#DECLARED} if the field is neither a primitive nor a box
+     */
+    final TypeKind primitiveKind;
+    final boolean boxed;
+    /**
+     * name of the getter/setter when the field is not directly accessible from the codec, else null
+     */
+    final String getter;
+    final String setter;
+
+    ElementModel(String name,
+                 int index,
+                 MessageElementType elementType,
+                 ByteOrderEnum byteOrder,
+                 Length[] lengthStack,
+                 String boxedType,
+                 TypeKind primitiveKind,
+                 boolean boxed,
+                 String getter,
+                 String setter) {
+        this.name = name;
+        this.index = index;
+        this.elementType = elementType;
+        this.byteOrder = byteOrder;
+        this.lengthStack = lengthStack;
+        this.boxedType = boxedType;
+        this.primitiveKind = primitiveKind;
+        this.boxed = boxed;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    /**
+     * whether the codec reads/writes the field with straight ByteBuf calls instead of an ElementCodec
+     * @return
+     */
+    boolean isInlined() {
+        if (elementType == MessageElementType.RESERVE) {
+            return lengthStack.length > 0;
+        }
+        if (primitiveKind == TypeKind.DECLARED) {
+            return false;
+        }
+        switch (elementType) {
+            case U8:
+            case S8:
+            case U16:
+            case S16:
+            case S32:
+            case U32:
+            case LONG:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+/**
+ * @project lbsgap
+ * @file MessageCodecProcessor.java
+ * @package com.bignaga.codec.processor
+ * @author zhonghao
+ * @date 2026/10/17 11:45
+ * @copyright bignaga
+ */
+package com.bignaga.codec.processor;
+
+import com.bignaga.codec.MessageCodecs;
+import com.bignaga.codec.annotation.Message;
+import com.bignaga.codec.annotation.MessageElement;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * generates a {@link com.bignaga.codec.MessageCodec} for every {@code @Message} class
+ * and every class declaring {@code @MessageElement} fields.
+ *
+ * classes the generated code can not access (private classes or constructors, generic classes, final or
+ * private fields without accessors ...) are skipped with a note, they keep using the reflective adapters.
+ * @author zhonghao
+ * @date 2026/10/17 11:45
+ * @see MessageCodecs
+ * @since
+ */
+@SupportedAnnotationTypes({
+        "com.bignaga.codec.annotation.Message",
+        "com.bignaga.codec.annotation.MessageElement"})
+public class MessageCodecProcessor extends AbstractProcessor {
+    private final Set<String> generated = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Map<String, TypeElement> types = new LinkedHashMap<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(Message.class)) {
+            if (element.getKind() == ElementKind.CLASS) {
+                TypeElement type = (TypeElement) element;
+                types.put(type.getQualifiedName().toString(), type);
+            }
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(MessageElement.class)) {
+            Element enclosing = element.getEnclosingElement();
+            if (element.getKind() == ElementKind.FIELD && enclosing.getKind() == ElementKind.CLASS) {
+                TypeElement type = (TypeElement) enclosing;
+                types.put(type.getQualifiedName().toString(), type);
+            }
+        }
+        for (TypeElement type : types.values()) {
+            if (generated.add(type.getQualifiedName().toString())) {
+                generate(type);
+            }
+        }
+        return false;
+    }
+
+    private void generate(TypeElement type) {
+        Elements elements = processingEnv.getElementUtils();
+        String reason = checkType(type);
+        List<ElementModel> models = new ArrayList<>();
+        if (null == reason) {
+            reason = collectElements(type, models);
+        }
+        if (null != reason) {
+            note(type, "no codec generated for " + type.getQualifiedName() + ", " + reason);
+            return;
+        }
+        models.sort(Comparator.comparingInt(ElementModel::getIndex));
+
+        String codecName = MessageCodecs.codecClassName(elements.getBinaryName(type).toString());
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        String simpleName = codecName.substring(codecName.lastIndexOf('.') + 1);
+        String source = CodecSourceWriter.write(packageName, simpleName, type.getQualifiedName().toString(), models);
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(codecName, type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source);
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "failed to write " + codecName + ": " + e.getMessage(), type);
+        }
+    }
+
+    /**
+     * @return null if the generated codec can instantiate type, else why not
+     */
+    private String checkType(TypeElement type) {
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            return "it is abstract";
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            return "it is generic";
+        }
+        if (type.getNestingKind() != NestingKind.TOP_LEVEL && type.getNestingKind() != NestingKind.MEMBER) {
+            return "it is a local or anonymous class";
+        }
+        if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)) {
+            return "it is an inner class";
+        }
+        for (Element e = type; e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                return "it is not accessible";
+            }
+        }
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+        for (ExecutableElement constructor : constructors) {
+            if (constructor.getParameters().isEmpty()) {
+                return constructor.getModifiers().contains(Modifier.PRIVATE) ? "its no-args constructor is private" : null;
+            }
+        }
+        return constructors.isEmpty() ? null : "it has no no-args constructor";
+    }
+
+    /**
+     * collect the annotated fields of type and its super classes, in the same order as the reflective adapter
+     * @return null if all the fields are accessible, else why not
+     */
+    private String collectElements(TypeElement type, List<ElementModel> models) {
+        Types types = processingEnv.getTypeUtils();
+        PackageElement codecPackage = processingEnv.getElementUtils().getPackageOf(type);
+        DeclaredType declaredType = (DeclaredType) type.asType();
+        Set<String> names = new HashSet<>();
+
+        TypeElement current = type;
+        while (null != current && !current.getQualifiedName().contentEquals(Object.class.getName())) {
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                MessageElement annotation = field.getAnnotation(MessageElement.class);
+                if (null == annotation) {
+                    continue;
+                }
+                String name = field.getSimpleName().toString();
+                if (!names.add(name)) {
+                    return "field " + name + " is hidden by a sub class";
+                }
+                if (field.getModifiers().contains(Modifier.STATIC)) {
+                    return "field " + name + " is static";
+                }
+                TypeMirror fieldType = types.asMemberOf(declaredType, field);
+                TypeKind primitiveKind = TypeKind.DECLARED;
+                boolean boxed = false;
+                String boxedType;
+                if (fieldType.getKind().isPrimitive()) {
+                    primitiveKind = fieldType.getKind();
+                    boxedType = types.boxedClass(types.getPrimitiveType(primitiveKind)).getQualifiedName().toString();
+                } else {
+                    boxedType = fieldType.toString();
+                    try {
+                        primitiveKind = types.unboxedType(fieldType).getKind();
+                        boxed = true;
+                    } catch (IllegalArgumentException e) {
+                        //not a box
+                    }
+                }
+                if (primitiveKind != TypeKind.BOOLEAN && primitiveKind != TypeKind.BYTE && primitiveKind != TypeKind.SHORT
+                        && primitiveKind != TypeKind.INT && primitiveKind != TypeKind.LONG) {
+                    primitiveKind = TypeKind.DECLARED;
+                    boxed = false;
+                }
+
+                String getter = null;
+                String setter = null;
+                if (!isAccessible(field, codecPackage) || field.getModifiers().contains(Modifier.FINAL)) {
+                    getter = findGetter(type, field, fieldType, codecPackage);
+                    setter = findSetter(type, field, fieldType, codecPackage);
+                    if (null == getter || null == setter) {
+                        return "field " + name + " is not accessible and has no getter/setter";
+                    }
+                }
+                models.add(new ElementModel(name,
+                        annotation.index(),
+                        annotation.type(),
+                        annotation.byteOrder(),
+                        annotation.lengthStack(),
+                        boxedType,
+                        primitiveKind,
+                        boxed,
+                        getter,
+                        setter));
+            }
+            TypeMirror superclass = current.getSuperclass();
+            current = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) types.asElement(superclass) : null;
+        }
+        return null;
+    }
+
+    private String findGetter(TypeElement type, VariableElement field, TypeMirror fieldType, PackageElement codecPackage) {
+        String capitalized = capitalize(field.getSimpleName().toString());
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            String name = method.getSimpleName().toString();
+            boolean named = name.equals("get" + capitalized)
+                    || (fieldType.getKind() == TypeKind.BOOLEAN && name.equals("is" + capitalized));
+            if (named && method.getParameters().isEmpty() && isAccessible(method, codecPackage)
+                    && processingEnv.getTypeUtils().isSameType(memberType(type, method).getReturnType(), fieldType)) {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    private String findSetter(TypeElement type, VariableElement field, TypeMirror fieldType, PackageElement codecPackage) {
+        String name = "set" + capitalize(field.getSimpleName().toString());
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (method.getSimpleName().contentEquals(name) && method.getParameters().size() == 1 && isAccessible(method, codecPackage)
+                    && processingEnv.getTypeUtils().isSameType(memberType(type, method).getParameterTypes().get(0), fieldType)) {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * type of method as a member of type, with the type variables of the super classes resolved
+     */
+    private ExecutableType memberType(TypeElement type, ExecutableElement method) {
+        return (ExecutableType) processingEnv.getTypeUtils().asMemberOf((DeclaredType) type.asType(), method);
+    }
+
+    /**
+     * whether a member is accessible from a class of codecPackage which is not a sub class of its owner
+     */
+    private boolean isAccessible(Element member, PackageElement codecPackage) {
+        Set<Modifier> modifiers = member.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.STATIC)) {
+            return false;
+        }
+        TypeElement owner = (TypeElement) member.getEnclosingElement();
+        if (processingEnv.getElementUtils().getPackageOf(owner).equals(codecPackage)) {
+            return true;
+        }
+        return modifiers.contains(Modifier.PUBLIC) && owner.getModifiers().contains(Modifier.PUBLIC);
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private void note(Element element, String msg) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, msg, element);
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * @project lbsgap
+ * @file MessageCodecProcessorTest.java
+ * @package com.bignaga.codec.processor
+ * @author zhonghao
+ * @date 2026/10/18 11:30
+ * @copyright bignaga
+ */
+package com.bignaga.codec.processor;
+
+import com.bignaga.codec.ByteOrderEnum;
+import com.bignaga.codec.MessageCodec;
+import com.bignaga.codec.MessageCodecs;
+import com.bignaga.codec.MessageElementType;
+import com.bignaga.codec.annotation.Length;
+import com.bignaga.codec.annotation.Message;
+import com.bignaga.codec.annotation.MessageElement;
+import com.bignaga.codec.copyfromgson.reflect.TypeAdapter;
+import com.bignaga.codec.copyfromgson.reflect.TypeAdapters;
+import com.bignaga.codec.copyfromgson.reflect.TypeToken;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * the codec generated for a message writes and reads the same bytes as the reflective adapter
+ * @author zhonghao
+ * @date 2026/10/18 11:30
+ * @see MessageCodecProcessor
+ * @since
+ */
+public class MessageCodecProcessorTest {
+    private static final Length[] LENGTH_STACK = new Length[0];
+
+    @Message(1)
+    public static class Sample {
+        @MessageElement(index = 1, type = MessageElementType.U8)
+        public int u8;
+        @MessageElement(index = 2, type = MessageElementType.S16, byteOrder = ByteOrderEnum.LITTLE_ENDIAN)
+        public short s16;
+        @MessageElement(index = 3, type = MessageElementType.S32)
+        public int s32;
+        @MessageElement(index = 4, type = MessageElementType.U32)
+        public long u32;
+        @MessageElement(index = 5, type = MessageElementType.LONG, byteOrder = ByteOrderEnum.LITTLE_ENDIAN)
+        public long longLE;
+        @MessageElement(index = 6, type = MessageElementType.RESERVE, lengthStack = {@Length(3)})
+        public Object reserve;
+        @MessageElement(index = 7, type = MessageElementType.S32)
+        public Integer boxed;
+        @MessageElement(index = 8, type = MessageElementType.LONG, byteOrder = ByteOrderEnum.LITTLE_ENDIAN)
+        public Long boxedLE;
+        @MessageElement(index = 9, type = MessageElementType.U8)
+        public boolean flag;
+        @MessageElement(index = 10, type = MessageElementType.U16, byteOrder = ByteOrderEnum.LITTLE_ENDIAN)
+        private int accessed;
+
+        public int getAccessed() {
+            return accessed;
+        }
+
+        public void setAccessed(int accessed) {
+            this.accessed = accessed;
+        }
+    }
+
+    @Test
+    public void generatedCodecMatchesReflectiveAdapter() {
+        Sample sample = new Sample();
+        sample.u8 = 0xfe;
+        sample.s16 = -2;
+        sample.s32 = 0x01020304;
+        sample.u32 = 0xfffffffeL;
+        sample.longLE = 0x0102030405060708L;
+        sample.boxed = -7;
+        sample.boxedLE = 9L;
+        sample.flag = true;
+        sample.setAccessed(0xabcd);
+        assertSameBytes(sample);
+
+        //null boxes are written as 0
+        sample.boxed = null;
+        sample.boxedLE = null;
+        assertSameBytes(sample);
+    }
+
+    private static void assertSameBytes(Sample sample) {
+        MessageCodec<Sample> codec = MessageCodecs.find(Sample.class);
+        assertNotNull(codec);
+        TypeAdapter<Sample> adapter = TypeAdapters.REFLECTIVE_TYPE_FACTORY.create(TypeToken.get(Sample.class), MessageElementType.STRUCT);
+
+        ByteBuf generated = Unpooled.buffer();
+        codec.encode(sample, generated);
+        ByteBuf reflective = Unpooled.buffer();
+        adapter.write(sample, reflective, ByteOrder.BIG_ENDIAN, MessageElementType.STRUCT, LENGTH_STACK);
+        assertEquals(ByteBufUtil.hexDump(reflective), ByteBufUtil.hexDump(generated));
+
+        Sample decoded = codec.decode(generated.duplicate());
+        Sample expected = adapter.read(reflective.duplicate(), ByteOrder.BIG_ENDIAN, MessageElementType.STRUCT, LENGTH_STACK);
+        assertEquals(expected.u8, decoded.u8);
+        assertEquals(expected.s16, decoded.s16);
+        assertEquals(expected.s32, decoded.s32);
+        assertEquals(expected.u32, decoded.u32);
+        assertEquals(expected.longLE, decoded.longLE);
+        assertEquals(expected.boxed, decoded.boxed);
+        assertEquals(expected.boxedLE, decoded.boxedLE);
+        assertEquals(expected.flag, decoded.flag);
+        assertEquals(expected.getAccessed(), decoded.getAccessed());
+    }
+}
@@ -0,0 +1,29 @@
+/**
+ * @project lbsgap
+ * @file AdapterMode.java
+ * @package com.bignaga.codec
+ * @author zhonghao
+ * @date 2026/10/17 14:05
+ * @copyright bignaga
+ */
+package com.bignaga.codec;
+
+/**
+ * how the type adapter of a message class without generated {@link MessageCodec} is built
+ *
+ * @author zhonghao
+ * @date 2026/10/17 14:05
+ * @see com.bignaga.codec.copyfromgson.reflect.TypeAdapters#setAdapterMode(Class, AdapterMode)
+ * @since
+ */
+public enum AdapterMode {
+    /**
+     * walk the fields by reflection
+     */
+    REFLECTIVE,
+    /**
+     * spin a specialized adapter class at runtime,
+     * falls back to REFLECTIVE for the classes it can not handle
+     */
+    BYTECODE
+}
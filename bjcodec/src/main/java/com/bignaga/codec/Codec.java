@@ -0,0 +1,288 @@
+/**
+ * @project lbsgap
+ * @file Codec.java
+ * @package com.bignaga.codec
+ * @author zhonghao
+ * @date 2018/6/12 17:11
+ * @copyright bignaga
+ */
+package com.bignaga.codec;
+
+import com.bignaga.codec.annotation.Length;
+import com.bignaga.utils.ThrowAs;
+import com.bignaga.codec.copyfromgson.internal.Primitives;
+import com.bignaga.codec.copyfromgson.reflect.ResumableReader;
+import com.bignaga.codec.copyfromgson.reflect.TypeAdapter;
+import com.bignaga.codec.copyfromgson.reflect.TypeAdapters;
+import com.bignaga.codec.copyfromgson.reflect.TypeToken;
+import com.bignaga.codec.utils.ZeroCopy;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * <一句话功能简述>
+ * <功能详细描述>
+ * @author zhonghao
+ * @date 2018/6/12 17:11
+ * @see
+ * @since
+ */
+public class Codec {
+    public static <T> T decode(ByteBuf byteBuf, Class<T> classOfT, ByteOrder byteOrder, Length[] lengthStack, MessageElementType elementType) {
+        Object object = decode(byteBuf, (Type) classOfT, byteOrder, lengthStack, elementType);
+        return Primitives.wrap(classOfT).cast(object);
+    }
+
+    public static <T> T decode(ByteBuf byteBuf, Type typeOfT, ByteOrder byteOrder, Length[] lengthStack, MessageElementType elementType) {
+        if (byteBuf == null || !byteBuf.isReadable()) {
+            return null;
+        }
+        T target = (T) fromByteBuf(byteBuf, typeOfT, byteOrder, lengthStack, elementType);
+        return target;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T fromByteBuf(ByteBuf byteBuf, Type typeOfT, ByteOrder byteOrder, Length[] lengthStack, MessageElementType elementType) {
+        //TODO
+        TypeToken<T> typeToken = (TypeToken<T>) TypeToken.get(typeOfT);
+        TypeAdapter<T> typeAdapter = TypeAdapters.getAdapter(typeToken, elementType);
+        T object = typeAdapter.read(byteBuf, byteOrder, elementType, lengthStack);
+        return object;
+    }
+
+    public static ByteBuf encode(Object o, ByteOrder byteOrder, Length[] lengthStack, MessageElementType elementType) {
+        if(o == null) {
+            return null;
+        }
+        return encode(o, o.getClass(), byteOrder, lengthStack, elementType);
+    }
+
+    private static ByteBuf encode(Object src, Type typeOfSrc, ByteOrder byteOrder, Length[] lengthStack, MessageElementType elementType) {
+        @SuppressWarnings("unchecked")
+        TypeAdapter<Object> adapter = (TypeAdapter<Object>) TypeAdapters.getAdapter(TypeToken.get(typeOfSrc), elementType);
+        int fixedSize = adapter.fixedSize(elementType, lengthStack);
+        //allocate once, variable layouts are sized from the value
+        int size = fixedSize >= 0 ? fixedSize : adapter.sizeOf(src, elementType, lengthStack);
+        ByteBuf byteBuf = ByteBufAllocator.DEFAULT.buffer(size);
+        try {
+            adapter.write(src, byteBuf, byteOrder, elementType, lengthStack);
+        } catch (Exception e) {
+            byteBuf.release();
+            ThrowAs.ThrowAsRuntimeException(e);
+        }
+        return byteBuf;
+    }
+
+    public static void encode(ByteBuf byteBuf, Object o, ByteOrder byteOrder, Length[] lengthStack, MessageElementType elementType) {
+        if(o == null) {
+            return;
+        }
+        encode(byteBuf, o, o.getClass(), byteOrder, lengthStack, elementType);
+    }
+
+    private static void encode(ByteBuf byteBuf, Object src, Type typeOfSrc, ByteOrder byteOrder, Length[] lengthStack, MessageElementType elementType) {
+        @SuppressWarnings("unchecked")
+        TypeAdapter<Object> adapter = (TypeAdapter<Object>) TypeAdapters.getAdapter(TypeToken.get(typeOfSrc), elementType);
+        adapter.write(src, byteBuf, byteOrder, elementType, lengthStack);
+    }
+
+    private static Length dummyLength = new Length() {
+        @Override
+        public Class<? extends Annotation> annotationType() {
+            return Length.class;
+        }
+
+        @Override
+        public int value() {
+            return 0;
+        }
+
+        @Override
+        public LengthLengthEnum length() {
+            return LengthLengthEnum.NONE;
+        }
+
+    };
+    static final Length[] dummyLengthStack = new Length[] {dummyLength};
+
+    /**
+     * the encoded size of a message of classOfT, computed once when its adapter is built
+     * @param classOfT
+     * @return -1 if the size depends on the field values (length prefixed fields, unbounded arrays/strings ...)
+     */
+    public static int fixedSizeOf(Class<?> classOfT) {
+        return MessageBinding.of(classOfT).fixedSize;
+    }
+
+    public static <T> T decode(ByteBuf byteBuf, Class<T> classOfT) {
+        MessageBinding<T> binding = MessageBinding.of(classOfT);
+        if (byteBuf == null || !byteBuf.isReadable()) {
+            return null;
+        }
+        return binding.decode(byteBuf);
+    }
+
+    /**
+     * decode only the fields of classOfT accepted by selector and move past the others: fixed width fields are
+     * skipped with skipBytes, length prefixed ones by reading only their length. the fields not selected keep
+     * the value set by the constructor.
+     *
+     * the decoding plan is compiled once per selector and cached by class, for a few dozen selectors: hold selectors
+     * as constants. {@link FieldSelector#of(String...)} selectors are equal by their names, but a lambda created per
+     * call is a new selector every time and compiles the plan again.
+     * @param byteBuf
+     * @param classOfT
+     * @param selector
+     * @return null if byteBuf is not readable
+     */
+    public static <T> T decode(ByteBuf byteBuf, Class<T> classOfT, FieldSelector selector) {
+        MessageBinding<T> binding = MessageBinding.of(classOfT);
+        if (byteBuf == null || !byteBuf.isReadable()) {
+            return null;
+        }
+        return binding.decode(byteBuf, selector);
+    }
+
+    /**
+     * a reader decoding a message of classOfT as its bytes arrive, for messages too large to be buffered whole:
+     * each {@link ResumableReader#resume(ByteBuf)} consumes the complete fields/elements readable and the message is
+     * {@link ResumableReader#result()} once it returns true. a reader decodes a single message.
+     * @param classOfT
+     * @return
+     */
+    public static <T> ResumableReader<T> newReader(Class<T> classOfT) {
+        return MessageBinding.of(classOfT).newReader();
+    }
+
+    /**
+     * the exact number of bytes {@link #encode(Object, ByteBuf)} writes for t, computed without encoding
+     * @param t
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> int sizeOf(T t) {
+        return MessageBinding.of((Class<T>) t.getClass()).sizeOf(t);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> void encode(T t, ByteBuf byteBuf) {
+        MessageBinding.of((Class<T>) t.getClass()).encode(t, byteBuf);
+    }
+
+    /**
+     * encode messages one after another into byteBuf, the same bytes as {@link #encode(Object, ByteBuf)} of each
+     * @param messages not null, their classes are resolved once per run of messages of the same class
+     * @param byteBuf
+     */
+    public static void encodeAll(Iterable<?> messages, ByteBuf byteBuf) {
+        encodeAll(messages, byteBuf, null);
+    }
+
+    /**
+     * encode messages one after another into byteBuf, each prefixed with the header of framing.
+     * messages is iterated once; the capacity of the whole batch (fixed sizes, or {@link #sizeOf(Object)} of the
+     * variable ones) is reserved once; if a message fails to encode, nothing of the batch is left in byteBuf
+     * @param messages not null, their classes are resolved once per run of messages of the same class
+     * @param byteBuf
+     * @param framing null to write the bodies only
+     * @throws IllegalArgumentException if framing is given and a message class is not annotated with @Message
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static void encodeAll(Iterable<?> messages, ByteBuf byteBuf, MessageFraming framing) {
+        int headerLength = null == framing ? 0 : framing.headerLength();
+        //taken while in use, a nested call gets a batch of its own
+        Batch batch = batches.get();
+        batches.set(null);
+        if (null == batch) {
+            batch = new Batch();
+        }
+        int n = 0;
+        try {
+            Class<?> lastClass = null;
+            MessageBinding binding = null;
+            long size = 0;
+            for (Object message : messages) {
+                if (message.getClass() != lastClass) {
+                    lastClass = message.getClass();
+                    binding = MessageBinding.of(lastClass);
+                    if (null != framing && null == binding.message) {
+                        throw new IllegalArgumentException(lastClass.getName() + " is not annotated with @Message");
+                    }
+                }
+                batch.add(n++, message, binding);
+                size += headerLength + binding.sizeOf(message);
+            }
+            //one reservation for the batch
+            byteBuf.ensureWritable((int) Math.min(size, Integer.MAX_VALUE));
+            int writerIndex = byteBuf.writerIndex();
+            try {
+                for (int i = 0; i < n; ++i) {
+                    binding = batch.bindings[i];
+                    int frameIndex = byteBuf.writerIndex();
+                    byteBuf.writeZero(headerLength);
+                    binding.encode(batch.messages[i], byteBuf);
+                    if (null != framing) {
+                        framing.writeHeader(byteBuf, frameIndex, byteBuf.writerIndex() - frameIndex, binding.message.value());
+                    }
+                }
+            } catch (RuntimeException e) {
+                byteBuf.writerIndex(writerIndex);
+                throw e;
+            }
+        } finally {
+            batch.clear(n);
+            //an exceptionally large batch is not kept by the thread
+            batches.set(batch.messages.length <= Batch.RETAINED ? batch : null);
+        }
+    }
+
+    private static final ThreadLocal<Batch> batches = ThreadLocal.withInitial(Batch::new);
+
+    /**
+     * the messages of an {@link #encodeAll(Iterable, ByteBuf, MessageFraming)} and their bindings, reused by the thread
+     */
+    private static final class Batch {
+        static final int RETAINED = 4096;
+
+        private Object[] messages = new Object[16];
+        private MessageBinding<?>[] bindings = new MessageBinding<?>[16];
+
+        void add(int i, Object message, MessageBinding<?> binding) {
+            if (i == messages.length) {
+                messages = Arrays.copyOf(messages, i * 2);
+                bindings = Arrays.copyOf(bindings, i * 2);
+            }
+            messages[i] = message;
+            bindings[i] = binding;
+        }
+
+        /**
+         * drop the references to the first n messages
+         */
+        void clear(int n) {
+            Arrays.fill(messages, 0, n, null);
+            Arrays.fill(bindings, 0, n, null);
+        }
+    }
+
+    /**
+     * encode t without copying its large payloads: byte[] (U8/S8), ByteBuf and ByteBuffer fields of threshold bytes
+     * or more become components of the result as they are, the other fields are written into a small buffer of
+     * allocator. same bytes as {@link #encode(Object, ByteBuf)}; the payloads must not be modified until the
+     * result has been written out, see {@link ZeroCopy}
+     * @param t
+     * @param allocator
+     * @param threshold
+     * @return owned by the caller
+     */
+    public static <T> CompositeByteBuf encodeComposite(T t, ByteBufAllocator allocator, int threshold) {
+        return ZeroCopy.encode(allocator, allocator.buffer(), threshold, byteBuf -> encode(t, byteBuf));
+    }
+
+}
@@ -0,0 +1,220 @@
+/**
+ * @project lbsgap
+ * @file Codecs.java
+ * @package com.bignaga.codec
+ * @author zhonghao
+ * @date 2018/9/28 11:39
+ * @copyright bignaga
+ */
+package com.bignaga.codec;
+
+import com.bignaga.codec.annotation.Message;
+import io.netty.buffer.ByteBuf;
+import org.reflections.Reflections;
+import org.reflections.scanners.SubTypesScanner;
+import org.reflections.scanners.TypeAnnotationsScanner;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <一句话功能简述>
+ * <功能详细描述>
+ * @author zhonghao
+ * @date 2018/9/28 11:39
+ * @see
+ * @since
+ */
+public class Codecs {
+    private static Logger logger = LoggerFactory.getLogger(Codecs.class);
+
+    /**
+     * messageType -> messageClass, guarded by Codecs.class
+     */
+    private static final Map<Integer, Class<?>> codecMap = new HashMap<>(256);
+    /**
+     * frozen copy of codecMap, replaced on each scan
+     */
+    private static volatile DispatchTable dispatchTable = DispatchTable.build(Collections.emptyMap());
+
+    /**
+     * map the @Message classes of basePackages by their message type
+     * @param basePackages
+     * @throws IllegalStateException if two classes have the same message type, nothing is mapped then
+     */
+    public static synchronized void scan(String ... basePackages) {
+        if(null == basePackages || basePackages.length == 0) {
+            return;
+        }
+        //
+        Reflections reflections = new Reflections(new ConfigurationBuilder()
+                .forPackages(basePackages)
+                .setScanners(new SubTypesScanner(), new TypeAnnotationsScanner())
+                .filterInputsBy(new FilterBuilder().includePackage(basePackages)))
+                ;
+        //honorInherited, the sub classes of a @Message class are not messages themselves
+        Set<Class<?>> annotated = reflections.getTypesAnnotatedWith(Message.class, true);
+        Map<Integer, Class<?>> scanned = new HashMap<>(codecMap);
+        for(Class<?> clazz : annotated) {
+            //flyweight interfaces/abstract classes can not be decoded into
+            if (clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers())) {
+                continue;
+            }
+            Message m = clazz.getAnnotation(Message.class);
+            Class<?> previous = scanned.putIfAbsent(m.value(), clazz);
+            if (null != previous && previous != clazz) {
+                throw new IllegalStateException("duplicate messageType " + m.value() + ": " + previous.getName() + " and " + clazz.getName());
+            }
+            logger.debug("map messageType -> messageClass: {} -> {}", m.value(), clazz.getName());
+        }
+        codecMap.putAll(scanned);
+        dispatchTable = DispatchTable.build(codecMap);
+    }
+
+    /**
+     * decode the body of a message of type messagId
+     * @throws IllegalArgumentException if messagId has not been scanned
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T decode(int messagId, ByteBuf byteBuf) {
+        Entry entry = dispatchTable.get(messagId);
+        if (null == entry) {
+            throw new IllegalArgumentException("unknown messageType " + messagId);
+        }
+        if (byteBuf == null || !byteBuf.isReadable()) {
+            return null;
+        }
+        return (T) entry.binding().decode(byteBuf);
+    }
+
+    /**
+     * encode the body of message, the encode counterpart of {@link #decode(int, ByteBuf)}
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> void encode(T message, ByteBuf byteBuf) {
+        MessageBinding.of((Class<T>) message.getClass()).encode(message, byteBuf);
+    }
+
+    /**
+     * @return the message type of the @Message annotation of clazz
+     * @throws IllegalArgumentException if clazz is not annotated with @Message
+     */
+    public static int messageTypeOf(Class<?> clazz) {
+        Message message = MessageBinding.of(clazz).message;
+        if (null == message) {
+            throw new IllegalArgumentException(clazz.getName() + " is not annotated with @Message");
+        }
+        return message.value();
+    }
+
+    /**
+     * @return the class scanned for messageType, null if none
+     */
+    public static Class<?> messageClassOf(int messageType) {
+        Entry entry = dispatchTable.get(messageType);
+        return null == entry ? null : entry.messageClass;
+    }
+
+    private static final class Entry {
+        final Class<?> messageClass;
+        private MessageBinding<?> binding;
+
+        Entry(Class<?> messageClass) {
+            this.messageClass = messageClass;
+            try {
+                //built at scan time
+                this.binding = MessageBinding.of(messageClass);
+            } catch (RuntimeException e) {
+                logger.warn("can not bind {}, will retry on decode: {}", messageClass.getName(), e.toString());
+            }
+        }
+
+        MessageBinding<?> binding() {
+            MessageBinding<?> b = this.binding;
+            if (null == b || !b.isCurrent()) {
+                b = MessageBinding.of(messageClass);
+                this.binding = b;
+            }
+            return b;
+        }
+    }
+
+    /**
+     * immutable messageType -> Entry table. an array indexed by messageType - min when the types are dense
+     * enough, else an open addressing table of power of 2 size
+     */
+    private static final class DispatchTable {
+        private static final int MAX_DENSE_SPAN = 1 << 16;
+
+        private final int min;
+        private final int[] keys;
+        private final Entry[] entries;
+        private final boolean dense;
+        private final int mask;
+
+        private DispatchTable(int min, int[] keys, Entry[] entries, boolean dense) {
+            this.min = min;
+            this.keys = keys;
+            this.entries = entries;
+            this.dense = dense;
+            this.mask = entries.length - 1;
+        }
+
+        static DispatchTable build(Map<Integer, Class<?>> classes) {
+            if (classes.isEmpty()) {
+                return new DispatchTable(0, new int[0], new Entry[0], true);
+            }
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (int messageType : classes.keySet()) {
+                min = Math.min(min, messageType);
+                max = Math.max(max, messageType);
+            }
+            long span = (long) max - min + 1;
+            if (span <= Math.min(MAX_DENSE_SPAN, 16L * classes.size() + 256)) {
+                Entry[] entries = new Entry[(int) span];
+                for (Map.Entry<Integer, Class<?>> e : classes.entrySet()) {
+                    entries[e.getKey() - min] = new Entry(e.getValue());
+                }
+                return new DispatchTable(min, null, entries, true);
+            }
+            int size = Integer.highestOneBit(classes.size() * 2 - 1) << 1;
+            int[] keys = new int[size];
+            Entry[] entries = new Entry[size];
+            for (Map.Entry<Integer, Class<?>> e : classes.entrySet()) {
+                int i = hash(e.getKey()) & (size - 1);
+                while (null != entries[i]) {
+                    i = (i + 1) & (size - 1);
+                }
+                keys[i] = e.getKey();
+                entries[i] = new Entry(e.getValue());
+            }
+            return new DispatchTable(0, keys, entries, false);
+        }
+
+        Entry get(int messageType) {
+            if (dense) {
+                int i = messageType - min;
+                return i >= 0 && i < entries.length ? entries[i] : null;
+            }
+            for (int i = hash(messageType) & mask; ; i = (i + 1) & mask) {
+                Entry entry = entries[i];
+                if (null == entry || keys[i] == messageType) {
+                    return entry;
+                }
+            }
+        }
+
+        private static int hash(int messageType) {
+            int h = messageType * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
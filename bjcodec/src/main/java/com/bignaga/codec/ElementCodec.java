@@ -0,0 +1,81 @@
+/**
+ * @project lbsgap
+ * @file ElementCodec.java
+ * @package com.bignaga.codec
+ * @author zhonghao
+ * @date 2026/10/17 10:30
+ * @copyright bignaga
+ */
+package com.bignaga.codec;
+
+import com.bignaga.codec.annotation.Length;
+import com.bignaga.codec.annotation.MessageElement;
+import com.bignaga.codec.copyfromgson.internal.$Gson$Types;
+import com.bignaga.codec.copyfromgson.reflect.TypeAdapter;
+import com.bignaga.codec.copyfromgson.reflect.TypeAdapters;
+import com.bignaga.codec.copyfromgson.reflect.TypeToken;
+import io.netty.buffer.ByteBuf;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Type;
+import java.nio.ByteOrder;
+
+/**
+ * codec of one {@link MessageElement} field, bound to the field's annotation and type adapter.
+ * used by the generated {@link MessageCodec}s for the fields they do not inline
+ * (strings, arrays, collections, nested structs ...)
+ * @author zhonghao
+ * @date 2026/10/17 10:30
+ * @see MessageCodec
+ * @since
+ */
+public final class ElementCodec<T> {
+    private final TypeAdapter<T> typeAdapter;
+    private final ByteOrder byteOrder;
+    private final MessageElementType elementType;
+    private final Length[] lengthStack;
+
+    private ElementCodec(TypeAdapter<T> typeAdapter, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+        this.typeAdapter = typeAdapter;
+        this.byteOrder = byteOrder;
+        this.elementType = elementType;
+        this.lengthStack = lengthStack;
+    }
+
+    /**
+     * bind the field {@code fieldName} declared by owner or one of its super classes
+     * @param owner
+     * @param fieldName
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ElementCodec<T> of(Class<?> owner, String fieldName) {
+        TypeToken<?> type = TypeToken.get(owner);
+        Class<?> raw = owner;
+        while (raw != null && raw != Object.class) {
+            for (Field field : raw.getDeclaredFields()) {
+                if (!field.getName().equals(fieldName)) {
+                    continue;
+                }
+                MessageElement annotation = field.getAnnotation(MessageElement.class);
+                if (null == annotation) {
+                    throw new IllegalArgumentException(owner.getName() + "." + fieldName + " is not annotated with @MessageElement");
+                }
+                Type fieldType = $Gson$Types.resolve(type.getType(), raw, field.getGenericType());
+                TypeAdapter<T> typeAdapter = (TypeAdapter<T>) TypeAdapters.getFieldAdapter(field, TypeToken.get(fieldType), annotation.type());
+                return new ElementCodec<>(typeAdapter, annotation.byteOrder().byteOrder, annotation.type(), LengthPlan.compile(annotation.lengthStack()));
+            }
+            type = TypeToken.get($Gson$Types.resolve(type.getType(), raw, raw.getGenericSuperclass()));
+            raw = type.getRawType();
+        }
+        throw new IllegalArgumentException("no field " + fieldName + " in " + owner.getName());
+    }
+
+    public T read(ByteBuf byteBuf) {
+        return typeAdapter.read(byteBuf, byteOrder, elementType, lengthStack);
+    }
+
+    public void write(T value, ByteBuf byteBuf) {
+        typeAdapter.write(value, byteBuf, byteOrder, elementType, lengthStack);
+    }
+}
@@ -0,0 +1,478 @@
+/**
+ * @project lbsgap
+ * @file FieldCodecs.java
+ * @package com.bignaga.codec
+ * @author zhonghao
+ * @date 2026/10/17 16:15
+ * @copyright bignaga
+ */
+package com.bignaga.codec;
+
+import io.netty.buffer.ByteBuf;
+
+import java.nio.ByteOrder;
+
+/**
+ * the {@link IntFieldCodec}/{@link LongFieldCodec} of the numeric element types, one stateless instance per
+ * element type and byte order. narrower wire values are widened (signed or unsigned as the element type says),
+ * wider ones are truncated, the same as the boxed Integer/Long type adapters do.
+ * @author zhonghao
+ * @date 2026/10/17 16:15
+ * @see
+ * @since
+ */
+public final class FieldCodecs {
+    private FieldCodecs() {
+        throw new UnsupportedOperationException();
+    }
+
+    private static final U8Codec U8_CODEC = new U8Codec();
+    private static final S8Codec S8_CODEC = new S8Codec();
+    private static final U16Codec U16_CODEC = new U16Codec();
+    private static final U16LECodec U16_LE_CODEC = new U16LECodec();
+    private static final S16Codec S16_CODEC = new S16Codec();
+    private static final S16LECodec S16_LE_CODEC = new S16LECodec();
+    private static final U32Codec U32_CODEC = new U32Codec();
+    private static final U32LECodec U32_LE_CODEC = new U32LECodec();
+    private static final S32Codec S32_CODEC = new S32Codec();
+    private static final S32LECodec S32_LE_CODEC = new S32LECodec();
+    private static final Int64Codec LONG_CODEC = new Int64Codec();
+    private static final Int64LECodec LONG_LE_CODEC = new Int64LECodec();
+
+    /**
+     * @param elementType
+     * @param byteOrder
+     * @return null if elementType is not numeric
+     */
+    public static IntFieldCodec intCodec(MessageElementType elementType, ByteOrder byteOrder) {
+        return (IntFieldCodec) codec(elementType, byteOrder);
+    }
+
+    /**
+     * @param elementType
+     * @param byteOrder
+     * @return null if elementType is not numeric
+     */
+    public static LongFieldCodec longCodec(MessageElementType elementType, ByteOrder byteOrder) {
+        return (LongFieldCodec) codec(elementType, byteOrder);
+    }
+
+    public static boolean isNumeric(MessageElementType elementType) {
+        return null != codec(elementType, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * @param elementType
+     * @return the wire size of a numeric element type, -1 if elementType is not numeric
+     */
+    public static int sizeOf(MessageElementType elementType) {
+        switch (elementType) {
+            case U8:
+            case S8: return 1;
+            case U16:
+            case S16: return 2;
+            case U32:
+            case S32: return 4;
+            case LONG: return 8;
+            default: return -1;
+        }
+    }
+
+    private static Object codec(MessageElementType elementType, ByteOrder byteOrder) {
+        boolean le = byteOrder == ByteOrder.LITTLE_ENDIAN;
+        switch (elementType) {
+            case U8: return U8_CODEC;
+            case S8: return S8_CODEC;
+            case U16: return le ? U16_LE_CODEC : U16_CODEC;
+            case S16: return le ? S16_LE_CODEC : S16_CODEC;
+            case U32: return le ? U32_LE_CODEC : U32_CODEC;
+            case S32: return le ? S32_LE_CODEC : S32_CODEC;
+            case LONG: return le ? LONG_LE_CODEC : LONG_CODEC;
+            default: return null;
+        }
+    }
+
+    private static final class U8Codec implements IntFieldCodec, LongFieldCodec {
+        @Override
+        public int readInt(ByteBuf byteBuf) {
+            return byteBuf.readUnsignedByte();
+        }
+
+        @Override
+        public int getInt(ByteBuf byteBuf, int index) {
+            return byteBuf.getUnsignedByte(index);
+        }
+
+        @Override
+        public void writeInt(ByteBuf byteBuf, int value) {
+            byteBuf.writeByte(value);
+        }
+
+        @Override
+        public long readLong(ByteBuf byteBuf) {
+            return byteBuf.readUnsignedByte();
+        }
+
+        @Override
+        public long getLong(ByteBuf byteBuf, int index) {
+            return byteBuf.getUnsignedByte(index);
+        }
+
+        @Override
+        public void writeLong(ByteBuf byteBuf, long value) {
+            byteBuf.writeByte((int) value);
+        }
+    }
+
+    private static final class S8Codec implements IntFieldCodec, LongFieldCodec {
+        @Override
+        public int readInt(ByteBuf byteBuf) {
+            return byteBuf.readByte();
+        }
+
+        @Override
+        public int getInt(ByteBuf byteBuf, int index) {
+            return byteBuf.getByte(index);
+        }
+
+        @Override
+        public void writeInt(ByteBuf byteBuf, int value) {
+            byteBuf.writeByte(value);
+        }
+
+        @Override
+        public long readLong(ByteBuf byteBuf) {
+            return byteBuf.readByte();
+        }
+
+        @Override
+        public long getLong(ByteBuf byteBuf, int index) {
+            return byteBuf.getByte(index);
+        }
+
+        @Override
+        public void writeLong(ByteBuf byteBuf, long value) {
+            byteBuf.writeByte((int) value);
+        }
+    }
+
+    private static final class U16Codec implements IntFieldCodec, LongFieldCodec {
+        @Override
+        public int readInt(ByteBuf byteBuf) {
+            return byteBuf.readUnsignedShort();
+        }
+
+        @Override
+        public int getInt(ByteBuf byteBuf, int index) {
+            return byteBuf.getUnsignedShort(index);
+        }
+
+        @Override
+        public void writeInt(ByteBuf byteBuf, int value) {
+            byteBuf.writeShort(value);
+        }
+
+        @Override
+        public long readLong(ByteBuf byteBuf) {
+            return byteBuf.readUnsignedShort();
+        }
+
+        @Override
+        public long getLong(ByteBuf byteBuf, int index) {
+            return byteBuf.getUnsignedShort(index);
+        }
+
+        @Override
+        public void writeLong(ByteBuf byteBuf, long value) {
+            byteBuf.writeShort((int) value);
+        }
+    }
+
+    private static final class U16LECodec implements IntFieldCodec, LongFieldCodec {
+        @Override
+        public int readInt(ByteBuf byteBuf) {
+            return byteBuf.readUnsignedShortLE();
+        }
+
+        @Override
+        public int getInt(ByteBuf byteBuf, int index) {
+            return byteBuf.getUnsignedShortLE(index);
+        }
+
+        @Override
+        public void writeInt(ByteBuf byteBuf, int value) {
+            byteBuf.writeShortLE(value);
+        }
+
+        @Override
+        public long readLong(ByteBuf byteBuf) {
+            return byteBuf.readUnsignedShortLE();
+        }
+
+        @Override
+        public long getLong(ByteBuf byteBuf, int index) {
+            return byteBuf.getUnsignedShortLE(index);
+        }
+
+        @Override
+        public void writeLong(ByteBuf byteBuf, long value) {
+            byteBuf.writeShortLE((int) value);
+        }
+    }
+
+    private static final class S16Codec implements IntFieldCodec, LongFieldCodec {
+        @Override
+        public int readInt(ByteBuf byteBuf) {
+            return byteBuf.readShort();
+        }
+
+        @Override
+        public int getInt(ByteBuf byteBuf, int index) {
+            return byteBuf.getShort(index);
+        }
+
+        @Override
+        public void writeInt(ByteBuf byteBuf, int value) {
+            byteBuf.writeShort(value);
+        }
+
+        @Override
+        public long readLong(ByteBuf byteBuf) {
+            return byteBuf.readShort();
+        }
+
+        @Override
+        public long getLong(ByteBuf byteBuf, int index) {
+            return byteBuf.getShort(index);
+        }
+
+        @Override
+        public void writeLong(ByteBuf byteBuf, long value) {
+            byteBuf.writeShort((int) value);
+        }
+    }
+
+    private static final class S16LECodec implements IntFieldCodec, LongFieldCodec {
+        @Override
+        public int readInt(ByteBuf byteBuf) {
+            return byteBuf.readShortLE();
+        }
+
+        @Override
+        public int getInt(ByteBuf byteBuf, int index) {
+            return byteBuf.getShortLE(index);
+        }
+
+        @Override
+        public void writeInt(ByteBuf byteBuf, int value) {
+            byteBuf.writeShortLE(value);
+        }
+
+        @Override
+        public long readLong(ByteBuf byteBuf) {
+            return byteBuf.readShortLE();
+        }
+
+        @Override
+        public long getLong(ByteBuf byteBuf, int index) {
+            return byteBuf.getShortLE(index);
+        }
+
+        @Override
+        public void writeLong(ByteBuf byteBuf, long value) {
+            byteBuf.writeShortLE((int) value);
+        }
+    }
+
+    private static final class U32Codec implements IntFieldCodec, LongFieldCodec {
+        @Override
+        public int readInt(ByteBuf byteBuf) {
+            return byteBuf.readInt();
+        }
+
+        @Override
+        public int getInt(ByteBuf byteBuf, int index) {
+            return byteBuf.getInt(index);
+        }
+
+        @Override
+        public void writeInt(ByteBuf byteBuf, int value) {
+            byteBuf.writeInt(value);
+        }
+
+        @Override
+        public long readLong(ByteBuf byteBuf) {
+            return byteBuf.readUnsignedInt();
+        }
+
+        @Override
+        public long getLong(ByteBuf byteBuf, int index) {
+            return byteBuf.getUnsignedInt(index);
+        }
+
+        @Override
+        public void writeLong(ByteBuf byteBuf, long value) {
+            byteBuf.writeInt((int) value);
+        }
+    }
+
+    private static final class U32LECodec implements IntFieldCodec, LongFieldCodec {
+        @Override
+        public int readInt(ByteBuf byteBuf) {
+            return byteBuf.readIntLE();
+        }
+
+        @Override
+        public int getInt(ByteBuf byteBuf, int index) {
+            return byteBuf.getIntLE(index);
+        }
+
+        @Override
+        public void writeInt(ByteBuf byteBuf, int value) {
+            byteBuf.writeIntLE(value);
+        }
+
+        @Override
+        public long readLong(ByteBuf byteBuf) {
+            return byteBuf.readUnsignedIntLE();
+        }
+
+        @Override
+        public long getLong(ByteBuf byteBuf, int index) {
+            return byteBuf.getUnsignedIntLE(index);
+        }
+
+        @Override
+        public void writeLong(ByteBuf byteBuf, long value) {
+            byteBuf.writeIntLE((int) value);
+        }
+    }
+
+    private static final class S32Codec implements IntFieldCodec, LongFieldCodec {
+        @Override
+        public int readInt(ByteBuf byteBuf) {
+            return byteBuf.readInt();
+        }
+
+        @Override
+        public int getInt(ByteBuf byteBuf, int index) {
+            return byteBuf.getInt(index);
+        }
+
+        @Override
+        public void writeInt(ByteBuf byteBuf, int value) {
+            byteBuf.writeInt(value);
+        }
+
+        @Override
+        public long readLong(ByteBuf byteBuf) {
+            return byteBuf.readInt();
+        }
+
+        @Override
+        public long getLong(ByteBuf byteBuf, int index) {
+            return byteBuf.getInt(index);
+        }
+
+        @Override
+        public void writeLong(ByteBuf byteBuf, long value) {
+            byteBuf.writeInt((int) value);
+        }
+    }
+
+    private static final class S32LECodec implements IntFieldCodec, LongFieldCodec {
+        @Override
+        public int readInt(ByteBuf byteBuf) {
+            return byteBuf.readIntLE();
+        }
+
+        @Override
+        public int getInt(ByteBuf byteBuf, int index) {
+            return byteBuf.getIntLE(index);
+        }
+
+        @Override
+        public void writeInt(ByteBuf byteBuf, int value) {
+            byteBuf.writeIntLE(value);
+        }
+
+        @Override
+        public long readLong(ByteBuf byteBuf) {
+            return byteBuf.readIntLE();
+        }
+
+        @Override
+        public long getLong(ByteBuf byteBuf, int index) {
+            return byteBuf.getIntLE(index);
+        }
+
+        @Override
+        public void writeLong(ByteBuf byteBuf, long value) {
+            byteBuf.writeIntLE((int) value);
+        }
+    }
+
+    private static final class Int64Codec implements IntFieldCodec, LongFieldCodec {
+        @Override
+        public int readInt(ByteBuf byteBuf) {
+            return (int) byteBuf.readLong();
+        }
+
+        @Override
+        public int getInt(ByteBuf byteBuf, int index) {
+            return (int) byteBuf.getLong(index);
+        }
+
+        @Override
+        public void writeInt(ByteBuf byteBuf, int value) {
+            byteBuf.writeLong(value);
+        }
+
+        @Override
+        public long readLong(ByteBuf byteBuf) {
+            return byteBuf.readLong();
+        }
+
+        @Override
+        public long getLong(ByteBuf byteBuf, int index) {
+            return byteBuf.getLong(index);
+        }
+
+        @Override
+        public void writeLong(ByteBuf byteBuf, long value) {
+            byteBuf.writeLong(value);
+        }
+    }
+
+    private static final class Int64LECodec implements IntFieldCodec, LongFieldCodec {
+        @Override
+        public int readInt(ByteBuf byteBuf) {
+            return (int) byteBuf.readLongLE();
+        }
+
+        @Override
+        public int getInt(ByteBuf byteBuf, int index) {
+            return (int) byteBuf.getLongLE(index);
+        }
+
+        @Override
+        public void writeInt(ByteBuf byteBuf, int value) {
+            byteBuf.writeLongLE(value);
+        }
+
+        @Override
+        public long readLong(ByteBuf byteBuf) {
+            return byteBuf.readLongLE();
+        }
+
+        @Override
+        public long getLong(ByteBuf byteBuf, int index) {
+            return byteBuf.getLongLE(index);
+        }
+
+        @Override
+        public void writeLong(ByteBuf byteBuf, long value) {
+            byteBuf.writeLongLE(value);
+        }
+    }
+}
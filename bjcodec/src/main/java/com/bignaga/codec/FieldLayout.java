@@ -0,0 +1,117 @@
+/**
+ * @project lbsgap
+ * @file FieldLayout.java
+ * @package com.bignaga.codec
+ * @author zhonghao
+ * @date 2026/10/17 18:05
+ * @copyright bignaga
+ */
+package com.bignaga.codec;
+
+import com.bignaga.codec.annotation.Length;
+import com.bignaga.codec.annotation.MessageElement;
+
+import java.lang.reflect.Field;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * wire layout of one {@link MessageElement} field, immutable
+ * @author zhonghao
+ * @date 2026/10/17 18:05
+ * @see MessageLayout
+ * @since
+ */
+public final class FieldLayout {
+    private final Field field;
+    private final int index;
+    private final MessageElementType elementType;
+    private final ByteOrder byteOrder;
+    private final List<Length> lengthStack;
+    private final int offset;
+    private final int width;
+
+    public FieldLayout(Field field,
+                       int index,
+                       MessageElementType elementType,
+                       ByteOrder byteOrder,
+                       Length[] lengthStack,
+                       int offset,
+                       int width) {
+        this.field = field;
+        this.index = index;
+        this.elementType = elementType;
+        this.byteOrder = byteOrder;
+        this.lengthStack = Collections.unmodifiableList(Arrays.asList(lengthStack.clone()));
+        this.offset = offset;
+        this.width = width;
+    }
+
+    public String getName() {
+        return field.getName();
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * {@link MessageElement#index()}
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public MessageElementType getElementType() {
+        return elementType;
+    }
+
+    public ByteOrder getByteOrder() {
+        return byteOrder;
+    }
+
+    /**
+     * {@link MessageElement#lengthStack()}
+     */
+    public List<Length> getLengthStack() {
+        return lengthStack;
+    }
+
+    /**
+     * @return byte offset from the start of the message, -1 if a field before it has no fixed width
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return number of bytes on the wire, -1 if it depends on the value
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    public boolean isFixed() {
+        return offset >= 0 && width >= 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(64);
+        sb.append(index).append(' ').append(getName()).append(' ').append(elementType);
+        if (elementType != MessageElementType.RESERVE && elementType != MessageElementType.STRUCT
+                && elementType != MessageElementType.U8 && elementType != MessageElementType.S8) {
+            sb.append(' ').append(byteOrder);
+        }
+        sb.append(" offset=").append(offset < 0 ? "?" : String.valueOf(offset));
+        sb.append(" width=").append(width < 0 ? "?" : String.valueOf(width));
+        for (Length length : lengthStack) {
+            if (length.value() != 0 || length.length() != LengthLengthEnum.NONE) {
+                sb.append(" length(").append(length.value()).append(',').append(length.length()).append(')');
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * @project lbsgap
+ * @file FieldSelector.java
+ * @package com.bignaga.codec
+ * @author zhonghao
+ * @date 2026/10/17 19:40
+ * @copyright bignaga
+ */
+package com.bignaga.codec;
+
+/**
+ * chooses the fields {@link Codec#decode(io.netty.buffer.ByteBuf, Class, FieldSelector)} decodes, the others are
+ * skipped. the decode plan is cached per (class, selector), so keep selectors in constants rather than creating
+ * one per call; {@link #of(String...)} selectors with the same names are equal.
+ * @author zhonghao
+ * @date 2026/10/17 19:40
+ * @see FieldLayout
+ * @since
+ */
+public interface FieldSelector {
+    /**
+     * @param field a field of the message, never RESERVE
+     * @return true to decode the field
+     */
+    boolean select(FieldLayout field);
+
+    /**
+     * @param names field names
+     * @return a selector of the fields with these names
+     */
+    static FieldSelector of(String... names) {
+        return new NamedFieldSelector(names);
+    }
+}
@@ -0,0 +1,30 @@
+/**
+ * @project lbsgap
+ * @file IntFieldCodec.java
+ * @package com.bignaga.codec
+ * @author zhonghao
+ * @date 2026/10/17 16:10
+ * @copyright bignaga
+ */
+package com.bignaga.codec;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * reads/writes a numeric element as a primitive int, without boxing.
+ * element type and byte order are bound when the codec is looked up, see {@link FieldCodecs#intCodec}
+ * @author zhonghao
+ * @date 2026/10/17 16:10
+ * @see LongFieldCodec
+ * @since
+ */
+public interface IntFieldCodec {
+    int readInt(ByteBuf byteBuf);
+
+    /**
+     * read the element at an absolute index, without moving the reader index
+     */
+    int getInt(ByteBuf byteBuf, int index);
+
+    void writeInt(ByteBuf byteBuf, int value);
+}
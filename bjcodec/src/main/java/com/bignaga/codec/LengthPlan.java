@@ -0,0 +1,146 @@
+/**
+ * @project lbsgap
+ * @file LengthPlan.java
+ * @package com.bignaga.codec
+ * @author zhonghao
+ * @date 2026/10/17 21:40
+ * @copyright bignaga
+ */
+package com.bignaga.codec;
+
+import com.bignaga.codec.annotation.Length;
+import com.bignaga.codec.annotation.MessageElement;
+import com.bignaga.codec.utils.CodecUtils;
+import org.apache.commons.lang3.ArrayUtils;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * a {@link Length} compiled from the annotation proxy of {@link MessageElement#lengthStack()}:
+ * count, length field and the plan of the nested level are plain final fields.
+ *
+ * plans implement {@link Length}, so they go down the adapter tree through the existing Length[] parameters;
+ * the stack of every nested level is built once, {@link #tail(Length[])} hands it out instead of copying the array
+ * @author zhonghao
+ * @date 2026/10/17 21:40
+ * @see MessageElement#lengthStack()
+ * @since
+ */
+public final class LengthPlan implements Length {
+    private static final Length[] EMPTY = new Length[0];
+
+    private final int value;
+    private final LengthLengthEnum length;
+    private final int lengthSize;
+    private final LengthPlan next;
+    /**
+     * this plan followed by the nested ones
+     */
+    private final Length[] stack;
+
+    private LengthPlan(int value, LengthLengthEnum length, LengthPlan next) {
+        this.value = value;
+        this.length = length;
+        this.lengthSize = CodecUtils.lengthSize(length);
+        this.next = next;
+        int depth = null == next ? 0 : next.stack.length;
+        this.stack = new Length[depth + 1];
+        this.stack[0] = this;
+        if (null != next) {
+            System.arraycopy(next.stack, 0, this.stack, 1, depth);
+        }
+    }
+
+    /**
+     * @param lengthStack annotation proxies, plans or a mix of them
+     * @return the plans of lengthStack, lengthStack itself if it is compiled already
+     */
+    public static Length[] compile(Length[] lengthStack) {
+        if (ArrayUtils.isEmpty(lengthStack)) {
+            return EMPTY;
+        }
+        if (lengthStack[0] instanceof LengthPlan && ((LengthPlan) lengthStack[0]).stack == lengthStack) {
+            return lengthStack;
+        }
+        LengthPlan plan = null;
+        for (int i = lengthStack.length - 1; i >= 0; --i) {
+            plan = new LengthPlan(lengthStack[i].value(), lengthStack[i].length(), plan);
+        }
+        return plan.stack;
+    }
+
+    /**
+     * the lengthStack of the nested level, that is lengthStack without its first element
+     * @return never null
+     */
+    public static Length[] tail(Length[] lengthStack) {
+        if (ArrayUtils.isEmpty(lengthStack) || lengthStack.length == 1) {
+            return EMPTY;
+        }
+        if (lengthStack[0] instanceof LengthPlan) {
+            LengthPlan plan = (LengthPlan) lengthStack[0];
+            if (plan.stack == lengthStack) {
+                return plan.next.stack;
+            }
+        }
+        return ArrayUtils.subarray(lengthStack, 1, lengthStack.length);
+    }
+
+    @Override
+    public int value() {
+        return value;
+    }
+
+    @Override
+    public LengthLengthEnum length() {
+        return length;
+    }
+
+    /**
+     * @return the number of bytes of the length field, 0 for NONE
+     */
+    public int lengthSize() {
+        return lengthSize;
+    }
+
+    /**
+     * @return the plan of the nested level, null if there is none
+     */
+    public LengthPlan next() {
+        return next;
+    }
+
+    @Override
+    public Class<? extends Annotation> annotationType() {
+        return Length.class;
+    }
+
+    /**
+     * as {@link Annotation#equals(Object)}: equal to any Length, proxy or plan, of the same members
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Length)) {
+            return false;
+        }
+        Length other = (Length) o;
+        return value == other.value() && length == other.length();
+    }
+
+    /**
+     * as {@link Annotation#hashCode()}
+     */
+    @Override
+    public int hashCode() {
+        return ((127 * "value".hashCode()) ^ Integer.hashCode(value))
+                + ((127 * "length".hashCode()) ^ length.hashCode());
+    }
+
+    @Override
+    public String toString() {
+        return "@" + Length.class.getName() + "(value=" + value + ", length=" + length + ")";
+    }
+}
@@ -0,0 +1,30 @@
+/**
+ * @project lbsgap
+ * @file LongFieldCodec.java
+ * @package com.bignaga.codec
+ * @author zhonghao
+ * @date 2026/10/17 16:10
+ * @copyright bignaga
+ */
+package com.bignaga.codec;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * reads/writes a numeric element as a primitive long, without boxing.
+ * element type and byte order are bound when the codec is looked up, see {@link FieldCodecs#longCodec}
+ * @author zhonghao
+ * @date 2026/10/17 16:10
+ * @see IntFieldCodec
+ * @since
+ */
+public interface LongFieldCodec {
+    long readLong(ByteBuf byteBuf);
+
+    /**
+     * read the element at an absolute index, without moving the reader index
+     */
+    long getLong(ByteBuf byteBuf, int index);
+
+    void writeLong(ByteBuf byteBuf, long value);
+}
@@ -0,0 +1,142 @@
+/**
+ * @project lbsgap
+ * @file MessageBinding.java
+ * @package com.bignaga.codec
+ * @author zhonghao
+ * @date 2026/10/17 17:20
+ * @copyright bignaga
+ */
+package com.bignaga.codec;
+
+import com.bignaga.codec.annotation.Length;
+import com.bignaga.codec.annotation.Message;
+import com.bignaga.codec.copyfromgson.reflect.ResumableReader;
+import com.bignaga.codec.copyfromgson.reflect.TypeAdapter;
+import com.bignaga.codec.copyfromgson.reflect.TypeAdapters;
+import com.bignaga.codec.copyfromgson.reflect.TypeToken;
+import com.bignaga.codec.utils.ZeroCopy;
+import com.bignaga.utils.ReflectionUtils;
+import io.netty.buffer.ByteBuf;
+
+import java.lang.annotation.Annotation;
+import java.nio.ByteOrder;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * everything {@link Codec} needs to encode/decode a message class as the root: byte order of its {@link Message},
+ * root adapter, generated codec and fixed size. resolved once per class, so the steady state encode/decode
+ * does no lookup and allocates nothing before touching the buffer.
+ *
+ * bindings built before {@link TypeAdapters#setAdapterMode} or {@link TypeAdapters#setDefaultAdapterMode}
+ * are rebuilt on next use.
+ * @author zhonghao
+ * @date 2026/10/17 17:20
+ * @see Codec
+ * @since
+ */
+final class MessageBinding<T> {
+    private static final ClassValue<MessageBinding<?>> bindings = new ClassValue<MessageBinding<?>>() {
+        @Override
+        protected MessageBinding<?> computeValue(Class<?> type) {
+            return new MessageBinding<>(type);
+        }
+    };
+
+    final Class<T> messageClass;
+    final Message message;
+    final ByteOrder byteOrder;
+    final Length[] lengthStack;
+    final TypeAdapter<T> adapter;
+    /**
+     * generated at build time, null if none
+     */
+    final MessageCodec<T> codec;
+    final int fixedSize;
+    private final int adapterGeneration;
+    /**
+     * projection adapters by selector, bounded so that selectors created per call do not leak. once full, an entry
+     * is evicted for each new selector, so the selectors in use get back in instead of being recompiled for good
+     */
+    private final ConcurrentMap<FieldSelector, TypeAdapter<T>> projections = new ConcurrentHashMap<>();
+    private static final int MAX_PROJECTIONS = 64;
+
+    @SuppressWarnings("unchecked")
+    static <T> MessageBinding<T> of(Class<T> messageClass) {
+        MessageBinding<?> binding = bindings.get(messageClass);
+        if (!binding.isCurrent()) {
+            //adapter mode changed
+            bindings.remove(messageClass);
+            binding = bindings.get(messageClass);
+        }
+        return (MessageBinding<T>) binding;
+    }
+
+    private MessageBinding(Class<T> messageClass) {
+        this.adapterGeneration = TypeAdapters.getAdapterGeneration();
+        this.messageClass = messageClass;
+        List<Annotation> annotations = ReflectionUtils.getAllAnnotations(messageClass, Message.class);
+        this.message = annotations.isEmpty() ? null : (Message) annotations.get(0);
+        this.byteOrder = null == message ? ByteOrder.BIG_ENDIAN : message.byteOrder().byteOrder;
+        this.lengthStack = Codec.dummyLengthStack;
+        this.adapter = TypeAdapters.getAdapter(TypeToken.get(messageClass), MessageElementType.STRUCT);
+        this.codec = MessageCodecs.find(messageClass);
+        this.fixedSize = adapter.fixedSize(MessageElementType.STRUCT, lengthStack);
+    }
+
+    /**
+     * false if the adapter mode changed since the binding was built
+     */
+    boolean isCurrent() {
+        return adapterGeneration == TypeAdapters.getAdapterGeneration();
+    }
+
+    T decode(ByteBuf byteBuf) {
+        if (null != codec) {
+            //generated at build time
+            return codec.decode(byteBuf);
+        }
+        return adapter.read(byteBuf, byteOrder, MessageElementType.STRUCT, lengthStack);
+    }
+
+    ResumableReader<T> newReader() {
+        //a generated codec decodes the message if it arrived at once, see MessageCodecTypeAdapterFactory
+        return adapter.newReader(byteOrder, MessageElementType.STRUCT, lengthStack);
+    }
+
+    T decode(ByteBuf byteBuf, FieldSelector selector) {
+        TypeAdapter<T> projection = projections.get(selector);
+        if (null == projection) {
+            projection = TypeAdapters.REFLECTIVE_TYPE_FACTORY.createProjection(TypeToken.get(messageClass), selector);
+            if (projections.size() >= MAX_PROJECTIONS) {
+                Iterator<FieldSelector> iterator = projections.keySet().iterator();
+                if (iterator.hasNext()) {
+                    iterator.next();
+                    iterator.remove();
+                }
+            }
+            TypeAdapter<T> previous = projections.putIfAbsent(selector, projection);
+            projection = null == previous ? projection : previous;
+        }
+        return projection.read(byteBuf, byteOrder, MessageElementType.STRUCT, lengthStack);
+    }
+
+    void encode(T t, ByteBuf byteBuf) {
+        if (fixedSize > 0 && !ZeroCopy.composes(byteBuf)) {
+            //one ensureWritable instead of one per field
+            byteBuf.ensureWritable(fixedSize);
+        }
+        if (null != codec) {
+            //generated at build time
+            codec.encode(t, byteBuf);
+            return;
+        }
+        adapter.write(t, byteBuf, byteOrder, MessageElementType.STRUCT, lengthStack);
+    }
+
+    int sizeOf(T t) {
+        return fixedSize >= 0 ? fixedSize : adapter.sizeOf(t, MessageElementType.STRUCT, lengthStack);
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ * @project lbsgap
+ * @file MessageCodec.java
+ * @package com.bignaga.codec
+ * @author zhonghao
+ * @date 2026/10/17 10:12
+ * @copyright bignaga
+ */
+package com.bignaga.codec;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * reflection-free codec of one message class
+ * implemented by the classes generated by bjcodec-processor, see {@link MessageCodecs}
+ * @author zhonghao
+ * @date 2026/10/17 10:12
+ * @see MessageCodecs
+ * @since
+ */
+public interface MessageCodec<T> {
+    /**
+     * decode a new instance of T from byteBuf
+     * @param byteBuf
+     * @return
+     */
+    T decode(ByteBuf byteBuf);
+
+    /**
+     * encode value into byteBuf
+     * @param value
+     * @param byteBuf
+     */
+    void encode(T value, ByteBuf byteBuf);
+}
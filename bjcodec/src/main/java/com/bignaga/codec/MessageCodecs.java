@@ -0,0 +1,90 @@
+/**
+ * @project lbsgap
+ * @file MessageCodecs.java
+ * @package com.bignaga.codec
+ * @author zhonghao
+ * @date 2026/10/17 10:15
+ * @copyright bignaga
+ */
+package com.bignaga.codec;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Optional;
+
+/**
+ * lookup of the {@link MessageCodec}s generated at build time by bjcodec-processor
+ *
+ * the codec of class {@code a.b.Foo} is {@code a.b.FooCodec}, the codec of nested class {@code a.b.Foo$Bar}
+ * is {@code a.b.Foo_BarCodec}. classes without a generated codec are handled by the reflective adapters.
+ * @author zhonghao
+ * @date 2026/10/17 10:15
+ * @see
+ * @since
+ */
+public final class MessageCodecs {
+    private MessageCodecs() {
+        throw new UnsupportedOperationException();
+    }
+
+    public static final String CODEC_SUFFIX = "Codec";
+
+    /**
+     * the generated codec of each class, empty if it has none. held by the class itself so the codec is unloaded with it
+     */
+    private static final ClassValue<Optional<MessageCodec<?>>> codecs = new ClassValue<Optional<MessageCodec<?>>>() {
+        @Override
+        protected Optional<MessageCodec<?>> computeValue(Class<?> type) {
+            return Optional.ofNullable(load(type));
+        }
+    };
+
+    /**
+     * the name of the generated codec class for a message class
+     * @param binaryName binary name of the message class, e.g. {@code a.b.Foo$Bar}
+     * @return
+     */
+    public static String codecClassName(String binaryName) {
+        int dot = binaryName.lastIndexOf('.');
+        String packageName = dot < 0 ? "" : binaryName.substring(0, dot + 1);
+        return packageName + binaryName.substring(dot + 1).replace('$', '_') + CODEC_SUFFIX;
+    }
+
+    /**
+     * the generated codec of clazz
+     * @param clazz
+     * @return null if no codec has been generated for clazz
+     * @throws LinkageError if the generated codec exists but can not be linked or initialized
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> MessageCodec<T> find(Class<T> clazz) {
+        if (null == clazz) {
+            return null;
+        }
+        return (MessageCodec<T>) codecs.get(clazz).orElse(null);
+    }
+
+    private static MessageCodec<?> load(Class<?> clazz) {
+        if (clazz.isPrimitive() || clazz.isArray() || clazz.isInterface()) {
+            return null;
+        }
+        ClassLoader classLoader = clazz.getClassLoader();
+        if (null == classLoader) {
+            //bootstrap classes
+            return null;
+        }
+        try {
+            Class<?> codecClass = Class.forName(codecClassName(clazz.getName()), true, classLoader);
+            if (!MessageCodec.class.isAssignableFrom(codecClass)) {
+                return null;
+            }
+            return (MessageCodec<?>) codecClass.getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            //no codec generated, a broken one (ExceptionInInitializerError, NoClassDefFoundError) is not hidden
+            return null;
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("can not instantiate generated codec of " + clazz.getName(), e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("can not instantiate generated codec of " + clazz.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/**
+ * @project lbsgap
+ * @file MessageFraming.java
+ * @package com.bignaga.codec
+ * @author zhonghao
+ * @date 2026/10/18 00:10
+ * @copyright bignaga
+ */
+package com.bignaga.codec;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * the header {@link Codec#encodeAll(Iterable, ByteBuf, MessageFraming)} writes in front of every message body
+ * @author zhonghao
+ * @date 2026/10/18 00:10
+ * @see Codec#encodeAll(Iterable, ByteBuf, MessageFraming)
+ * @since
+ */
+public interface MessageFraming {
+    /**
+     * @return the number of bytes reserved in front of every body, zeros until {@link #writeHeader} fills them
+     */
+    int headerLength();
+
+    /**
+     * fill the header of the frame at frameIndex once its body is written, the writer index is not moved
+     * @param frameLength the number of bytes of the frame, header included
+     * @param messageType the value of the @Message annotation of the message
+     */
+    void writeHeader(ByteBuf byteBuf, int frameIndex, int frameLength, int messageType);
+}
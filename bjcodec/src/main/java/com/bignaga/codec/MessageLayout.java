@@ -0,0 +1,103 @@
+/**
+ * @project lbsgap
+ * @file MessageLayout.java
+ * @package com.bignaga.codec
+ * @author zhonghao
+ * @date 2026/10/17 18:10
+ * @copyright bignaga
+ */
+package com.bignaga.codec;
+
+import com.bignaga.codec.copyfromgson.reflect.TypeAdapters;
+import com.bignaga.codec.copyfromgson.reflect.TypeToken;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * wire layout of a message class: its fields in wire order with their offsets and widths, immutable.
+ * built once per class from the same bound fields as the reflective adapter
+ * @author zhonghao
+ * @date 2026/10/17 18:10
+ * @see FieldLayout
+ * @since
+ */
+public final class MessageLayout {
+    private static final ClassValue<MessageLayout> layouts = new ClassValue<MessageLayout>() {
+        @Override
+        protected MessageLayout computeValue(Class<?> type) {
+            return new MessageLayout(type, TypeAdapters.REFLECTIVE_TYPE_FACTORY.getFieldLayouts(TypeToken.get(type)));
+        }
+    };
+
+    private final Class<?> messageClass;
+    private final List<FieldLayout> fields;
+    private final int fixedSize;
+
+    /**
+     * @param messageClass
+     * @return the cached layout of messageClass
+     */
+    public static MessageLayout of(Class<?> messageClass) {
+        return layouts.get(messageClass);
+    }
+
+    private MessageLayout(Class<?> messageClass, List<FieldLayout> fields) {
+        this.messageClass = messageClass;
+        this.fields = Collections.unmodifiableList(fields);
+        int size = 0;
+        for (FieldLayout field : fields) {
+            if (!field.isFixed()) {
+                size = -1;
+                break;
+            }
+            size += field.getWidth();
+        }
+        this.fixedSize = size;
+    }
+
+    public Class<?> getMessageClass() {
+        return messageClass;
+    }
+
+    /**
+     * @return fields in wire order
+     */
+    public List<FieldLayout> getFields() {
+        return fields;
+    }
+
+    /**
+     * @param name
+     * @return null if there is no such field
+     */
+    public FieldLayout getField(String name) {
+        for (FieldLayout field : fields) {
+            if (field.getName().equals(name)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return -1 if the size depends on the field values
+     */
+    public int getFixedSize() {
+        return fixedSize;
+    }
+
+    public boolean isFixed() {
+        return fixedSize >= 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append(messageClass.getName()).append(" size=").append(fixedSize < 0 ? "?" : String.valueOf(fixedSize)).append(" {\n");
+        for (FieldLayout field : fields) {
+            sb.append("  ").append(field).append('\n');
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * @project lbsgap
+ * @file NamedFieldSelector.java
+ * @package com.bignaga.codec
+ * @author zhonghao
+ * @date 2026/10/17 19:40
+ * @copyright bignaga
+ */
+package com.bignaga.codec;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * selects fields by name, equal to any other with the same names
+ * @author zhonghao
+ * @date 2026/10/17 19:40
+ * @see FieldSelector#of(String...)
+ * @since
+ */
+final class NamedFieldSelector implements FieldSelector {
+    private final Set<String> names;
+
+    NamedFieldSelector(String... names) {
+        this.names = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(names)));
+    }
+
+    @Override
+    public boolean select(FieldLayout field) {
+        return names.contains(field.getName());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof NamedFieldSelector && names.equals(((NamedFieldSelector) o).names);
+    }
+
+    @Override
+    public int hashCode() {
+        return names.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "FieldSelector" + names;
+    }
+}
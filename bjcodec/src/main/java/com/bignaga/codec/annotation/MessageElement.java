@@ -17,7 +17,7 @@ import java.lang.annotation.Target;
  * @see
  * @since
  */
-@Target(ElementType.FIELD)
+@Target({ElementType.FIELD, ElementType.METHOD})
 @Retention(RetentionPolicy.RUNTIME)
 public @interface MessageElement {
     /**
@@ -44,6 +44,12 @@ public @interface MessageElement {
      */
     Length []lengthStack() default {@Length};
 
+    /**
+     * charset of String/Boolean fields of BYTES type, default UTF-8
+     * @return
+     */
+    String charset() default "UTF-8";
+
     /**
      * reserved
      * @return
@@ -0,0 +1,26 @@
+package com.bignaga.codec.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * decode a String field of BYTES type through a bounded cache of the strings already seen,
+ * for fields with few distinct values (codes, status names ...). each field has its own cache,
+ * see {@link com.bignaga.codec.utils.StringDedupCache#of(java.lang.reflect.Field)} for its hit/miss counters
+ *
+ * @author zhonghao
+ * @date 2026/10/17 20:10
+ * @see com.bignaga.codec.utils.StringDedupCache
+ * @since
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StringDedup {
+    /**
+     * max number of strings kept, rounded up to a power of 2
+     * @return
+     */
+    int capacity() default 1024;
+}
@@ -20,8 +20,13 @@ import com.bignaga.codec.copyfromgson.reflect.InstanceCreator;
 import com.bignaga.codec.copyfromgson.reflect.JsonIOException;
 import com.bignaga.codec.copyfromgson.reflect.TypeToken;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.*;
@@ -29,11 +34,13 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentNavigableMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
 
 /**
  * Returns a function that can construct an instance of a requested type.
  */
 public final class ConstructorConstructor {
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
   private final Map<Type, InstanceCreator<?>> instanceCreators;
   private final ReflectionAccessor accessor = ReflectionAccessor.getInstance();
 
@@ -88,34 +95,75 @@ public final class ConstructorConstructor {
   private <T> ObjectConstructor<T> newDefaultConstructor(Class<? super T> rawType) {
     try {
       final Constructor<? super T> constructor = rawType.getDeclaredConstructor();
+      if (Modifier.isAbstract(rawType.getModifiers())) {
+        return null;
+      }
       if (!constructor.isAccessible()) {
         accessor.makeAccessible(constructor);
       }
+      final Supplier<?> supplier = newSupplier(rawType, constructor);
+      if (supplier != null) {
+        return new ObjectConstructor<T>() {
+          @SuppressWarnings("unchecked") // T is the same raw type as is requested
+          @Override
+          public T construct() {
+            return (T) supplier.get();
+          }
+        };
+      }
+      final MethodHandle handle = LOOKUP.unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
       return new ObjectConstructor<T>() {
         @SuppressWarnings("unchecked") // T is the same raw type as is requested
         @Override
         public T construct() {
           try {
-            Object[] args = null;
-            return (T) constructor.newInstance(args);
-          } catch (InstantiationException e) {
+            return (T) (Object) handle.invokeExact();
+          } catch (RuntimeException | Error e) {
+            throw e;
+          } catch (Throwable e) {
             // TODO: JsonParseException ?
             throw new RuntimeException("Failed toByteBufValue invoke " + constructor + " with no args", e);
-          } catch (InvocationTargetException e) {
-            // TODO: don't wrap if cause is unchecked!
-            // TODO: JsonParseException ?
-            throw new RuntimeException("Failed toByteBufValue invoke " + constructor + " with no args",
-                e.getTargetException());
-          } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
           }
         }
       };
-    } catch (NoSuchMethodException e) {
+    } catch (NoSuchMethodException | IllegalAccessException e) {
       return null;
     }
   }
 
+  /**
+   * a {@link Supplier} spun by {@link LambdaMetafactory} which calls the constructor directly,
+   * only when the class and the constructor are public and the class is visible from the loader of this library,
+   * which defines the Supplier, else null
+   */
+  private static Supplier<?> newSupplier(Class<?> rawType, Constructor<?> constructor) {
+    if (!Modifier.isPublic(rawType.getModifiers()) || !Modifier.isPublic(constructor.getModifiers())
+        || (rawType.getEnclosingClass() != null && !Modifier.isStatic(rawType.getModifiers()))
+        || !isVisible(rawType)) {
+      return null;
+    }
+    try {
+      MethodHandle handle = LOOKUP.unreflectConstructor(constructor);
+      CallSite site = LambdaMetafactory.metafactory(LOOKUP,
+          "get",
+          MethodType.methodType(Supplier.class),
+          MethodType.methodType(Object.class),
+          handle,
+          MethodType.methodType(rawType));
+      return (Supplier<?>) site.getTarget().invokeExact();
+    } catch (Throwable e) {
+      return null;
+    }
+  }
+
+  private static boolean isVisible(Class<?> rawType) {
+    try {
+      return Class.forName(rawType.getName(), false, ConstructorConstructor.class.getClassLoader()) == rawType;
+    } catch (ClassNotFoundException | LinkageError e) {
+      return false;
+    }
+  }
+
   /**
    * Constructors for common interface types like Map and List and their
    * subtypes.
@@ -217,6 +265,21 @@ public final class ConstructorConstructor {
 
   private <T> ObjectConstructor<T> newUnsafeAllocator(
           final Type type, final Class<? super T> rawType) {
+    final MethodHandle allocateInstance = UnsafeAllocator.allocateInstanceHandle(rawType);
+    if (allocateInstance != null) {
+      return new ObjectConstructor<T>() {
+        @SuppressWarnings("unchecked")
+        @Override
+        public T construct() {
+          try {
+            return (T) (Object) allocateInstance.invokeExact();
+          } catch (Throwable e) {
+            throw new RuntimeException(("Unable toByteBufValue invoke no-args constructor for " + type + ". "
+                + "Registering an InstanceCreator with Gson for this type may fix this problem."), e);
+          }
+        }
+      };
+    }
     return new ObjectConstructor<T>() {
       private final UnsafeAllocator unsafeAllocator = UnsafeAllocator.create();
       @SuppressWarnings("unchecked")
@@ -0,0 +1,162 @@
+/**
+ * @project lbsgap
+ * @file FieldHandles.java
+ * @package com.bignaga.codec.copyfromgson.internal
+ * @author zhonghao
+ * @date 2026/10/17 15:30
+ * @copyright bignaga
+ */
+package com.bignaga.codec.copyfromgson.internal;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * pre-bound {@link MethodHandle}s to read/write a field, to be held in final fields and called with invokeExact
+ *
+ * the field must have been made accessible. when the field can not be unreflected (final static fields ...)
+ * the handles fall back to {@link Field#get}/{@link Field#set}
+ * @author zhonghao
+ * @date 2026/10/17 15:30
+ * @see
+ * @since
+ */
+public final class FieldHandles {
+    private FieldHandles() {
+        throw new UnsupportedOperationException();
+    }
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodHandle REFLECT_GET;
+    private static final MethodHandle REFLECT_SET;
+    private static final MethodHandle NON_ZERO;
+    private static final MethodHandle NON_ZERO_LONG;
+
+    static {
+        try {
+            NON_ZERO = LOOKUP.findStatic(FieldHandles.class, "nonZero", MethodType.methodType(boolean.class, int.class));
+            NON_ZERO_LONG = LOOKUP.findStatic(FieldHandles.class, "nonZero", MethodType.methodType(boolean.class, long.class));
+            REFLECT_GET = LOOKUP.findVirtual(Field.class, "get", MethodType.methodType(Object.class, Object.class));
+            REFLECT_SET = LOOKUP.findVirtual(Field.class, "set", MethodType.methodType(void.class, Object.class, Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * (Object)Object
+     */
+    public static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    /**
+     * (Object,Object)void
+     */
+    public static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * @param field
+     * @return handle of type {@link #GETTER_TYPE}
+     */
+    public static MethodHandle getter(Field field) {
+        return getter(field, Object.class);
+    }
+
+    /**
+     * @param field
+     * @return handle of type {@link #SETTER_TYPE}
+     */
+    public static MethodHandle setter(Field field) {
+        return setter(field, Object.class);
+    }
+
+    /**
+     * @param field
+     * @param valueType the type returned by the handle, the field type to avoid boxing of primitives
+     * @return handle of type (Object)valueType
+     */
+    public static MethodHandle getter(Field field, Class<?> valueType) {
+        MethodHandle handle;
+        try {
+            handle = LOOKUP.unreflectGetter(field);
+        } catch (IllegalAccessException e) {
+            handle = REFLECT_GET.bindTo(field);
+        }
+        if (Modifier.isStatic(field.getModifiers()) && handle.type().parameterCount() == 0) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        return handle.asType(MethodType.methodType(valueType, Object.class));
+    }
+
+    /**
+     * @param field
+     * @param valueType the type accepted by the handle, the field type to avoid boxing of primitives
+     * @return handle of type (Object,valueType)void
+     */
+    public static MethodHandle setter(Field field, Class<?> valueType) {
+        MethodHandle handle;
+        try {
+            handle = LOOKUP.unreflectSetter(field);
+        } catch (IllegalAccessException e) {
+            handle = REFLECT_SET.bindTo(field);
+        }
+        if (Modifier.isStatic(field.getModifiers()) && handle.type().parameterCount() == 1) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        return handle.asType(MethodType.methodType(void.class, Object.class, valueType));
+    }
+
+    /**
+     * @param field a boolean, byte, short or int field
+     * @return handle of type (Object)int, booleans are read as 1/0
+     */
+    public static MethodHandle intGetter(Field field) {
+        return MethodHandles.explicitCastArguments(getter(field, field.getType()),
+                MethodType.methodType(int.class, Object.class));
+    }
+
+    /**
+     * @param field a boolean, byte, short or int field
+     * @return handle of type (Object,int)void, narrowing the value to the field type, non zero is true
+     */
+    public static MethodHandle intSetter(Field field) {
+        MethodHandle handle = setter(field, field.getType());
+        if (field.getType() == boolean.class) {
+            handle = MethodHandles.filterArguments(handle, 1, NON_ZERO);
+        }
+        return MethodHandles.explicitCastArguments(handle,
+                MethodType.methodType(void.class, Object.class, int.class));
+    }
+
+    /**
+     * @param field a boolean or long field
+     * @return handle of type (Object)long, booleans are read as 1/0
+     */
+    public static MethodHandle longGetter(Field field) {
+        return MethodHandles.explicitCastArguments(getter(field, field.getType()),
+                MethodType.methodType(long.class, Object.class));
+    }
+
+    /**
+     * @param field a boolean or long field
+     * @return handle of type (Object,long)void, non zero is true
+     */
+    public static MethodHandle longSetter(Field field) {
+        MethodHandle handle = setter(field, field.getType());
+        if (field.getType() == boolean.class) {
+            handle = MethodHandles.filterArguments(handle, 1, NON_ZERO_LONG);
+        }
+        return MethodHandles.explicitCastArguments(handle,
+                MethodType.methodType(void.class, Object.class, long.class));
+    }
+
+    private static boolean nonZero(int i) {
+        return i != 0;
+    }
+
+    private static boolean nonZero(long l) {
+        return l != 0L;
+    }
+}
@@ -17,6 +17,9 @@
 package com.bignaga.codec.copyfromgson.internal;
 
 import java.io.ObjectInputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.io.ObjectStreamClass;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -106,6 +109,30 @@ public abstract class UnsafeAllocator {
     };
   }
 
+  /**
+   * A {@code ()Object} method handle allocating instances of {@code c} without calling any constructor,
+   * with the Unsafe instance and the class pre-bound. Returns null when sun.misc.Unsafe is not available, or when
+   * {@code c} is an interface or an abstract class: {@link #newInstance(Class)} then fails on use, not when the
+   * adapter of a field declared with such a type is built.
+   */
+  public static MethodHandle allocateInstanceHandle(Class<?> c) {
+    int modifiers = c.getModifiers();
+    if (Modifier.isInterface(modifiers) || Modifier.isAbstract(modifiers)) {
+      return null;
+    }
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Field f = unsafeClass.getDeclaredField("theUnsafe");
+      f.setAccessible(true);
+      Object unsafe = f.get(null);
+      MethodHandle allocateInstance = MethodHandles.publicLookup().findVirtual(unsafeClass, "allocateInstance",
+          MethodType.methodType(Object.class, Class.class));
+      return MethodHandles.insertArguments(allocateInstance, 0, unsafe, c);
+    } catch (Exception ignored) {
+      return null;
+    }
+  }
+
   /**
    * Check if the class can be instantiated by unsafe allocator. If the instance has interface or abstract modifiers
    * throw an {@link UnsupportedOperationException}
@@ -17,6 +17,7 @@
 package com.bignaga.codec.copyfromgson.reflect;
 
 import com.bignaga.codec.LengthLengthEnum;
+import com.bignaga.codec.LengthPlan;
 import com.bignaga.codec.MessageElementType;
 import com.bignaga.codec.annotation.Length;
 import com.bignaga.codec.copyfromgson.internal.$Gson$Types;
@@ -83,7 +84,7 @@ public final class ArrayTypeAdapter<E> extends TypeAdapter<Object> {
         CodecUtils.writeLength(byteBuf, byteOrder, length.length(), arrayLen);
         //
         if (arrayLen > 0) {
-            lengthStack = ArrayUtils.subarray(lengthStack, 1, lengthStack.length);
+            lengthStack = LengthPlan.tail(lengthStack);
             int count = Math.min(arrayLen, actualArrayLen);
             if(count > 0) {
                 for (int ii = 0; ii < count; ii++) {
@@ -101,6 +102,74 @@ public final class ArrayTypeAdapter<E> extends TypeAdapter<Object> {
         }
     }
 
+    @Override
+    public int fixedSize(MessageElementType elementType, Length[] lengthStack) {
+        //fixed element count without length field
+        if (ArrayUtils.isEmpty(lengthStack) || lengthStack[0].length() != LengthLengthEnum.NONE || lengthStack[0].value() <= 0) {
+            return -1;
+        }
+        int size = componentTypeAdapter.fixedSize(elementType, LengthPlan.tail(lengthStack));
+        return size < 0 ? -1 : size * lengthStack[0].value();
+    }
+
+    @Override
+    public int sizeOf(MessageElementType elementType, Length[] lengthStack) {
+        return this.sizeOf(null, elementType, lengthStack);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public int sizeOf(Object array, MessageElementType elementType, Length[] lengthStack) {
+        if(ArrayUtils.isEmpty(lengthStack)) {
+            throw new IllegalArgumentException("array field must have length specified!");
+        }
+        //same as write
+        int actualArrayLen = null == array ? 0 : Array.getLength(array);
+        Length length = lengthStack[0];
+        int arrayLen = length.value() <= 0 ? actualArrayLen : length.value();
+        int size = CodecUtils.lengthSize(length.length());
+        if (arrayLen > 0) {
+            lengthStack = LengthPlan.tail(lengthStack);
+            int elementSize = componentTypeAdapter.fixedSize(elementType, lengthStack);
+            if (elementSize >= 0) {
+                return size + elementSize * arrayLen;
+            }
+            int count = Math.min(arrayLen, actualArrayLen);
+            for (int ii = 0; ii < count; ii++) {
+                size += componentTypeAdapter.sizeOf((E) Array.get(array, ii), elementType, lengthStack);
+            }
+            int paddingLen = arrayLen - count;
+            if (paddingLen > 0) {
+                size += paddingLen * componentTypeAdapter.sizeOf(elementType, lengthStack);
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public void skip(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+        if(ArrayUtils.isEmpty(lengthStack)) {
+            throw new IllegalArgumentException("array field must have length specified!");
+        }
+        //the elements read + discarded by read
+        Length length = lengthStack[0];
+        int arrayLen = length.length() == LengthLengthEnum.NONE ? length.value() : CodecUtils.readLength(byteBuf, byteOrder, length.length());
+        if(arrayLen < 0) {
+            throw new LengthException("the length of array is < 0");
+        }
+        if (arrayLen > 0) {
+            lengthStack = LengthPlan.tail(lengthStack);
+            int elementSize = componentTypeAdapter.fixedSize(elementType, lengthStack);
+            if (elementSize >= 0) {
+                byteBuf.skipBytes(elementSize * arrayLen);
+                return;
+            }
+            for (int i = 0; i < arrayLen; ++i) {
+                componentTypeAdapter.skip(byteBuf, byteOrder, elementType, lengthStack);
+            }
+        }
+    }
+
     @Override
     public Object read(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
         if(ArrayUtils.isEmpty(lengthStack)) {
@@ -133,14 +202,19 @@ public final class ArrayTypeAdapter<E> extends TypeAdapter<Object> {
         }
         //
         if (arrayLen > 0) {
-            lengthStack = ArrayUtils.subarray(lengthStack, 1, lengthStack.length);
-            for (int i = 0; i < arrayLen; ++i) {
-                E instance = componentTypeAdapter.read(byteBuf, byteOrder, elementType, lengthStack);
-                list.add(instance);
-            }
-            //需要丢弃的数据
-            for (int i = 0; i < discardLen; ++i) {
-                componentTypeAdapter.read(byteBuf, byteOrder, elementType, lengthStack);
+            lengthStack = LengthPlan.tail(lengthStack);
+            try {
+                for (int i = 0; i < arrayLen; ++i) {
+                    E instance = componentTypeAdapter.read(byteBuf, byteOrder, elementType, lengthStack);
+                    list.add(instance);
+                }
+                //需要丢弃的数据, skipped so no retained slice is made for it
+                for (int i = 0; i < discardLen; ++i) {
+                    componentTypeAdapter.skip(byteBuf, byteOrder, elementType, lengthStack);
+                }
+            } catch (RuntimeException e) {
+                ResumableReader.release(list);
+                throw e;
             }
         }
         //
@@ -151,4 +225,26 @@ public final class ArrayTypeAdapter<E> extends TypeAdapter<Object> {
         }
         return array;
     }
+
+    @Override
+    public ResumableReader<Object> newReader(ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+        return new ResumableReader.Elements<Object, E>(componentTypeAdapter, byteOrder, elementType, lengthStack, "array") {
+            private final List<E> list = new ArrayList<>();
+
+            @Override
+            void add(E element) {
+                list.add(element);
+            }
+
+            @Override
+            Object finish() {
+                int size = list.size();
+                Object array = Array.newInstance(componentType, size);
+                for (int i = 0; i < size; i++) {
+                    Array.set(array, i, list.get(i));
+                }
+                return array;
+            }
+        };
+    }
 }
@@ -0,0 +1,101 @@
+/**
+ * @project lbsgap
+ * @file BytecodeAdapter.java
+ * @package com.bignaga.codec.copyfromgson.reflect
+ * @author zhonghao
+ * @date 2026/10/17 14:10
+ * @copyright bignaga
+ */
+package com.bignaga.codec.copyfromgson.reflect;
+
+import com.bignaga.codec.MessageElementType;
+import com.bignaga.codec.annotation.Length;
+import com.bignaga.codec.copyfromgson.internal.ObjectConstructor;
+import io.netty.buffer.ByteBuf;
+
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * super class of the adapters spun by {@link BytecodeTypeAdapterFactory}
+ *
+ * the generated subclass reads/writes the public primitive fields of the message with getfield/putfield and straight
+ * ByteBuf calls, and delegates the others to their BoundField, which accesses them through method handles.
+ * it lives in a class loader of its own, so everything it uses here must be public or protected.
+ * @author zhonghao
+ * @date 2026/10/17 14:10
+ * @see BytecodeTypeAdapterFactory
+ * @since
+ */
+public abstract class BytecodeAdapter<T> extends TypeAdapter<T> {
+    protected final ObjectConstructor<T> constructor;
+    private final ReflectiveTypeAdapterFactory.BoundField[] boundFields;
+    private final List<ReflectiveTypeAdapterFactory.BoundField> boundFieldList;
+    private final int fixedSize;
+
+    protected BytecodeAdapter(ObjectConstructor<T> constructor, Object[] boundFields) {
+        this.constructor = constructor;
+        this.boundFields = new ReflectiveTypeAdapterFactory.BoundField[boundFields.length];
+        System.arraycopy(boundFields, 0, this.boundFields, 0, boundFields.length);
+        this.boundFieldList = Arrays.asList(this.boundFields);
+        this.fixedSize = ReflectiveTypeAdapterFactory.fixedSizeOf(this.boundFieldList);
+    }
+
+    @Override
+    public int fixedSize(MessageElementType elementType, Length[] lengthStack) {
+        return fixedSize;
+    }
+
+    @Override
+    public int sizeOf(T value, MessageElementType elementType, Length[] lengthStack) {
+        return ReflectiveTypeAdapterFactory.sizeOf(boundFieldList, fixedSize, value);
+    }
+
+    @Override
+    public int sizeOf(MessageElementType elementType, Length[] lengthStack) {
+        return fixedSize >= 0 ? fixedSize : this.sizeOf(this.constructor.construct(), elementType, lengthStack);
+    }
+
+    @Override
+    public void write(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+        this.write(this.constructor.construct(), byteBuf, byteOrder, elementType, lengthStack);
+    }
+
+    @Override
+    public void skip(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+        ReflectiveTypeAdapterFactory.skip(boundFieldList, fixedSize, byteBuf, byteOrder);
+    }
+
+    @Override
+    public ResumableReader<T> newReader(ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+        if (fixedSize >= 0) {
+            //the generated read once all the fields are readable
+            return super.newReader(byteOrder, elementType, lengthStack);
+        }
+        //field by field through the bound fields, the generated read if the value arrived at once
+        return new ReflectiveTypeAdapterFactory.FieldsReader<>(this.constructor, boundFieldList, byteOrder,
+                b -> read(b, byteOrder, elementType, lengthStack));
+    }
+
+    /**
+     * read the field at index into target
+     */
+    protected final void readField(int index, Object target, ByteBuf byteBuf, ByteOrder byteOrder) {
+        boundFields[index].readField(target, byteBuf, byteOrder);
+    }
+
+    /**
+     * release the reference-counted values of the first count fields of target, which the generated read gives up
+     */
+    protected final void releaseFields(Object target, int count) {
+        ReflectiveTypeAdapterFactory.releaseFields(boundFieldList, count, target);
+    }
+
+    /**
+     * write the field at index of source
+     */
+    protected final void writeField(int index, Object source, ByteBuf byteBuf, ByteOrder byteOrder) {
+        boundFields[index].writeField(source, byteBuf, byteOrder);
+    }
+}
@@ -0,0 +1,265 @@
+/**
+ * @project lbsgap
+ * @file BytecodeTypeAdapterFactory.java
+ * @package com.bignaga.codec.copyfromgson.reflect
+ * @author zhonghao
+ * @date 2026/10/17 14:20
+ * @copyright bignaga
+ */
+package com.bignaga.codec.copyfromgson.reflect;
+
+import com.bignaga.codec.AdapterMode;
+import com.bignaga.codec.FieldCodecs;
+import com.bignaga.codec.IntFieldCodec;
+import com.bignaga.codec.LongFieldCodec;
+import com.bignaga.codec.MessageElementType;
+import com.bignaga.codec.copyfromgson.internal.ConstructorConstructor;
+import com.bignaga.codec.copyfromgson.internal.ObjectConstructor;
+import javassist.ClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteOrder;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * spins a {@link BytecodeAdapter} subclass per message class at runtime, for the classes whose
+ * {@link AdapterMode} is {@link AdapterMode#BYTECODE}. must be registered before the reflective factory.
+ *
+ * the generated read/write walk the sorted bound fields in one method: public, non final primitive fields of a
+ * public class are read/written by their {@link FieldCodecs} codec, held in a static final field so the call is inlined,
+ * and getfield/putfield, without going through a TypeAdapter;
+ * the other fields through their BoundField. every adapter class is defined by a class loader of its own, a child
+ * of the loader of the message class, so it can be unloaded with it.
+ * classes that can not be generated for fall back to the reflective adapter.
+ * @author zhonghao
+ * @date 2026/10/17 14:20
+ * @see TypeAdapters#setAdapterMode(Class, AdapterMode)
+ * @since
+ */
+public final class BytecodeTypeAdapterFactory implements TypeAdapterFactory {
+    private static Logger logger = LoggerFactory.getLogger(BytecodeTypeAdapterFactory.class);
+
+    private static final String GENERATED_PACKAGE = BytecodeTypeAdapterFactory.class.getPackage().getName() + ".generated.";
+    private static final AtomicInteger classCounter = new AtomicInteger();
+
+    private final ConstructorConstructor constructorConstructor;
+    private final ReflectiveTypeAdapterFactory reflectiveFactory;
+    private final Map<Class<?>, AdapterMode> modes = new ConcurrentHashMap<>();
+    private volatile AdapterMode defaultMode = AdapterMode.REFLECTIVE;
+
+    private final ClassPool classPool;
+
+    public BytecodeTypeAdapterFactory(ConstructorConstructor constructorConstructor, ReflectiveTypeAdapterFactory reflectiveFactory) {
+        this.constructorConstructor = constructorConstructor;
+        this.reflectiveFactory = reflectiveFactory;
+        this.classPool = new ClassPool(null);
+        this.classPool.appendSystemPath();
+        this.classPool.appendClassPath(new LoaderClassPath(BytecodeAdapter.class.getClassLoader()));
+        this.classPool.importPackage("io.netty.buffer");
+        this.classPool.importPackage("java.nio");
+        this.classPool.importPackage("com.bignaga.codec");
+        this.classPool.importPackage("com.bignaga.codec.annotation");
+    }
+
+    public AdapterMode getMode(Class<?> clazz) {
+        AdapterMode mode = modes.get(clazz);
+        return null == mode ? defaultMode : mode;
+    }
+
+    void setMode(Class<?> clazz, AdapterMode mode) {
+        if (null == mode) {
+            modes.remove(clazz);
+        } else {
+            modes.put(clazz, mode);
+        }
+    }
+
+    void setDefaultMode(AdapterMode mode) {
+        this.defaultMode = null == mode ? AdapterMode.REFLECTIVE : mode;
+    }
+
+    @Override
+    public <T> TypeAdapter<T> create(TypeToken<T> type, MessageElementType elementType) {
+        Class<? super T> raw = type.getRawType();
+        if (getMode(raw) != AdapterMode.BYTECODE
+                || raw.isInterface() || raw.isArray() || raw.isPrimitive() || raw == Object.class) {
+            return null;
+        }
+
+        List<ReflectiveTypeAdapterFactory.BoundField> boundFields = reflectiveFactory.getBoundFields(type, raw);
+        try {
+            synchronized (classPool) {
+                return generate(raw, constructorConstructor.get(type), boundFields);
+            }
+        } catch (Exception | LinkageError e) {
+            logger.warn("can not generate adapter of {}, fall back to reflection: {}", raw.getName(), e.toString());
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> TypeAdapter<T> generate(Class<?> raw,
+                                        ObjectConstructor<T> constructor,
+                                        List<ReflectiveTypeAdapterFactory.BoundField> boundFields) throws Exception {
+        ClassLoader parent = parentLoader(raw);
+        //the fields of the message are accessed directly only if the adapter can link against its class
+        boolean direct = Modifier.isPublic(raw.getModifiers()) && isVisible(raw, parent);
+        String target = direct ? "((" + raw.getName() + ") t)." : null;
+        String source = direct ? "((" + raw.getName() + ") value)." : null;
+        StringBuilder read = new StringBuilder(1024);
+        StringBuilder write = new StringBuilder(1024);
+        //the declarations of the static final codec fields, to their initializer
+        Map<String, String> codecs = new LinkedHashMap<>();
+        read.append("public Object read(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {\n")
+                .append("Object t = constructor.construct();\n")
+                //the fields read before one throws are released, n counts the fields read through their BoundField
+                .append("int n = 0;\n")
+                .append("try {\n");
+        write.append("public void write(Object value, ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {\n");
+        for (int i = 0; i < boundFields.size(); ++i) {
+            ReflectiveTypeAdapterFactory.BoundField boundField = boundFields.get(i);
+            Field field = boundField.field;
+            if (Modifier.isStatic(field.getModifiers())) {
+                throw new IllegalArgumentException("static field " + field.getName());
+            }
+            if (direct && isDirect(field) && isInline(field.getType()) && FieldCodecs.isNumeric(boundField.elementType)) {
+                //a boolean tests all the bits of a LONG element
+                boolean wide = field.getType() == long.class || boundField.elementType == MessageElementType.LONG;
+                String codec = "codec" + i;
+                codecs.put("private static final " + (wide ? LongFieldCodec.class : IntFieldCodec.class).getName() + " " + codec + ";",
+                        FieldCodecs.class.getName() + (wide ? ".longCodec(" : ".intCodec(")
+                        + MessageElementType.class.getName() + "." + boundField.elementType.name() + ", java.nio.ByteOrder."
+                        + (boundField.byteOrder == ByteOrder.LITTLE_ENDIAN ? "LITTLE_ENDIAN" : "BIG_ENDIAN") + ")");
+                read.append(target).append(field.getName()).append(" = ")
+                        .append(convertFromWire(field.getType(), codec + (wide ? ".readLong(byteBuf)" : ".readInt(byteBuf)"), wide))
+                        .append(";\n");
+                write.append(codec).append(wide ? ".writeLong(byteBuf, " : ".writeInt(byteBuf, ")
+                        .append(convertToWire(field.getType(), source + field.getName(), wide)).append(");\n");
+            } else {
+                read.append("readField(").append(i).append(", t, byteBuf, byteOrder);\n")
+                        .append("n = ").append(i + 1).append(";\n");
+                write.append("writeField(").append(i).append(", value, byteBuf, byteOrder);\n");
+            }
+        }
+        read.append("} catch (RuntimeException e) {\n")
+                .append("releaseFields(t, n);\n")
+                .append("throw e;\n")
+                .append("}\n")
+                .append("return t;\n}");
+        write.append("}");
+
+        String className = GENERATED_PACKAGE + raw.getName().replace('.', '_').replace('$', '_')
+                + "$Adapter" + classCounter.incrementAndGet();
+        //the message class is looked up only while its adapter is compiled
+        ClassPath messagePath = direct ? classPool.insertClassPath(new LoaderClassPath(raw.getClassLoader())) : null;
+        byte[] bytecode;
+        try {
+            CtClass ctClass = classPool.makeClass(className);
+            ctClass.setSuperclass(classPool.get(BytecodeAdapter.class.getName()));
+            ctClass.addConstructor(CtNewConstructor.make(
+                    "public " + ctClass.getSimpleName() + "(com.bignaga.codec.copyfromgson.internal.ObjectConstructor constructor, Object[] boundFields) {"
+                            + " super(constructor, boundFields); }", ctClass));
+            for (Map.Entry<String, String> codec : codecs.entrySet()) {
+                ctClass.addField(CtField.make(codec.getKey(), ctClass), CtField.Initializer.byExpr(codec.getValue()));
+            }
+            ctClass.addMethod(CtNewMethod.make(read.toString(), ctClass));
+            ctClass.addMethod(CtNewMethod.make(write.toString(), ctClass));
+            bytecode = ctClass.toBytecode();
+            ctClass.detach();
+        } finally {
+            if (null != messagePath) {
+                classPool.removeClassPath(messagePath);
+                detach(raw);
+            }
+        }
+
+        Class<?> adapterClass = new DefiningClassLoader(parent).define(className, bytecode);
+        return (TypeAdapter<T>) adapterClass.getConstructor(ObjectConstructor.class, Object[].class)
+                .newInstance(constructor, boundFields.toArray());
+    }
+
+    /**
+     * the loader of the message class if it sees this library, the loader of this library otherwise
+     */
+    private static ClassLoader parentLoader(Class<?> raw) {
+        ClassLoader loader = raw.getClassLoader();
+        if (null != loader && isVisible(BytecodeAdapter.class, loader)) {
+            return loader;
+        }
+        return BytecodeAdapter.class.getClassLoader();
+    }
+
+    private static boolean isVisible(Class<?> clazz, ClassLoader loader) {
+        try {
+            return Class.forName(clazz.getName(), false, loader) == clazz;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * getfield/putfield of another class loader are allowed on public fields of public classes; final fields are left
+     * to their BoundField
+     */
+    private static boolean isDirect(Field field) {
+        int modifiers = field.getModifiers();
+        return Modifier.isPublic(modifiers) && !Modifier.isFinal(modifiers)
+                && Modifier.isPublic(field.getDeclaringClass().getModifiers());
+    }
+
+    /**
+     * drop the compiled form of the message class and its super classes from the pool
+     */
+    private void detach(Class<?> raw) {
+        for (Class<?> c = raw; null != c && c != Object.class; c = c.getSuperclass()) {
+            CtClass ctClass = classPool.getOrNull(c.getName());
+            if (null != ctClass) {
+                ctClass.detach();
+            }
+        }
+    }
+
+    /**
+     * the primitives read/written with a field codec, char/float/double are left to their BoundField
+     */
+    private static boolean isInline(Class<?> fieldType) {
+        return fieldType.isPrimitive() && fieldType != char.class && fieldType != float.class && fieldType != double.class;
+    }
+
+    private static String convertFromWire(Class<?> fieldType, String wire, boolean wide) {
+        if (fieldType == boolean.class) {
+            return wire + (wide ? " != 0L" : " != 0");
+        }
+        return "(" + fieldType.getName() + ") " + wire;
+    }
+
+    private static String convertToWire(Class<?> fieldType, String value, boolean wide) {
+        if (fieldType == boolean.class) {
+            return "(" + value + (wide ? " ? 1L : 0L)" : " ? 1 : 0)");
+        }
+        return (wide ? "(long) " : "(int) ") + value;
+    }
+
+    private static final class DefiningClassLoader extends ClassLoader {
+        DefiningClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(String name, byte[] bytecode) {
+            return defineClass(name, bytecode, 0, bytecode.length);
+        }
+    }
+}
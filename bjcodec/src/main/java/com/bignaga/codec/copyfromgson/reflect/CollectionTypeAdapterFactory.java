@@ -17,6 +17,7 @@
 package com.bignaga.codec.copyfromgson.reflect;
 
 import com.bignaga.codec.LengthLengthEnum;
+import com.bignaga.codec.LengthPlan;
 import com.bignaga.codec.MessageElementType;
 import com.bignaga.codec.annotation.Length;
 import com.bignaga.codec.copyfromgson.internal.$Gson$Types;
@@ -72,6 +73,76 @@ public final class CollectionTypeAdapterFactory implements TypeAdapterFactory {
             this.constructor = constructor;
         }
 
+        @Override
+        public int fixedSize(MessageElementType elementType, Length[] lengthStack) {
+            //fixed element count without length field
+            if (ArrayUtils.isEmpty(lengthStack) || lengthStack[0].length() != LengthLengthEnum.NONE || lengthStack[0].value() <= 0) {
+                return -1;
+            }
+            int size = elementTypeAdapter.fixedSize(elementType, LengthPlan.tail(lengthStack));
+            return size < 0 ? -1 : size * lengthStack[0].value();
+        }
+
+        @Override
+        public int sizeOf(MessageElementType elementType, Length[] lengthStack) {
+            return this.sizeOf(null, elementType, lengthStack);
+        }
+
+        @Override
+        public int sizeOf(Collection<E> collection, MessageElementType elementType, Length[] lengthStack) {
+            if(ArrayUtils.isEmpty(lengthStack)) {
+                throw new IllegalArgumentException("collection field must have length specified!");
+            }
+            //same as write
+            int actualCollLen = null == collection ? 0 : collection.size();
+            Length length = lengthStack[0];
+            int collLen = length.value() <= 0 ? actualCollLen : length.value();
+            int size = CodecUtils.lengthSize(length.length());
+            if (collLen > 0) {
+                lengthStack = LengthPlan.tail(lengthStack);
+                int elementSize = elementTypeAdapter.fixedSize(elementType, lengthStack);
+                if (elementSize >= 0) {
+                    return size + elementSize * collLen;
+                }
+                int count = Math.min(collLen, actualCollLen);
+                if (count > 0) {
+                    Iterator<E> iterator = collection.iterator();
+                    for (int ii = 0; ii < count; ++ii) {
+                        size += elementTypeAdapter.sizeOf(iterator.next(), elementType, lengthStack);
+                    }
+                }
+                int paddingLen = collLen - count;
+                if (paddingLen > 0) {
+                    size += paddingLen * elementTypeAdapter.sizeOf(elementType, lengthStack);
+                }
+            }
+            return size;
+        }
+
+        @Override
+        public void skip(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+                if(ArrayUtils.isEmpty(lengthStack)) {
+                        throw new IllegalArgumentException("collection field must have length specified!");
+                }
+                //the elements read + discarded by read
+                Length length = lengthStack[0];
+                int collLen = length.length() == LengthLengthEnum.NONE ? length.value() : CodecUtils.readLength(byteBuf, byteOrder, length.length());
+                if(collLen < 0) {
+                        throw new LengthException("the length of collection is < 0");
+                }
+                if (collLen > 0) {
+                        lengthStack = LengthPlan.tail(lengthStack);
+                        int elementSize = elementTypeAdapter.fixedSize(elementType, lengthStack);
+                        if (elementSize >= 0) {
+                                byteBuf.skipBytes(elementSize * collLen);
+                                return;
+                        }
+                        for (int i = 0; i < collLen; ++i) {
+                                elementTypeAdapter.skip(byteBuf, byteOrder, elementType, lengthStack);
+                        }
+                }
+        }
+
         @Override
         public Collection<E> read(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
             if (ArrayUtils.isEmpty(lengthStack)) {
@@ -104,18 +175,39 @@ public final class CollectionTypeAdapterFactory implements TypeAdapterFactory {
             }
             //
             if (collLen > 0) {
-                lengthStack = ArrayUtils.subarray(lengthStack, 1, lengthStack.length);
-                for (int ii = 0; ii < collLen; ++ii) {
-                    collection.add(elementTypeAdapter.read(byteBuf, byteOrder, elementType, lengthStack));
-                }
-                //需要丢弃的数据
-                for (int i = 0; i < discardLen; ++i) {
-                    elementTypeAdapter.read(byteBuf, byteOrder, elementType, lengthStack);
+                lengthStack = LengthPlan.tail(lengthStack);
+                try {
+                    for (int ii = 0; ii < collLen; ++ii) {
+                        collection.add(elementTypeAdapter.read(byteBuf, byteOrder, elementType, lengthStack));
+                    }
+                    //需要丢弃的数据, skipped so no retained slice is made for it
+                    for (int i = 0; i < discardLen; ++i) {
+                        elementTypeAdapter.skip(byteBuf, byteOrder, elementType, lengthStack);
+                    }
+                } catch (RuntimeException e) {
+                    ResumableReader.release(collection);
+                    throw e;
                 }
             }
             return collection;
         }
 
+        @Override
+        public ResumableReader<Collection<E>> newReader(ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+            Collection<E> collection = constructor.construct();
+            return new ResumableReader.Elements<Collection<E>, E>(elementTypeAdapter, byteOrder, elementType, lengthStack, "collection") {
+                @Override
+                void add(E element) {
+                    collection.add(element);
+                }
+
+                @Override
+                Collection<E> finish() {
+                    return collection;
+                }
+            };
+        }
+
 
         @Override
         public void write(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
@@ -136,14 +228,13 @@ public final class CollectionTypeAdapterFactory implements TypeAdapterFactory {
             CodecUtils.writeLength(byteBuf, byteOrder, length.length(), collLen);
             //
             if (collLen > 0) {
-                lengthStack = ArrayUtils.subarray(lengthStack, 1, lengthStack.length);
+                lengthStack = LengthPlan.tail(lengthStack);
                 int count = Math.min(collLen, actualCollLen);
-                for(int ii = 0; ii < count; ++ii) {
-
-                }
                 if(count > 0) {
                     Iterator<E> iterator = collection.iterator();
-                    elementTypeAdapter.write(iterator.next(), byteBuf, byteOrder, elementType, lengthStack);
+                    for(int ii = 0; ii < count; ++ii) {
+                        elementTypeAdapter.write(iterator.next(), byteBuf, byteOrder, elementType, lengthStack);
+                    }
                 }
                 //
                 int paddingLen = collLen - count;
@@ -0,0 +1,109 @@
+/**
+ * @project lbsgap
+ * @file MessageCodecTypeAdapterFactory.java
+ * @package com.bignaga.codec.copyfromgson.reflect
+ * @author zhonghao
+ * @date 2026/10/17 10:40
+ * @copyright bignaga
+ */
+package com.bignaga.codec.copyfromgson.reflect;
+
+import com.bignaga.codec.MessageCodec;
+import com.bignaga.codec.MessageCodecs;
+import com.bignaga.codec.MessageElementType;
+import com.bignaga.codec.annotation.Length;
+import com.bignaga.codec.copyfromgson.internal.ConstructorConstructor;
+import com.bignaga.codec.copyfromgson.internal.ObjectConstructor;
+import io.netty.buffer.ByteBuf;
+
+import java.nio.ByteOrder;
+
+/**
+ * adapts the {@link MessageCodec} generated at build time, must be registered before the reflective factory
+ * @author zhonghao
+ * @date 2026/10/17 10:40
+ * @see MessageCodecs
+ * @since
+ */
+public final class MessageCodecTypeAdapterFactory implements TypeAdapterFactory {
+    private final ConstructorConstructor constructorConstructor;
+    private final ReflectiveTypeAdapterFactory reflectiveFactory;
+
+    public MessageCodecTypeAdapterFactory(ConstructorConstructor constructorConstructor, ReflectiveTypeAdapterFactory reflectiveFactory) {
+        this.constructorConstructor = constructorConstructor;
+        this.reflectiveFactory = reflectiveFactory;
+    }
+
+    @Override
+    public <T> TypeAdapter<T> create(TypeToken<T> type, MessageElementType elementType) {
+        if (elementType != MessageElementType.STRUCT || !(type.getType() instanceof Class)) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        Class<T> raw = (Class<T>) type.getRawType();
+        MessageCodec<T> codec = MessageCodecs.find(raw);
+        if (null == codec) {
+            return null;
+        }
+        //the generated codec writes the same layout as the reflective adapter, which computes the sizes
+        return new Adapter<>(codec, constructorConstructor.get(type), reflectiveFactory.create(type, elementType));
+    }
+
+    public static final class Adapter<T> extends TypeAdapter<T> {
+        private final MessageCodec<T> codec;
+        private final ObjectConstructor<T> constructor;
+        private final TypeAdapter<T> layout;
+
+        Adapter(MessageCodec<T> codec, ObjectConstructor<T> constructor, TypeAdapter<T> layout) {
+            this.codec = codec;
+            this.constructor = constructor;
+            this.layout = layout;
+        }
+
+        @Override
+        public int fixedSize(MessageElementType elementType, Length[] lengthStack) {
+            return layout.fixedSize(elementType, lengthStack);
+        }
+
+        @Override
+        public int sizeOf(T value, MessageElementType elementType, Length[] lengthStack) {
+            return layout.sizeOf(value, elementType, lengthStack);
+        }
+
+        @Override
+        public int sizeOf(MessageElementType elementType, Length[] lengthStack) {
+            return layout.sizeOf(elementType, lengthStack);
+        }
+
+        @Override
+        public void write(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+            codec.encode(constructor.construct(), byteBuf);
+        }
+
+        @Override
+        public void write(T value, ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+            codec.encode(value, byteBuf);
+        }
+
+        @Override
+        public void skip(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+            layout.skip(byteBuf, byteOrder, elementType, lengthStack);
+        }
+
+        @Override
+        public T read(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+            return codec.decode(byteBuf);
+        }
+
+        @Override
+        public ResumableReader<T> newReader(ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+            int fixedSize = layout.fixedSize(elementType, lengthStack);
+            if (fixedSize >= 0 || !(layout instanceof ReflectiveTypeAdapterFactory.Adapter)) {
+                //the codec once all the fields are readable
+                return ResumableReader.atomic(fixedSize, b -> layout.skip(b, byteOrder, elementType, lengthStack), codec::decode);
+            }
+            //field by field through the layout, the codec if the value arrived at once
+            return ((ReflectiveTypeAdapterFactory.Adapter<T>) layout).newReader(byteOrder, codec::decode);
+        }
+    }
+}
@@ -0,0 +1,342 @@
+/**
+ * @project lbsgap
+ * @file PrimitiveArrayTypeAdapter.java
+ * @package com.bignaga.codec.copyfromgson.reflect
+ * @author zhonghao
+ * @date 2026/10/17 21:10
+ * @copyright bignaga
+ */
+package com.bignaga.codec.copyfromgson.reflect;
+
+import com.bignaga.codec.FieldCodecs;
+import com.bignaga.codec.IntFieldCodec;
+import com.bignaga.codec.LengthLengthEnum;
+import com.bignaga.codec.LongFieldCodec;
+import com.bignaga.codec.MessageElementType;
+import com.bignaga.codec.annotation.Length;
+import com.bignaga.codec.copyfromgson.internal.$Gson$Types;
+import com.bignaga.codec.exception.LengthException;
+import com.bignaga.codec.utils.CodecUtils;
+import com.bignaga.codec.utils.ZeroCopy;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.apache.commons.lang3.ArrayUtils;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * byte[], short[], int[] and long[] of numeric element types.
+ * same wire format and length rules as {@link ArrayTypeAdapter}, but the array is allocated once with its exact length
+ * and the elements are read/written in a tight loop without boxing; byte[] of U8/S8 by a single readBytes/writeBytes,
+ * arrays whose element width matches the component type through an int/short/long view of the buffer.
+ * large byte[] of U8/S8 are not copied at all when encoded by {@link ZeroCopy}.
+ * @author zhonghao
+ * @date 2026/10/17 21:10
+ * @see ArrayTypeAdapter
+ * @since
+ */
+public final class PrimitiveArrayTypeAdapter extends TypeAdapter<Object> {
+
+    public static final TypeAdapterFactory FACTORY = new TypeAdapterFactory() {
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T> TypeAdapter<T> create(TypeToken<T> typeToken, MessageElementType targetElementType) {
+            Type type = typeToken.getType();
+            if (!(type instanceof GenericArrayType || type instanceof Class && ((Class<?>) type).isArray()) || !FieldCodecs.isNumeric(targetElementType)) {
+                return null;
+            }
+            Type componentType = $Gson$Types.getArrayComponentType(type);
+            if (componentType == byte.class || componentType == short.class || componentType == int.class || componentType == long.class) {
+                return (TypeAdapter<T>) new PrimitiveArrayTypeAdapter((Class<?>) componentType);
+            }
+            return null;
+        }
+    };
+
+    private final Class<?> componentType;
+
+    private PrimitiveArrayTypeAdapter(Class<?> componentType) {
+        this.componentType = componentType;
+    }
+
+    @Override
+    public void write(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+        this.write(null, byteBuf, byteOrder, elementType, lengthStack);
+    }
+
+    @Override
+    public void write(Object array, ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+        if(ArrayUtils.isEmpty(lengthStack)) {
+            throw new IllegalArgumentException("array field must have length specified!");
+        }
+        //
+        int actualArrayLen = null == array ? 0 : Array.getLength(array);
+        Length length = lengthStack[0];
+        //如果指定了 length.value() > 0，则写入的元素个数为 length.value()；否则为数组实际的元素个数
+        int arrayLen = length.value() <= 0 ? actualArrayLen : length.value();
+        //
+        CodecUtils.writeLength(byteBuf, byteOrder, length.length(), arrayLen);
+        //
+        if (arrayLen > 0) {
+            int count = Math.min(arrayLen, actualArrayLen);
+            int width = FieldCodecs.sizeOf(elementType);
+            ZeroCopy zeroCopy = componentType == byte.class && width == 1 ? ZeroCopy.of(byteBuf, count) : null;
+            if (null != zeroCopy) {
+                //the array itself becomes a component of the composite
+                zeroCopy.add(Unpooled.wrappedBuffer((byte[]) array, 0, count));
+            } else {
+                byteBuf.ensureWritable(bytesOf(arrayLen, width));
+                if (count > 0) {
+                    writeElements(array, count, width, byteBuf, byteOrder, elementType);
+                }
+            }
+            //缺少的元素填充0
+            byteBuf.writeZero(bytesOf(arrayLen - count, width));
+        }
+    }
+
+    private void writeElements(Object array, int count, int width, ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType) {
+        boolean be = byteOrder == ByteOrder.BIG_ENDIAN;
+        int index = byteBuf.writerIndex();
+        if (componentType == byte.class) {
+            byte[] values = (byte[]) array;
+            if (width == 1) {
+                byteBuf.writeBytes(values, 0, count);
+                return;
+            }
+            IntFieldCodec codec = FieldCodecs.intCodec(elementType, byteOrder);
+            for (int i = 0; i < count; ++i) {
+                codec.writeInt(byteBuf, values[i]);
+            }
+        } else if (componentType == short.class) {
+            short[] values = (short[]) array;
+            if (width == 2) {
+                for (int i = 0; i < count; ++i, index += 2) {
+                    if (be) {
+                        byteBuf.setShort(index, values[i]);
+                    } else {
+                        byteBuf.setShortLE(index, values[i]);
+                    }
+                }
+                byteBuf.writerIndex(index);
+                return;
+            }
+            IntFieldCodec codec = FieldCodecs.intCodec(elementType, byteOrder);
+            for (int i = 0; i < count; ++i) {
+                codec.writeInt(byteBuf, values[i]);
+            }
+        } else if (componentType == int.class) {
+            int[] values = (int[]) array;
+            if (width == 4) {
+                for (int i = 0; i < count; ++i, index += 4) {
+                    if (be) {
+                        byteBuf.setInt(index, values[i]);
+                    } else {
+                        byteBuf.setIntLE(index, values[i]);
+                    }
+                }
+                byteBuf.writerIndex(index);
+                return;
+            }
+            IntFieldCodec codec = FieldCodecs.intCodec(elementType, byteOrder);
+            for (int i = 0; i < count; ++i) {
+                codec.writeInt(byteBuf, values[i]);
+            }
+        } else {
+            long[] values = (long[]) array;
+            if (width == 8) {
+                for (int i = 0; i < count; ++i, index += 8) {
+                    if (be) {
+                        byteBuf.setLong(index, values[i]);
+                    } else {
+                        byteBuf.setLongLE(index, values[i]);
+                    }
+                }
+                byteBuf.writerIndex(index);
+                return;
+            }
+            LongFieldCodec codec = FieldCodecs.longCodec(elementType, byteOrder);
+            for (int i = 0; i < count; ++i) {
+                codec.writeLong(byteBuf, values[i]);
+            }
+        }
+    }
+
+    @Override
+    public int fixedSize(MessageElementType elementType, Length[] lengthStack) {
+        //fixed element count without length field
+        if (ArrayUtils.isEmpty(lengthStack) || lengthStack[0].length() != LengthLengthEnum.NONE || lengthStack[0].value() <= 0) {
+            return -1;
+        }
+        return bytesOf(lengthStack[0].value(), FieldCodecs.sizeOf(elementType));
+    }
+
+    @Override
+    public int sizeOf(MessageElementType elementType, Length[] lengthStack) {
+        return this.sizeOf(null, elementType, lengthStack);
+    }
+
+    @Override
+    public int sizeOf(Object array, MessageElementType elementType, Length[] lengthStack) {
+        if(ArrayUtils.isEmpty(lengthStack)) {
+            throw new IllegalArgumentException("array field must have length specified!");
+        }
+        Length length = lengthStack[0];
+        int arrayLen = length.value() > 0 ? length.value() : (null == array ? 0 : Array.getLength(array));
+        return CodecUtils.lengthSize(length.length()) + bytesOf(arrayLen, FieldCodecs.sizeOf(elementType));
+    }
+
+    @Override
+    public void skip(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+        if(ArrayUtils.isEmpty(lengthStack)) {
+            throw new IllegalArgumentException("array field must have length specified!");
+        }
+        Length length = lengthStack[0];
+        int arrayLen = length.length() == LengthLengthEnum.NONE ? length.value() : CodecUtils.readLength(byteBuf, byteOrder, length.length());
+        if(arrayLen < 0) {
+            throw new LengthException("the length of array is < 0");
+        }
+        byteBuf.skipBytes(readableBytesOf(byteBuf, arrayLen, FieldCodecs.sizeOf(elementType)));
+    }
+
+    @Override
+    public Object read(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+        if(ArrayUtils.isEmpty(lengthStack)) {
+            throw new IllegalArgumentException("array field must have length specified!");
+        }
+        Length length = lengthStack[0];
+        //
+        int arrayLen = 0;
+        int discardLen = 0;
+        if(length.length() == LengthLengthEnum.NONE) {
+            //如果length.length() 为NONE，需要读取的元素个数由 length.value() 指定
+            if(length.value() <= 0) {
+                throw new IllegalArgumentException("if length.length() is NONE, length.value() must > 0");
+            }
+            arrayLen = length.value();
+        } else {
+            //否则，先读取实际元素个数，如果 length.value() <= 0，要读取的元素个数即为实际元素个数；
+            arrayLen = CodecUtils.readLength(byteBuf, byteOrder, length.length());
+            if(arrayLen < 0) {
+                throw new LengthException("the length of array is < 0");
+            }
+            //否则，要读取的元素个数为指定的 length.value() 和 实际元素个数二者中较小的
+            if(length.value() > 0 && arrayLen > length.value()) {
+                discardLen = arrayLen - length.value();
+                arrayLen = length.value();
+            }
+        }
+        int width = FieldCodecs.sizeOf(elementType);
+        //the bytes are checked once before the array is allocated
+        int index = byteBuf.readerIndex();
+        byteBuf.skipBytes(readableBytesOf(byteBuf, (long) arrayLen + discardLen, width));
+        return readElements(byteBuf, index, arrayLen, width, byteOrder, elementType);
+    }
+
+    @Override
+    public ResumableReader<Object> newReader(ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+        if (ArrayUtils.isEmpty(lengthStack)) {
+            throw new IllegalArgumentException("array field must have length specified!");
+        }
+        return ResumableReader.prefixed(byteOrder, lengthStack[0], FieldCodecs.sizeOf(elementType), b -> read(b, byteOrder, elementType, lengthStack));
+    }
+
+    /**
+     * read count elements at index, the reader index is not used
+     */
+    private Object readElements(ByteBuf byteBuf, int index, int count, int width, ByteOrder byteOrder, MessageElementType elementType) {
+        boolean bulk = width == widthOf(componentType) && count > 0 && byteBuf.nioBufferCount() == 1;
+        if (componentType == byte.class) {
+            byte[] values = new byte[count];
+            if (width == 1) {
+                byteBuf.getBytes(index, values);
+                return values;
+            }
+            IntFieldCodec codec = FieldCodecs.intCodec(elementType, byteOrder);
+            ByteBuf slice = byteBuf.slice(index, count * width);
+            for (int i = 0; i < count; ++i) {
+                values[i] = (byte) codec.readInt(slice);
+            }
+            return values;
+        } else if (componentType == short.class) {
+            short[] values = new short[count];
+            if (bulk) {
+                nioBuffer(byteBuf, index, count * width, byteOrder).asShortBuffer().get(values);
+                return values;
+            }
+            IntFieldCodec codec = FieldCodecs.intCodec(elementType, byteOrder);
+            ByteBuf slice = byteBuf.slice(index, count * width);
+            for (int i = 0; i < count; ++i) {
+                values[i] = (short) codec.readInt(slice);
+            }
+            return values;
+        } else if (componentType == int.class) {
+            int[] values = new int[count];
+            if (bulk) {
+                nioBuffer(byteBuf, index, count * width, byteOrder).asIntBuffer().get(values);
+                return values;
+            }
+            IntFieldCodec codec = FieldCodecs.intCodec(elementType, byteOrder);
+            ByteBuf slice = byteBuf.slice(index, count * width);
+            for (int i = 0; i < count; ++i) {
+                values[i] = codec.readInt(slice);
+            }
+            return values;
+        } else {
+            long[] values = new long[count];
+            if (bulk) {
+                nioBuffer(byteBuf, index, count * width, byteOrder).asLongBuffer().get(values);
+                return values;
+            }
+            LongFieldCodec codec = FieldCodecs.longCodec(elementType, byteOrder);
+            ByteBuf slice = byteBuf.slice(index, count * width);
+            for (int i = 0; i < count; ++i) {
+                values[i] = codec.readLong(slice);
+            }
+            return values;
+        }
+    }
+
+    /**
+     * @return count * width
+     * @throws LengthException if the array does not fit in a ByteBuf
+     */
+    private static int bytesOf(long count, int width) {
+        long bytes = count * width;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new LengthException("the array of " + count + " elements of " + width + " bytes is too large");
+        }
+        return (int) bytes;
+    }
+
+    /**
+     * @return count * width, computed without overflow
+     * @throws IndexOutOfBoundsException if byteBuf has less readable bytes, checked before anything is allocated
+     */
+    private static int readableBytesOf(ByteBuf byteBuf, long count, int width) {
+        long bytes = count * width;
+        if (bytes > byteBuf.readableBytes()) {
+            throw new IndexOutOfBoundsException("the array of " + count + " elements of " + width + " bytes exceeds readableBytes "
+                    + byteBuf.readableBytes() + " of " + byteBuf);
+        }
+        return (int) bytes;
+    }
+
+    private static ByteBuffer nioBuffer(ByteBuf byteBuf, int index, int length, ByteOrder byteOrder) {
+        return byteBuf.nioBuffer(index, length).order(byteOrder);
+    }
+
+    private static int widthOf(Class<?> componentType) {
+        if (componentType == byte.class) {
+            return 1;
+        }
+        if (componentType == short.class) {
+            return 2;
+        }
+        return componentType == int.class ? 4 : 8;
+    }
+}
@@ -0,0 +1,758 @@
+/*
+ * Copyright (C) 2011 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.bignaga.codec.copyfromgson.reflect;
+
+import com.bignaga.codec.annotation.Length;
+import com.bignaga.utils.ThrowAs;
+import com.bignaga.codec.FieldCodecs;
+import com.bignaga.codec.FieldLayout;
+import com.bignaga.codec.FieldSelector;
+import com.bignaga.codec.IntFieldCodec;
+import com.bignaga.codec.LengthPlan;
+import com.bignaga.codec.LongFieldCodec;
+import com.bignaga.codec.MessageElementType;
+import com.bignaga.codec.annotation.MessageElement;
+import com.bignaga.codec.annotation.StringDedup;
+import com.bignaga.codec.copyfromgson.internal.*;
+import com.bignaga.codec.reader.ByteBufReader;
+import com.bignaga.codec.reader.ByteBufReaders;
+import com.bignaga.codec.writer.ByteBufWriter;
+import com.bignaga.codec.writer.ByteBufWriters;
+import io.netty.buffer.ByteBuf;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Type;
+import java.nio.ByteOrder;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Type adapter that reflects over the fields and methods of a class.
+ */
+public final class ReflectiveTypeAdapterFactory implements TypeAdapterFactory {
+  private final ConstructorConstructor constructorConstructor;
+  private final ReflectionAccessor accessor = ReflectionAccessor.getInstance();
+
+  public ReflectiveTypeAdapterFactory(ConstructorConstructor constructorConstructor) {
+    this.constructorConstructor = constructorConstructor;
+  }
+
+  @Override
+  public <T> TypeAdapter<T> create(final TypeToken<T> type, MessageElementType elementType) {
+    Class<? super T> raw = type.getRawType();
+
+    if (!Object.class.isAssignableFrom(raw)) {
+        // it's a primitive!
+        return null;
+    }
+
+    ObjectConstructor<T> constructor = constructorConstructor.get(type);
+    return new Adapter<T>(constructor, getBoundFields(type, raw));
+  }
+
+  private BoundField createBoundField(
+          final Field field,
+          final TypeToken<?> fieldType,
+          final MessageElementType elementType,
+          final ByteOrder byteOrder,
+          final Length[] lengthStack,
+          final int index) {
+    Class<?> rawFieldType = field.getType();
+    if (FieldCodecs.isNumeric(elementType) && !field.isAnnotationPresent(StringDedup.class)) {
+      //primitive fields skip the boxed adapters
+      //a boolean of a LONG element is true if any of its 64 bits is set
+      if (rawFieldType == long.class || (rawFieldType == boolean.class && elementType == MessageElementType.LONG)) {
+        return new LongBoundField(field, elementType, byteOrder, lengthStack, index);
+      }
+      if (rawFieldType == boolean.class || rawFieldType == byte.class || rawFieldType == short.class || rawFieldType == int.class) {
+        return new IntBoundField(field, elementType, byteOrder, lengthStack, index);
+      }
+    }
+    final TypeAdapter<?> typeAdapter = TypeAdapters.getFieldAdapter(field, fieldType, elementType);
+    if (FieldCodecs.isNumeric(elementType)
+            && (typeAdapter instanceof TypeAdapter.IntegerTypeAdapter || typeAdapter instanceof TypeAdapter.LongTypeAdapter)) {
+      //boxed fields of a numeric element type: reader/writer bound to the byte order of the field
+      return new SimpleBoundField<>(field, elementType, byteOrder, lengthStack, index, (TypeAdapter.SimpleTypeAdapter<?, ?>) typeAdapter);
+    }
+
+    //the byte order of the field is static, the one of the message passed in is ignored
+    return new BoundField(field,
+            elementType,
+            byteOrder,
+            lengthStack,
+            index) {
+
+      @Override
+      public void write(Object value, ByteBuf byteBuf, ByteOrder byteOrder) {
+        TypeAdapter ta = typeAdapter;
+        ta.write(value, byteBuf, this.byteOrder, this.elementType, this.lengthStack);
+      }
+
+      @Override
+      public Object read(ByteBuf byteBuf, ByteOrder byteOrder) {
+        TypeAdapter ta = typeAdapter;
+        return ta.read(byteBuf, this.byteOrder, this.elementType, this.lengthStack);
+      }
+
+      @Override
+      int fixedSize() {
+        return typeAdapter.fixedSize(this.elementType, this.lengthStack);
+      }
+
+      @Override
+      int sizeOf(Object source) {
+        TypeAdapter ta = typeAdapter;
+        return ta.sizeOf(getFieldValue(source), this.elementType, this.lengthStack);
+      }
+
+      @Override
+      void skip(ByteBuf byteBuf, ByteOrder byteOrder) {
+        typeAdapter.skip(byteBuf, this.byteOrder, this.elementType, this.lengthStack);
+      }
+
+      @Override
+      ResumableReader<?> newReader(ByteOrder byteOrder) {
+        return typeAdapter.newReader(this.byteOrder, this.elementType, this.lengthStack);
+      }
+    };
+  }
+
+  /**
+   * @return the sum of the fixed sizes of boundFields, -1 if any of them has no fixed size
+   */
+  static int fixedSizeOf(List<BoundField> boundFields) {
+    int size = 0;
+    for (BoundField boundField : boundFields) {
+      int fieldSize = boundField.fixedSize();
+      if (fieldSize < 0) {
+        return -1;
+      }
+      size += fieldSize;
+    }
+    return size;
+  }
+
+  /**
+   * @return the number of bytes boundFields write for source
+   */
+  static int sizeOf(List<BoundField> boundFields, int fixedSize, Object source) {
+    if (fixedSize >= 0) {
+      return fixedSize;
+    }
+    int size = 0;
+    for (BoundField boundField : boundFields) {
+      size += boundField.sizeOf(source);
+    }
+    return size;
+  }
+
+  /**
+   * move past the fields of boundFields without decoding them
+   */
+  static void skip(List<BoundField> boundFields, int fixedSize, ByteBuf byteBuf, ByteOrder byteOrder) {
+    if (fixedSize >= 0) {
+      byteBuf.skipBytes(fixedSize);
+      return;
+    }
+    for (BoundField boundField : boundFields) {
+      boundField.skip(byteBuf, byteOrder);
+    }
+  }
+
+  /**
+   * the wire layout of type, with the offsets of the fields up to the first variable width one
+   */
+  public List<FieldLayout> getFieldLayouts(TypeToken<?> type) {
+    List<FieldLayout> layouts = new ArrayList<>();
+    int offset = 0;
+    for (BoundField boundField : getBoundFields(type, type.getRawType())) {
+      int width = boundField.fixedSize();
+      layouts.add(layoutOf(boundField, offset, width));
+      offset = offset < 0 || width < 0 ? -1 : offset + width;
+    }
+    return layouts;
+  }
+
+  /**
+   * an adapter of type reading only the fields accepted by selector, the other fields are skipped and left
+   * to their default value. consecutive fixed width fields not selected are skipped with one skipBytes.
+   * it can not write
+   */
+  public <T> TypeAdapter<T> createProjection(TypeToken<T> type, FieldSelector selector) {
+    ObjectConstructor<T> constructor = constructorConstructor.get(type);
+    List<ProjectionStep> steps = new ArrayList<>();
+    int offset = 0;
+    int skipBytes = 0;
+    for (BoundField boundField : getBoundFields(type, type.getRawType())) {
+      int width = boundField.fixedSize();
+      boolean selected = boundField.elementType != MessageElementType.RESERVE
+              && selector.select(layoutOf(boundField, offset, width));
+      offset = offset < 0 || width < 0 ? -1 : offset + width;
+      if (!selected && width >= 0) {
+        skipBytes += width;
+        continue;
+      }
+      if (skipBytes > 0) {
+        steps.add(new ProjectionStep(null, false, skipBytes));
+        skipBytes = 0;
+      }
+      steps.add(new ProjectionStep(boundField, selected, 0));
+    }
+    if (skipBytes > 0) {
+      steps.add(new ProjectionStep(null, false, skipBytes));
+    }
+    return new ProjectionAdapter<>(constructor, steps.toArray(new ProjectionStep[0]));
+  }
+
+  private static FieldLayout layoutOf(BoundField boundField, int offset, int width) {
+    return new FieldLayout(boundField.field,
+            boundField.index,
+            boundField.elementType,
+            boundField.byteOrder,
+            boundField.lengthStack,
+            offset,
+            width);
+  }
+
+  List<BoundField> getBoundFields(TypeToken<?> type, Class<?> raw) {
+    List<BoundField> result = new LinkedList<>();
+    if (raw.isInterface()) {
+      return result;
+    }
+
+    while (raw != Object.class) {
+      Field[] fields = raw.getDeclaredFields();
+      for (Field field : fields) {
+        MessageElement annotation = field.getAnnotation(MessageElement.class);
+        if(null == annotation) {
+          continue;
+        }
+        accessor.makeAccessible(field);
+        Type fieldType = $Gson$Types.resolve(type.getType(), raw, field.getGenericType());
+        BoundField boundField = createBoundField(field,
+                TypeToken.get(fieldType),
+                annotation.type(),
+                annotation.byteOrder().byteOrder,
+                LengthPlan.compile(annotation.lengthStack()),
+                annotation.index());
+        result.add(boundField);
+      }
+      type = TypeToken.get($Gson$Types.resolve(type.getType(), raw, raw.getGenericSuperclass()));
+      raw = type.getRawType();
+    }
+    //
+    result.sort(Comparator.comparingInt(BoundField::getIndex));
+    return result;
+  }
+
+  static abstract class BoundField {
+    final Field field;
+    final MessageElementType elementType;
+    final Length[] lengthStack;
+    final int index;
+    final ByteOrder byteOrder;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+    protected BoundField(Field field,
+                         MessageElementType elementType,
+                         ByteOrder byteOrder,
+                         Length[] lengthStack,
+                         int index) {
+      this.elementType = elementType;
+      this.lengthStack = lengthStack;
+      this.index = index;
+      this.field = field;
+      this.byteOrder = byteOrder;
+      this.getter = FieldHandles.getter(field);
+      this.setter = FieldHandles.setter(field);
+    }
+
+//    public abstract void write(Object value, ByteBuf byteBuf, ByteOrder byteOrder, int[] lengthStack, MessageElementType elementType);
+//
+//    public abstract Object read(ByteBuf byteBuf, ByteOrder byteOrder, int[] lengthStack, MessageElementType elementType);
+
+    public abstract void write(Object value, ByteBuf byteBuf, ByteOrder byteOrder);
+
+    public abstract Object read(ByteBuf byteBuf, ByteOrder byteOrder);
+
+    /**
+     * @return the number of bytes of the field on the wire, -1 if it depends on the value
+     */
+    abstract int fixedSize();
+
+    /**
+     * @return the number of bytes of the field of source on the wire
+     */
+    int sizeOf(Object source) {
+      return fixedSize();
+    }
+
+    /**
+     * move past the field without decoding it
+     */
+    void skip(ByteBuf byteBuf, ByteOrder byteOrder) {
+      int size = fixedSize();
+      if (size >= 0) {
+        byteBuf.skipBytes(size);
+      } else {
+        read(byteBuf, byteOrder);
+      }
+    }
+
+    /**
+     * a reader of the value of the field, see {@link TypeAdapter#newReader(ByteOrder, MessageElementType, Length[])}
+     */
+    ResumableReader<?> newReader(ByteOrder byteOrder) {
+      return ResumableReader.atomic(fixedSize(), b -> skip(b, byteOrder), b -> read(b, byteOrder));
+    }
+
+    /**
+     * read the field of target from byteBuf
+     */
+    void readField(Object target, ByteBuf byteBuf, ByteOrder byteOrder) {
+      setFieldVlaue(target, read(byteBuf, byteOrder));
+    }
+
+    /**
+     * write the field of source to byteBuf
+     */
+    void writeField(Object source, ByteBuf byteBuf, ByteOrder byteOrder) {
+      write(getFieldValue(source), byteBuf, byteOrder);
+    }
+
+    int getIndex() {return index;}
+    Object getFieldValue(Object o) {
+      try {
+        return (Object) this.getter.invokeExact(o);
+      } catch (Throwable e) {
+        ThrowAs.ThrowAsRuntimeException(e);
+      }
+      return null;
+    }
+    void setFieldVlaue(Object o, Object v) {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable e) {
+        ThrowAs.ThrowAsRuntimeException(e);
+      }
+    }
+  }
+
+  /**
+   * boxed field of a numeric element type, converted by its Integer/Long adapter and read/written by the
+   * reader/writer of its element type and byte order, both looked up once here
+   */
+  static final class SimpleBoundField<T, U> extends BoundField {
+    private final TypeAdapter.SimpleTypeAdapter<T, U> adapter;
+    private final ByteBufReader<U> reader;
+    private final ByteBufWriter<U> writer;
+    private final Length length;
+
+    @SuppressWarnings("unchecked")
+    SimpleBoundField(Field field, MessageElementType elementType, ByteOrder byteOrder, Length[] lengthStack, int index,
+                     TypeAdapter.SimpleTypeAdapter<T, U> adapter) {
+      super(field, elementType, byteOrder, lengthStack, index);
+      this.adapter = adapter;
+      this.reader = (ByteBufReader<U>) ByteBufReaders.getReader(elementType, byteOrder);
+      this.writer = (ByteBufWriter<U>) ByteBufWriters.getWriter(elementType, byteOrder);
+      this.length = lengthStack.length == 0 ? null : lengthStack[0];
+    }
+
+    @Override
+    int fixedSize() {
+      return FieldCodecs.sizeOf(elementType);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void write(Object value, ByteBuf byteBuf, ByteOrder byteOrder) {
+      writer.write(adapter.convertTo((T) value, length), byteBuf, this.byteOrder);
+    }
+
+    @Override
+    public Object read(ByteBuf byteBuf, ByteOrder byteOrder) {
+      return adapter.convertFrom(reader.read(byteBuf, this.byteOrder, 0));
+    }
+  }
+
+  /**
+   * boolean/byte/short/int field of a numeric element type, read/written as a primitive int
+   */
+  static final class IntBoundField extends BoundField {
+    private final IntFieldCodec codec;
+    private final MethodHandle intGetter;
+    private final MethodHandle intSetter;
+
+    IntBoundField(Field field, MessageElementType elementType, ByteOrder byteOrder, Length[] lengthStack, int index) {
+      super(field, elementType, byteOrder, lengthStack, index);
+      this.codec = FieldCodecs.intCodec(elementType, byteOrder);
+      this.intGetter = FieldHandles.intGetter(field);
+      this.intSetter = FieldHandles.intSetter(field);
+    }
+
+    @Override
+    int fixedSize() {
+      return FieldCodecs.sizeOf(elementType);
+    }
+
+    @Override
+    public void write(Object value, ByteBuf byteBuf, ByteOrder byteOrder) {
+      int i;
+      if (value instanceof Boolean) {
+        i = (Boolean) value ? 1 : 0;
+      } else {
+        i = null == value ? 0 : ((Number) value).intValue();
+      }
+      codec.writeInt(byteBuf, i);
+    }
+
+    @Override
+    public Object read(ByteBuf byteBuf, ByteOrder byteOrder) {
+      int i = codec.readInt(byteBuf);
+      Class<?> type = field.getType();
+      if (type == boolean.class) {
+        return i != 0;
+      }
+      if (type == byte.class) {
+        return (byte) i;
+      }
+      if (type == short.class) {
+        return (short) i;
+      }
+      return i;
+    }
+
+    @Override
+    void readField(Object target, ByteBuf byteBuf, ByteOrder byteOrder) {
+      try {
+        this.intSetter.invokeExact(target, codec.readInt(byteBuf));
+      } catch (Throwable e) {
+        ThrowAs.ThrowAsRuntimeException(e);
+      }
+    }
+
+    @Override
+    void writeField(Object source, ByteBuf byteBuf, ByteOrder byteOrder) {
+      int i = 0;
+      try {
+        i = (int) this.intGetter.invokeExact(source);
+      } catch (Throwable e) {
+        ThrowAs.ThrowAsRuntimeException(e);
+      }
+      codec.writeInt(byteBuf, i);
+    }
+  }
+
+  /**
+   * long field of a numeric element type, or boolean field of a LONG element, read/written as a primitive long
+   */
+  static final class LongBoundField extends BoundField {
+    private final LongFieldCodec codec;
+    private final MethodHandle longGetter;
+    private final MethodHandle longSetter;
+
+    LongBoundField(Field field, MessageElementType elementType, ByteOrder byteOrder, Length[] lengthStack, int index) {
+      super(field, elementType, byteOrder, lengthStack, index);
+      this.codec = FieldCodecs.longCodec(elementType, byteOrder);
+      this.longGetter = FieldHandles.longGetter(field);
+      this.longSetter = FieldHandles.longSetter(field);
+    }
+
+    @Override
+    int fixedSize() {
+      return FieldCodecs.sizeOf(elementType);
+    }
+
+    @Override
+    public void write(Object value, ByteBuf byteBuf, ByteOrder byteOrder) {
+      long l;
+      if (value instanceof Boolean) {
+        l = (Boolean) value ? 1L : 0L;
+      } else {
+        l = null == value ? 0L : ((Number) value).longValue();
+      }
+      codec.writeLong(byteBuf, l);
+    }
+
+    @Override
+    public Object read(ByteBuf byteBuf, ByteOrder byteOrder) {
+      long l = codec.readLong(byteBuf);
+      if (field.getType() == boolean.class) {
+        return l != 0L;
+      }
+      return l;
+    }
+
+    @Override
+    void readField(Object target, ByteBuf byteBuf, ByteOrder byteOrder) {
+      try {
+        this.longSetter.invokeExact(target, codec.readLong(byteBuf));
+      } catch (Throwable e) {
+        ThrowAs.ThrowAsRuntimeException(e);
+      }
+    }
+
+    @Override
+    void writeField(Object source, ByteBuf byteBuf, ByteOrder byteOrder) {
+      long l = 0L;
+      try {
+        l = (long) this.longGetter.invokeExact(source);
+      } catch (Throwable e) {
+        ThrowAs.ThrowAsRuntimeException(e);
+      }
+      codec.writeLong(byteBuf, l);
+    }
+  }
+
+  public static final class Adapter<T> extends TypeAdapter<T> {
+    private final ObjectConstructor<T> constructor;
+    private final List<BoundField> boundFields;
+    private final int fixedSize;
+
+    Adapter(ObjectConstructor<T> constructor, List<BoundField> boundFields) {
+      this.constructor = constructor;
+      this.boundFields = boundFields;
+      this.fixedSize = fixedSizeOf(boundFields);
+    }
+
+    @Override
+    public int fixedSize(MessageElementType elementType, Length[] lengthStack) {
+      return fixedSize;
+    }
+
+    @Override
+    public int sizeOf(T value, MessageElementType elementType, Length[] lengthStack) {
+      return ReflectiveTypeAdapterFactory.sizeOf(boundFields, fixedSize, value);
+    }
+
+    @Override
+    public int sizeOf(MessageElementType elementType, Length[] lengthStack) {
+      return fixedSize >= 0 ? fixedSize : this.sizeOf(this.constructor.construct(), elementType, lengthStack);
+    }
+
+
+    @Override
+    public void write(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+      //TODO 优化
+      T t = this.constructor.construct();
+      this.write(t, byteBuf, byteOrder, elementType, lengthStack);
+    }
+
+    @Override
+    public void write(T value, ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+      for (BoundField boundField : boundFields) {
+        boundField.writeField(value, byteBuf, byteOrder);
+      }
+    }
+
+    @Override
+    public T read(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+      T t = this.constructor.construct();
+      int size = boundFields.size();
+      int i = 0;
+      try {
+        for (; i < size; ++i) {
+          boundFields.get(i).readField(t, byteBuf, byteOrder);
+        }
+      } catch (RuntimeException e) {
+        //t is dropped, do not leak the retained slices of the fields read
+        releaseFields(boundFields, i, t);
+        throw e;
+      }
+      return t;
+    }
+
+    @Override
+    public void skip(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+      ReflectiveTypeAdapterFactory.skip(boundFields, fixedSize, byteBuf, byteOrder);
+    }
+
+    @Override
+    public ResumableReader<T> newReader(ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+      if (fixedSize >= 0) {
+        //nothing to resume, read all fields at once when they are readable
+        return super.newReader(byteOrder, elementType, lengthStack);
+      }
+      return new FieldsReader<>(this.constructor, boundFields, byteOrder, null);
+    }
+
+    /**
+     * a reader of a variable width value resuming field by field, which reads it by whole if it arrived at once
+     */
+    ResumableReader<T> newReader(ByteOrder byteOrder, Function<ByteBuf, T> whole) {
+      return new FieldsReader<>(this.constructor, boundFields, byteOrder, whole);
+    }
+  }
+
+  /**
+   * reads the fields of a new object in order, fixed width ones once they are readable, the others by their own reader.
+   * if all of the value is readable when it starts, whole reads it at once instead
+   */
+  static final class FieldsReader<T> extends ResumableReader<T> {
+    private final ObjectConstructor<T> constructor;
+    private final List<BoundField> boundFields;
+    private final ByteOrder byteOrder;
+    private final Function<ByteBuf, T> whole;
+    private T target;
+    private int next;
+    private ResumableReader<?> current;
+
+    FieldsReader(ObjectConstructor<T> constructor, List<BoundField> boundFields, ByteOrder byteOrder, Function<ByteBuf, T> whole) {
+      this.constructor = constructor;
+      this.boundFields = boundFields;
+      this.byteOrder = byteOrder;
+      this.whole = whole;
+    }
+
+    @Override
+    public boolean resume(ByteBuf byteBuf) {
+      if (null == target) {
+        if (null != whole && isWhole(byteBuf)) {
+          target = whole.apply(byteBuf);
+          next = boundFields.size();
+          return true;
+        }
+        target = constructor.construct();
+      }
+      int size = boundFields.size();
+      while (next < size) {
+        BoundField boundField = boundFields.get(next);
+        if (null == current) {
+          int fieldSize = boundField.fixedSize();
+          if (fieldSize >= 0) {
+            if (byteBuf.readableBytes() < fieldSize) {
+              return false;
+            }
+            boundField.readField(target, byteBuf, byteOrder);
+            ++next;
+            continue;
+          }
+          current = boundField.newReader(byteOrder);
+        }
+        if (!current.resume(byteBuf)) {
+          return false;
+        }
+        boundField.setFieldVlaue(target, current.result());
+        current = null;
+        ++next;
+      }
+      return true;
+    }
+
+    private boolean isWhole(ByteBuf byteBuf) {
+      int readerIndex = byteBuf.readerIndex();
+      try {
+        skip(boundFields, -1, byteBuf, byteOrder);
+        return true;
+      } catch (IndexOutOfBoundsException e) {
+        return false;
+      } finally {
+        byteBuf.readerIndex(readerIndex);
+      }
+    }
+
+    @Override
+    public T result() {
+      return target;
+    }
+
+    @Override
+    public void abandon() {
+      if (null != current) {
+        current.abandon();
+        current = null;
+      }
+      if (null != target) {
+        releaseFields(boundFields, next, target);
+      }
+    }
+  }
+
+  /**
+   * release the reference-counted values of the first count fields of target, which is given up
+   */
+  static void releaseFields(List<BoundField> boundFields, int count, Object target) {
+    for (int i = 0; i < count; ++i) {
+      ResumableReader.release(boundFields.get(i).getFieldValue(target));
+    }
+  }
+
+  /**
+   * read a bound field, skip a variable width bound field, or skip a run of fixed width fields
+   */
+  private static final class ProjectionStep {
+    final BoundField boundField;
+    final boolean read;
+    final int skipBytes;
+
+    ProjectionStep(BoundField boundField, boolean read, int skipBytes) {
+      this.boundField = boundField;
+      this.read = read;
+      this.skipBytes = skipBytes;
+    }
+  }
+
+  /**
+   * decode only, see {@link #createProjection(TypeToken, FieldSelector)}
+   */
+  private static final class ProjectionAdapter<T> extends TypeAdapter<T> {
+    private final ObjectConstructor<T> constructor;
+    private final ProjectionStep[] steps;
+
+    ProjectionAdapter(ObjectConstructor<T> constructor, ProjectionStep[] steps) {
+      this.constructor = constructor;
+      this.steps = steps;
+    }
+
+    @Override
+    public T read(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+      T t = this.constructor.construct();
+      int i = 0;
+      try {
+        for (; i < steps.length; ++i) {
+          ProjectionStep step = steps[i];
+          if (null == step.boundField) {
+            byteBuf.skipBytes(step.skipBytes);
+          } else if (step.read) {
+            step.boundField.readField(t, byteBuf, byteOrder);
+          } else {
+            step.boundField.skip(byteBuf, byteOrder);
+          }
+        }
+      } catch (RuntimeException e) {
+        for (int j = 0; j < i; ++j) {
+          if (steps[j].read) {
+            ResumableReader.release(steps[j].boundField.getFieldValue(t));
+          }
+        }
+        throw e;
+      }
+      return t;
+    }
+
+    @Override
+    public void write(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+      throw new UnsupportedOperationException("a projection can not write");
+    }
+
+    @Override
+    public void write(T value, ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+      throw new UnsupportedOperationException("a projection can not write");
+    }
+  }
+}
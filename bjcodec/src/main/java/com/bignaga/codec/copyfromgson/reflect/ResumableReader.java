@@ -0,0 +1,282 @@
+/**
+ * @project lbsgap
+ * @file ResumableReader.java
+ * @package com.bignaga.codec.copyfromgson.reflect
+ * @author zhonghao
+ * @date 2026/10/17 23:00
+ * @copyright bignaga
+ */
+package com.bignaga.codec.copyfromgson.reflect;
+
+import com.bignaga.codec.LengthLengthEnum;
+import com.bignaga.codec.LengthPlan;
+import com.bignaga.codec.MessageElementType;
+import com.bignaga.codec.annotation.Length;
+import com.bignaga.codec.exception.LengthException;
+import com.bignaga.codec.utils.CodecUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.ReferenceCounted;
+import org.apache.commons.lang3.ArrayUtils;
+
+import java.nio.ByteOrder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * decodes one value as its bytes arrive: each {@link #resume(ByteBuf)} reads the complete fields/elements readable
+ * and remembers where it stopped, so the bytes consumed can be released before the rest of the value has arrived.
+ *
+ * structs ({@link ReflectiveTypeAdapterFactory.Adapter}), arrays ({@link ArrayTypeAdapter}) and collections
+ * ({@link CollectionTypeAdapterFactory}) resume field by field and element by element;
+ * any other adapter decodes its value at once, see {@link #atomic(int, Consumer, Function)} and {@link #prefixed(ByteOrder, Length, int, Function)}.
+ * a value is never read twice: the readers find out whether all of it has arrived before reading it
+ * @author zhonghao
+ * @date 2026/10/17 23:00
+ * @see TypeAdapter#newReader(ByteOrder, MessageElementType, Length[])
+ * @since
+ */
+public abstract class ResumableReader<T> {
+
+    /**
+     * read as much of the value as byteBuf holds, the reader index is left behind the last complete field/element
+     * @return true once the value is complete, {@link #result()} returns it then
+     */
+    public abstract boolean resume(ByteBuf byteBuf);
+
+    /**
+     * @return the value decoded, valid once {@link #resume(ByteBuf)} returned true
+     */
+    public abstract T result();
+
+    /**
+     * give up the value before it is complete, releasing the reference-counted values read so far
+     * (ByteBuf fields are retained slices of the input). the default holds nothing to release
+     */
+    public void abandon() {
+    }
+
+    /**
+     * a reader decoding the whole value at once: as soon as fixedSize bytes are readable, or, if fixedSize < 0,
+     * once skip moves past the value without running out of bytes. skip only reads the length fields, it neither
+     * decodes nor retains anything
+     */
+    public static <T> ResumableReader<T> atomic(int fixedSize, Consumer<ByteBuf> skip, Function<ByteBuf, T> read) {
+        return new Atomic<>(fixedSize < 0 ? byteBuf -> measure(byteBuf, skip) : byteBuf -> fixedSize, read);
+    }
+
+    /**
+     * @return the number of bytes skip moves past, or more than the readable bytes if they run out
+     */
+    private static long measure(ByteBuf byteBuf, Consumer<ByteBuf> skip) {
+        int readerIndex = byteBuf.readerIndex();
+        try {
+            skip.accept(byteBuf);
+            return byteBuf.readerIndex() - readerIndex;
+        } catch (IndexOutOfBoundsException e) {
+            //not all of it has arrived
+            return byteBuf.readableBytes() + 1L;
+        } finally {
+            byteBuf.readerIndex(readerIndex);
+        }
+    }
+
+    /**
+     * a reader decoding a length field and the units of width bytes it counts at once, as soon as all of them are
+     * readable: the length field is peeked, so a large value is decoded once rather than tried again with every
+     * chunk that arrives. without a length field there are length.value() units
+     */
+    public static <T> ResumableReader<T> prefixed(ByteOrder byteOrder, Length length, int width, Function<ByteBuf, T> read) {
+        if (length.length() == LengthLengthEnum.NONE) {
+            return atomic((int) Math.min((long) Math.max(length.value(), 0) * width, Integer.MAX_VALUE), null, read);
+        }
+        int lengthSize = CodecUtils.lengthSize(length.length());
+        return new Atomic<>(byteBuf -> {
+            if (byteBuf.readableBytes() < lengthSize) {
+                return lengthSize;
+            }
+            int readerIndex = byteBuf.readerIndex();
+            long count = CodecUtils.readLength(byteBuf, byteOrder, length.length());
+            byteBuf.readerIndex(readerIndex);
+            //a negative length is left to read to reject
+            return count < 0 ? lengthSize : lengthSize + count * width;
+        }, read);
+    }
+
+    /**
+     * release value if it is reference-counted, or the reference-counted elements of an array/collection
+     */
+    static void release(Object value) {
+        if (value instanceof ReferenceCounted) {
+            ReferenceCountUtil.release(value);
+        } else if (value instanceof Object[]) {
+            for (Object element : (Object[]) value) {
+                release(element);
+            }
+        } else if (value instanceof Iterable) {
+            for (Object element : (Iterable<?>) value) {
+                release(element);
+            }
+        }
+    }
+
+    private static final class Atomic<T> extends ResumableReader<T> {
+        /**
+         * the number of bytes of the value, computed from the bytes readable
+         */
+        private final ToLongFunction<ByteBuf> size;
+        private final Function<ByteBuf, T> read;
+        private boolean done;
+        private T result;
+
+        Atomic(ToLongFunction<ByteBuf> size, Function<ByteBuf, T> read) {
+            this.size = size;
+            this.read = read;
+        }
+
+        @Override
+        public boolean resume(ByteBuf byteBuf) {
+            if (done) {
+                return true;
+            }
+            if (byteBuf.readableBytes() < size.applyAsLong(byteBuf)) {
+                return false;
+            }
+            result = read.apply(byteBuf);
+            done = true;
+            return true;
+        }
+
+        @Override
+        public T result() {
+            return result;
+        }
+    }
+
+    /**
+     * the count of an array/collection, then its elements one by one, with the length rules of
+     * {@link ArrayTypeAdapter#read(ByteBuf, ByteOrder, MessageElementType, Length[])}
+     */
+    abstract static class Elements<T, E> extends ResumableReader<T> {
+        private final TypeAdapter<E> elementAdapter;
+        private final ByteOrder byteOrder;
+        private final MessageElementType elementType;
+        private final Length length;
+        private final Length[] elementLengthStack;
+        private final int elementSize;
+        private final String what;
+        /**
+         * elements kept, -1 until the length field is read
+         */
+        private int count = -1;
+        private int discard;
+        private int index;
+        private ResumableReader<E> current;
+        private boolean done;
+        private T result;
+
+        Elements(TypeAdapter<E> elementAdapter, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack, String what) {
+            if (ArrayUtils.isEmpty(lengthStack)) {
+                throw new IllegalArgumentException(what + " field must have length specified!");
+            }
+            this.elementAdapter = elementAdapter;
+            this.byteOrder = byteOrder;
+            this.elementType = elementType;
+            this.length = lengthStack[0];
+            this.elementLengthStack = LengthPlan.tail(lengthStack);
+            this.elementSize = elementAdapter.fixedSize(elementType, elementLengthStack);
+            this.what = what;
+        }
+
+        /**
+         * keep the element read
+         */
+        abstract void add(E element);
+
+        /**
+         * @return the value of the elements kept, called once all of them are read
+         */
+        abstract T finish();
+
+        @Override
+        public final boolean resume(ByteBuf byteBuf) {
+            if (done) {
+                return true;
+            }
+            if (count < 0 && !readCount(byteBuf)) {
+                return false;
+            }
+            int total = count + discard;
+            while (index < total) {
+                E element;
+                if (elementSize >= 0) {
+                    if (byteBuf.readableBytes() < elementSize) {
+                        return false;
+                    }
+                    element = elementAdapter.read(byteBuf, byteOrder, elementType, elementLengthStack);
+                } else {
+                    if (null == current) {
+                        current = elementAdapter.newReader(byteOrder, elementType, elementLengthStack);
+                    }
+                    if (!current.resume(byteBuf)) {
+                        return false;
+                    }
+                    element = current.result();
+                    current = null;
+                }
+                //需要丢弃的数据
+                if (index < count) {
+                    add(element);
+                } else {
+                    release(element);
+                }
+                ++index;
+            }
+            result = finish();
+            done = true;
+            return true;
+        }
+
+        private boolean readCount(ByteBuf byteBuf) {
+            if (length.length() == LengthLengthEnum.NONE) {
+                //如果length.length() 为NONE，需要读取的元素个数由 length.value() 指定
+                if (length.value() <= 0) {
+                    throw new IllegalArgumentException("if length.length() is NONE, length.value() must > 0");
+                }
+                count = length.value();
+                return true;
+            }
+            if (byteBuf.readableBytes() < CodecUtils.lengthSize(length.length())) {
+                return false;
+            }
+            int actual = CodecUtils.readLength(byteBuf, byteOrder, length.length());
+            if (actual < 0) {
+                throw new LengthException("the length of " + what + " is < 0");
+            }
+            //要读取的元素个数为指定的 length.value() 和 实际元素个数二者中较小的
+            if (length.value() > 0 && actual > length.value()) {
+                discard = actual - length.value();
+                actual = length.value();
+            }
+            count = actual;
+            return true;
+        }
+
+        @Override
+        public T result() {
+            return result;
+        }
+
+        @Override
+        public void abandon() {
+            if (null != current) {
+                current.abandon();
+                current = null;
+            }
+            if (!done && count > 0) {
+                release(finish());
+            }
+        }
+    }
+}
@@ -0,0 +1,1242 @@
+/*
+ * Copyright (C) 2011 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed toByteBufValue in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.bignaga.codec.copyfromgson.reflect;
+
+import com.bignaga.codec.FieldCodecs;
+import com.bignaga.codec.LengthLengthEnum;
+import com.bignaga.codec.MessageElementType;
+import com.bignaga.codec.annotation.Length;
+import com.bignaga.codec.exception.LengthException;
+import com.bignaga.codec.reader.ByteBufReader;
+import com.bignaga.codec.reader.ByteBufReaders;
+import com.bignaga.codec.writer.ByteBufWriter;
+import com.bignaga.codec.writer.ByteBufWriters;
+import com.bignaga.codec.utils.CodecUtils;
+import com.bignaga.codec.utils.StringDedupCache;
+import com.bignaga.codec.utils.ZeroCopy;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidParameterException;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public abstract class TypeAdapter<T> {
+    public static final byte[] zeroLenBytes = new byte[0];
+    public static byte[] padding(byte[] source, byte[] padding, int length) {
+        int paddingLen = length - source.length;
+        if (paddingLen <= 0) {
+            return source;
+        }
+        //do padding
+        byte[] padded = new byte[source.length + paddingLen];
+        System.arraycopy(source, 0, padded, 0, source.length);
+        int destPos = source.length;
+        while (paddingLen > 0) {
+            int len = paddingLen < padding.length ? paddingLen : padding.length;
+            System.arraycopy(padding, 0, padded, destPos, len);
+            paddingLen -= len;
+            destPos += len;
+        }
+        return padded;
+    }
+
+    /**
+     * write paddingLen bytes of padding repeated, in place of {@link #padding(byte[], byte[], int)}
+     */
+    public static void writePadding(ByteBuf byteBuf, byte[] padding, int paddingLen) {
+        if (paddingLen <= 0) {
+            return;
+        }
+        if (isZeros(padding)) {
+            byteBuf.writeZero(paddingLen);
+            return;
+        }
+        while (paddingLen > 0) {
+            int len = paddingLen < padding.length ? paddingLen : padding.length;
+            byteBuf.writeBytes(padding, 0, len);
+            paddingLen -= len;
+        }
+    }
+
+    private static boolean isZeros(byte[] bytes) {
+        for (byte b : bytes) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public abstract void write(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack);
+
+    public abstract void write(T value, ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack);
+
+    public abstract T read(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack);
+
+    /**
+     * the number of bytes written for any value of the declared type
+     * @return -1 if it depends on the value (length prefixed, unbounded ...)
+     */
+    public int fixedSize(MessageElementType elementType, Length[] lengthStack) {
+        return -1;
+    }
+
+    /**
+     * the number of bytes {@link #write(Object, ByteBuf, ByteOrder, MessageElementType, Length[])} writes for value,
+     * without writing anything
+     */
+    public int sizeOf(T value, MessageElementType elementType, Length[] lengthStack) {
+        return fixedSizeOrThrow(elementType, lengthStack);
+    }
+
+    /**
+     * the number of bytes {@link #write(ByteBuf, ByteOrder, MessageElementType, Length[])} writes
+     */
+    public int sizeOf(MessageElementType elementType, Length[] lengthStack) {
+        return fixedSizeOrThrow(elementType, lengthStack);
+    }
+
+    /**
+     * move the reader index past one value without decoding it
+     */
+    public void skip(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+        int size = fixedSize(elementType, lengthStack);
+        if (size >= 0) {
+            byteBuf.skipBytes(size);
+        } else {
+            read(byteBuf, byteOrder, elementType, lengthStack);
+        }
+    }
+
+    /**
+     * a reader decoding one value as its bytes arrive, see {@link ResumableReader}.
+     * the default one decodes the value at once when all of it is readable
+     */
+    public ResumableReader<T> newReader(ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+        return ResumableReader.atomic(fixedSize(elementType, lengthStack),
+                b -> skip(b, byteOrder, elementType, lengthStack),
+                b -> read(b, byteOrder, elementType, lengthStack));
+    }
+
+    private int fixedSizeOrThrow(MessageElementType elementType, Length[] lengthStack) {
+        int size = fixedSize(elementType, lengthStack);
+        if (size < 0) {
+            throw new UnsupportedOperationException(getClass().getName() + " can not compute the size of " + elementType);
+        }
+        return size;
+    }
+
+    public static abstract class SimpleTypeAdapter<T, U> extends TypeAdapter<T> {
+        /**
+         * the reader/writer of each element type and byte order, looked up once instead of per value. an adapter serves
+         * several element types (see {@link TypeAdapters}), so they are not bound to the adapter, see {@link #slot}
+         */
+        private static final ByteBufReader<?>[] READERS = new ByteBufReader<?>[MessageElementType.values().length << 1];
+        private static final ByteBufWriter<?>[] WRITERS = new ByteBufWriter<?>[MessageElementType.values().length << 1];
+
+        static {
+            for (MessageElementType elementType : MessageElementType.values()) {
+                for (ByteOrder byteOrder : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+                    READERS[slot(elementType, byteOrder)] = ByteBufReaders.getReader(elementType, byteOrder);
+                    WRITERS[slot(elementType, byteOrder)] = ByteBufWriters.getWriter(elementType, byteOrder);
+                }
+            }
+        }
+
+        private static int slot(MessageElementType elementType, ByteOrder byteOrder) {
+            return elementType.ordinal() << 1 | (byteOrder == ByteOrder.LITTLE_ENDIAN ? 1 : 0);
+        }
+
+        @Override
+        public int fixedSize(MessageElementType elementType, Length[] lengthStack) {
+            return FieldCodecs.sizeOf(elementType);
+        }
+
+        @Override
+        public void write(T value, ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+            this.write(value, byteBuf, byteOrder, elementType, ArrayUtils.isEmpty(lengthStack) ? null : lengthStack[0]);
+        }
+
+        @Override
+        public T read(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+            return this.read(byteBuf, byteOrder, elementType, ArrayUtils.isEmpty(lengthStack) ? null : lengthStack[0]);
+        }
+
+
+        @SuppressWarnings("unchecked")
+        public void write(T value, ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length length) {
+            ((ByteBufWriter<U>) WRITERS[slot(elementType, byteOrder)]).write(convertTo(value, length), byteBuf, byteOrder);
+        }
+
+
+        @SuppressWarnings("unchecked")
+        public T read(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length length) {
+            return convertFrom(((ByteBufReader<U>) READERS[slot(elementType, byteOrder)]).read(byteBuf, byteOrder, 0));
+        }
+
+        /**
+         * 从 T 转换为 U
+         * @param t
+         * @param length
+         * @return
+         */
+        public abstract U convertTo(T t, Length length);
+
+        /**
+         * 从 U 转换为 T
+         * @param u
+         * @return
+         */
+        public abstract T convertFrom(U u);
+
+    }
+
+    /**
+     * 保留字段adapter
+     */
+    public static class ReserveTypeAdapter extends TypeAdapter<Object> {
+        @Override
+        public void write(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+            this.write(null, byteBuf, byteOrder, elementType, lengthStack);
+        }
+
+        @Override
+        public void write(Object value, ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+            if (ArrayUtils.isEmpty(lengthStack)) {
+                throw new IllegalArgumentException("reserve field must have length specified!");
+            }
+
+            int length = lengthStack[0].value();
+            //填充0x00
+            byteBuf.writeZero(length);
+        }
+
+        @Override
+        public Object read(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+            if (ArrayUtils.isEmpty(lengthStack)) {
+                throw new IllegalArgumentException("reserve field must have length specified!");
+            }
+
+            int length = lengthStack[0].value();
+            byteBuf.skipBytes(length);
+            return null;
+        }
+
+        @Override
+        public int fixedSize(MessageElementType elementType, Length[] lengthStack) {
+            return ArrayUtils.isEmpty(lengthStack) ? -1 : lengthStack[0].value();
+        }
+    }
+
+    /**
+     * Integer类型字段adapter
+     * @param <T>
+     */
+    public static abstract class IntegerTypeAdapter<T> extends SimpleTypeAdapter<T, Integer> {
+        /**
+         * T 转换为Integer
+         * @param t
+         * @param length
+         * @return
+         */
+        @Override
+        public abstract Integer convertTo(T t, Length length);
+
+        /**
+         * Integer 转换为 T
+         * @param i
+         * @return
+         */
+        @Override
+        public abstract T convertFrom(Integer i);
+    }
+
+    /**
+     * Long类型字段 adapter
+     * @param <T>
+     */
+    public static abstract class LongTypeAdapter<T> extends SimpleTypeAdapter<T, Long> {
+        /**
+         * T 转换为 Long
+         * @param t
+         * @param length
+         * @return
+         */
+        @Override
+        public abstract Long convertTo(T t, Length length);
+
+        /**
+         * Long 转换为 T
+         * @param l
+         * @return
+         */
+        @Override
+        public abstract T convertFrom(Long l);
+    }
+
+    /**
+     * byte[] 类型字段adapter
+     * @param <T>
+     */
+    public static abstract class BytesTypeAdapter<T> extends SimpleTypeAdapter<T, byte[]> {
+
+        @Override
+        public int fixedSize(MessageElementType elementType, Length[] lengthStack) {
+            //padded to length.value(), without length field
+            if (ArrayUtils.isEmpty(lengthStack) || lengthStack[0].length() != LengthLengthEnum.NONE || lengthStack[0].value() <= 0) {
+                return -1;
+            }
+            return lengthStack[0].value();
+        }
+
+        @Override
+        public int sizeOf(T value, MessageElementType elementType, Length[] lengthStack) {
+            if (ArrayUtils.isEmpty(lengthStack)) {
+                throw new LengthException("bytes field must have length specified!");
+            }
+            Length length = lengthStack[0];
+            int size = length.value() > 0 ? length.value() : encodedLength(value, length);
+            return CodecUtils.lengthSize(length.length()) + size;
+        }
+
+        /**
+         * the length of convertTo(t, length) when length.value() is not specified,
+         * sub classes override it to avoid building the bytes
+         */
+        protected int encodedLength(T t, Length length) {
+            return convertTo(t, length).length;
+        }
+
+        @Override
+        public void write(T value, ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length length) {
+            if(length == null) {
+                throw new LengthException("bytes field must have length specified!");
+            }
+            //the payload is written straight into byteBuf and padded in place,
+            //the length field is set once the length is known
+            int lengthIndex = byteBuf.writerIndex();
+            if(length.length() != LengthLengthEnum.NONE) {
+                CodecUtils.writeLength(byteBuf, byteOrder, length.length(), 0);
+            }
+            int written;
+            try {
+                written = writeUnpadded(value, byteBuf, length);
+                if (written < length.value()) {
+                    writePadding(byteBuf, paddingBytes(), length.value() - written);
+                    written = length.value();
+                }
+            } catch (RuntimeException e) {
+                byteBuf.writerIndex(lengthIndex);
+                throw e;
+            }
+            if(length.length() != LengthLengthEnum.NONE) {
+                CodecUtils.setLength(byteBuf, lengthIndex, byteOrder, length.length(), written);
+            }
+        }
+
+        /**
+         * write the bytes of value without padding, throw if they are longer than length.value().
+         * the default writes convertTo(t, length), which is padded already
+         * @return the number of bytes written
+         */
+        protected int writeUnpadded(T value, ByteBuf byteBuf, Length length) {
+            byte[] bytes = convertTo(value, length);
+            byteBuf.writeBytes(bytes);
+            return bytes.length;
+        }
+
+        /**
+         * the padding repeated after the bytes written by {@link #writeUnpadded(Object, ByteBuf, Length)}
+         * up to length.value()
+         */
+        protected byte[] paddingBytes() {
+            throw new IllegalArgumentException("convert to byte[]: the padding bytes is null");
+        }
+
+        protected static byte[] paddingBytes(Supplier<byte[]> paddingSupplier, String message) {
+            byte[] padding = paddingSupplier == null ? null : paddingSupplier.get();
+            if (null == padding || padding.length == 0) {
+                throw new IllegalArgumentException(message);
+            }
+            return padding;
+        }
+
+        @Override
+        public T read(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length length) {
+            if(length == null) {
+                throw new LengthException("bytes field must have length specified!");
+            }
+            int toReadLength = toReadLength(byteBuf, byteOrder, length);
+            return convertFrom(((ByteBufReader<byte[]>) ByteBufReaders.getReader(elementType)).read(byteBuf, byteOrder, toReadLength));
+        }
+
+        /**
+         * read the length field, or take length.value() if there is none
+         */
+        protected static int toReadLength(ByteBuf byteBuf, ByteOrder byteOrder, Length length) {
+            int toReadLength = 0;
+            if(length.length() != LengthLengthEnum.NONE) {
+                //从byteBuf中读取字段实际长度
+                toReadLength = CodecUtils.readLength(byteBuf, byteOrder, length.length());
+            } else {
+                //通过注解指定了字段长度
+                toReadLength = length.value();
+            }
+            if(toReadLength < 0) {
+                throw new LengthException("the length of byte[] will be reading is < 0");
+            }
+            return toReadLength;
+        }
+
+        @Override
+        public void skip(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+            if(ArrayUtils.isEmpty(lengthStack)) {
+                throw new LengthException("bytes field must have length specified!");
+            }
+            //only the length field is read
+            byteBuf.skipBytes(toReadLength(byteBuf, byteOrder, lengthStack[0]));
+        }
+
+        @Override
+        public ResumableReader<T> newReader(ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+            if (ArrayUtils.isEmpty(lengthStack)) {
+                return super.newReader(byteOrder, elementType, lengthStack);
+            }
+            return ResumableReader.prefixed(byteOrder, lengthStack[0], 1, b -> read(b, byteOrder, elementType, lengthStack));
+        }
+
+
+
+        /**
+         * T 转换为 byte[]
+         * @param t
+         * @param length
+         * @return
+         */
+        @Override
+        public abstract byte[] convertTo(T t, Length length);
+
+        /**
+         * byte[] 转换为 T
+         * @param bytes
+         * @return
+         */
+        @Override
+        public abstract T convertFrom(byte[] bytes);
+    }
+
+    /**
+     * Boolean<->byte[],Integer,Long
+     */
+    public static class BooleanIntegerTypeAdapter extends IntegerTypeAdapter<Boolean> {
+
+        @Override
+        public void write(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+            this.write(false, byteBuf, byteOrder, elementType, lengthStack);
+        }
+
+
+        @Override
+        public Integer convertTo(Boolean aBoolean, Length length) {
+            return (null == aBoolean || !aBoolean) ? 0 : 1;
+        }
+
+        @Override
+        public Boolean convertFrom(Integer i) {
+            return i.equals(0) ? false : true;
+        }
+    }
+
+    public static class BooleanLongTypeAdapter extends LongTypeAdapter<Boolean> {
+        @Override
+        public void write(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+            this.write(false, byteBuf, byteOrder, elementType, lengthStack);
+        }
+
+
+        @Override
+        public Long convertTo(Boolean aBoolean, Length length) {
+            return (null == aBoolean || !aBoolean) ? 0 : 1L;
+        }
+
+        @Override
+        public Boolean convertFrom(Long i) {
+            return i.longValue() != 0L;
+        }
+    }
+
+    public static class BooleanBytesTypeAdapter extends BytesTypeAdapter<Boolean> {
+        private final Function<Boolean, List<String>> textSupplier;
+        private final Supplier<byte[]> paddingSupplier;
+        private final Charset charset;
+
+        public BooleanBytesTypeAdapter(Function<Boolean, List<String>> textSupplier,
+                                       Supplier<byte[]> paddingSupplier) {
+            this(textSupplier, paddingSupplier, StandardCharsets.UTF_8);
+        }
+
+        public BooleanBytesTypeAdapter(Function<Boolean, List<String>> textSupplier,
+                                       Supplier<byte[]> paddingSupplier,
+                                       Charset charset) {
+            this.textSupplier = textSupplier;
+            this.paddingSupplier = paddingSupplier;
+            this.charset = charset;
+        }
+
+        @Override
+        public void write(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+            this.write(false, byteBuf, byteOrder, elementType, lengthStack);
+        }
+
+        @Override
+        public int sizeOf(MessageElementType elementType, Length[] lengthStack) {
+            return this.sizeOf(false, elementType, lengthStack);
+        }
+
+
+        @Override
+        protected int encodedLength(Boolean aBoolean, Length length) {
+            return CodecUtils.encodedLength(textOf(aBoolean, length), charset);
+        }
+
+        @Override
+        protected int writeUnpadded(Boolean aBoolean, ByteBuf byteBuf, Length length) {
+            return CodecUtils.writeString(byteBuf, textOf(aBoolean, length), charset);
+        }
+
+        @Override
+        protected byte[] paddingBytes() {
+            return paddingBytes(paddingSupplier, "convert boolean to text: the padding bytes is null");
+        }
+
+        @Override
+        public byte[] convertTo(Boolean aBoolean, final Length length) {
+            byte[] textBytes = textOf(aBoolean, length).getBytes(charset);
+            //
+            int paddingLen = length.value() - textBytes.length;
+            if (paddingLen <= 0) {
+                //no need for padding
+                return textBytes;
+            }
+            //do padding
+            return padding(textBytes, paddingBytes(), length.value());
+        }
+
+        private String textOf(Boolean aBoolean, Length length) {
+            List<String> texts = textSupplier == null ? null : textSupplier.apply(null == aBoolean ? false : aBoolean);
+            if (null == texts || texts.size() == 0) {
+                throw new IllegalArgumentException("convert boolean to text: the text supplier must not empty!");
+            }
+            if(length.value() <= 0) {
+                //未指定长度，取texts中的第一个就好
+                return texts.get(0);
+            }
+            for (String text : texts) {
+                if (!text.isEmpty() && CodecUtils.encodedLength(text, charset) <= length.value()) {
+                    return text;
+                }
+            }
+            throw new InvalidParameterException("convert boolean to text: the text provided by supplier do not compatible with lengthStack parameter");
+        }
+
+        @Override
+        public Boolean convertFrom(byte[] bytes) {
+            String value = new String(bytes, charset).trim();
+            if(StringUtils.isEmpty(value)) {
+                return false;
+            }
+
+            List<String> trueTexts = textSupplier == null ? null : textSupplier.apply(true);
+
+            if (null != trueTexts) {
+                for(String trueText : trueTexts) {
+                    if(value.equals(trueText)) {
+                        return true;
+                    }
+                }
+            }
+
+            List<String> falseTexts = textSupplier == null ? null : textSupplier.apply(false);
+            if(null != falseTexts) {
+                for(String falseText : falseTexts) {
+                    if(value.equals(falseText)) {
+                        return false;
+                    }
+                }
+            }
+            //TODO warning unknown boolean text, assume false!!!
+            return false;
+        }
+    }
+
+    /**
+     * Number<->byte[],Integer,Long
+     */
+    public static class NumberIntegerTypeAdapter<T extends Number> extends IntegerTypeAdapter<T> {
+        @Override
+        public void write(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+            this.write((T)Integer.valueOf(0), byteBuf, byteOrder, elementType, lengthStack);
+        }
+
+
+        @Override
+        public Integer convertTo(T t, Length length) {
+            return null == t ? 0 : t.intValue();
+        }
+
+        @Override
+        public T convertFrom(Integer i) {
+            return (T) i;
+        }
+    }
+
+    public static class NumberLongTypeAdapter<T extends Number> extends LongTypeAdapter<T> {
+        @Override
+        public void write(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+            this.write((T)Integer.valueOf(0), byteBuf, byteOrder, elementType, lengthStack);
+        }
+
+
+        @Override
+        public Long convertTo(T t, Length length) {
+            return null == t ? 0L : t.longValue();
+        }
+
+        @Override
+        public T convertFrom(Long l) {
+            return (T) l;
+        }
+    }
+
+    /**
+     * Number<->ASCII decimal text, written and parsed straight on the ByteBuf.
+     * the text is padded by paddingSupplier, '\0's and spaces around the digits are ignored when reading
+     */
+    public static class NumberBytesTypeAdapter<T extends Number> extends BytesTypeAdapter<T> {
+        protected final Supplier<byte[]> paddingSupplier;
+        private final long minValue;
+        private final long maxValue;
+
+        public NumberBytesTypeAdapter(Supplier<byte[]> paddingSupplier) {
+            this(paddingSupplier, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+
+        /**
+         * @param minValue the smallest value read, smaller ones are rejected
+         * @param maxValue the largest value read, larger ones are rejected
+         */
+        protected NumberBytesTypeAdapter(Supplier<byte[]> paddingSupplier, long minValue, long maxValue) {
+            this.paddingSupplier = paddingSupplier;
+            this.minValue = minValue;
+            this.maxValue = maxValue;
+        }
+
+        @Override
+        public void write(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+            this.write((T)Integer.valueOf(0), byteBuf, byteOrder, elementType, lengthStack);
+        }
+
+        @Override
+        public int sizeOf(MessageElementType elementType, Length[] lengthStack) {
+            return this.sizeOf((T)Integer.valueOf(0), elementType, lengthStack);
+        }
+
+        @Override
+        protected int encodedLength(T number, Length length) {
+            if (null == number) {
+                return super.encodedLength(number, length);
+            }
+            if (isIntegral(number)) {
+                return CodecUtils.decimalLength(number.longValue());
+            }
+            return String.valueOf(number).length();
+        }
+
+        @Override
+        public byte[] convertTo(T number, Length length) {
+            if(length.value() <= 0) {
+                //未指定长度，使用实际长度
+                if(length.length() == LengthLengthEnum.NONE && null == number) {
+                    //这种情况无法确定编码后的byte[] 中是否包含number
+                    throw new IllegalArgumentException("convert number to byte[]: the number is null and length.length() is LengthLengthEnum.NONE");
+                }
+                if(null == number) {
+                    return zeroLenBytes;
+                } else {
+                    return String.valueOf(number).getBytes(StandardCharsets.UTF_8);
+                }
+            } else {
+                //指定了长度
+                byte[] bytes = null;
+                if(null == number) {
+                    //直接填充
+                    bytes = zeroLenBytes;
+                } else {
+                    bytes = String.valueOf(number).getBytes(StandardCharsets.UTF_8);
+                    if (bytes.length > length.value()) {
+                        throw new IllegalArgumentException("convert number to byte[]: parameter lengthStack short than the length of byte[] that converted from number value");
+                    }
+                }
+                //
+                int paddingLen = length.value() - bytes.length;
+                if (paddingLen <= 0) {
+                    //no need for padding
+                    return bytes;
+                }
+                //do padding
+                return padding(bytes, paddingBytes(), length.value());
+            }
+        }
+
+        @Override
+        protected int writeUnpadded(T number, ByteBuf byteBuf, Length length) {
+            if(null == number) {
+                if(length.value() <= 0 && length.length() == LengthLengthEnum.NONE) {
+                    //这种情况无法确定编码后的byte[] 中是否包含number
+                    throw new IllegalArgumentException("convert number to byte[]: the number is null and length.length() is LengthLengthEnum.NONE");
+                }
+                return 0;
+            }
+            if (length.value() > 0 && encodedLength(number, length) > length.value()) {
+                throw new IllegalArgumentException("convert number to byte[]: parameter lengthStack short than the length of byte[] that converted from number value");
+            }
+            if (isIntegral(number)) {
+                return CodecUtils.writeDecimal(byteBuf, number.longValue());
+            }
+            return byteBuf.writeCharSequence(String.valueOf(number), StandardCharsets.US_ASCII);
+        }
+
+        private static boolean isIntegral(Number number) {
+            return number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte;
+        }
+
+        @Override
+        protected byte[] paddingBytes() {
+            return paddingBytes(paddingSupplier, "convert number to text: the padding bytes is null");
+        }
+
+        @Override
+        public T read(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length length) {
+            if(length == null) {
+                throw new LengthException("bytes field must have length specified!");
+            }
+            //parsed in place, without the intermediate byte[] and String
+            int toReadLength = toReadLength(byteBuf, byteOrder, length);
+            long l = CodecUtils.parseDecimal(byteBuf, byteBuf.readerIndex(), toReadLength, minValue, maxValue);
+            byteBuf.skipBytes(toReadLength);
+            return fromLong(l);
+        }
+
+        @Override
+        public T convertFrom(byte[] bytes) {
+            return fromLong(CodecUtils.parseDecimal(Unpooled.wrappedBuffer(bytes), 0, bytes.length, minValue, maxValue));
+        }
+
+        /**
+         * @param l in [minValue, maxValue]
+         */
+        protected T fromLong(long l) {
+            return (T) Integer.valueOf((int) l);
+        }
+
+        public T fromString(String s) {
+            Integer i = StringUtils.isEmpty(s) ? 0 : Integer.valueOf(s);
+            return (T) i;
+        }
+    }
+
+    /**
+     * Byte<->byte[],Integer,Long
+     */
+    public static class ByteIntegerTypeAdapter extends NumberIntegerTypeAdapter<Byte> {
+        @Override
+        public Byte convertFrom(Integer i) {
+            return i.byteValue();
+        }
+    }
+
+    public static class ByteLongTypeAdapter extends NumberLongTypeAdapter<Byte> {
+        @Override
+        public Byte convertFrom(Long l) {
+            return l.byteValue();
+        }
+
+    }
+
+    public static class ByteBytesTypeAdapter extends NumberBytesTypeAdapter<Byte> {
+
+        public ByteBytesTypeAdapter(Supplier<byte[]> paddingSupplier) {
+            super(paddingSupplier, Byte.MIN_VALUE, Byte.MAX_VALUE);
+        }
+
+        @Override
+        protected Byte fromLong(long l) {
+            return Byte.valueOf((byte) l);
+        }
+
+        @Override
+        public Byte fromString(String s) {
+            Byte b = StringUtils.isEmpty(s) ? 0 : Byte.valueOf(s);
+            return b;
+        }
+
+    }
+
+    /**
+     * Short<->byte[],Integer,Long
+     */
+    public static class ShortIntegerTypeAdapter extends NumberIntegerTypeAdapter<Short> {
+        @Override
+        public Short convertFrom(Integer i) {
+            return i.shortValue();
+        }
+    }
+
+    public static class ShortLongTypeAdapter extends NumberLongTypeAdapter<Short> {
+        @Override
+        public Short convertFrom(Long l) {
+            return l.shortValue();
+        }
+    }
+
+    public static class ShortBytesTypeAdapter extends NumberBytesTypeAdapter<Short> {
+        public ShortBytesTypeAdapter(Supplier<byte[]> paddingSupplier) {
+            super(paddingSupplier, Short.MIN_VALUE, Short.MAX_VALUE);
+        }
+
+        @Override
+        protected Short fromLong(long l) {
+            return Short.valueOf((short) l);
+        }
+
+
+        @Override
+        public Short fromString(String str) {
+            Short s = StringUtils.isEmpty(str) ? 0 : Short.valueOf(str);
+            return s;
+        }
+
+    }
+
+    /**
+     * Integer<->byte[],Integer,Long
+     */
+    public static class IntegerIntegerTypeAdapter extends NumberIntegerTypeAdapter<Integer> {
+        @Override
+        public Integer convertFrom(Integer i) {
+            return i;
+        }
+    }
+
+    public static class IntegerLongTypeAdapter extends NumberLongTypeAdapter<Integer> {
+        @Override
+        public Integer convertFrom(Long l) {
+            return l.intValue();
+        }
+    }
+
+    public static class IntegerBytesTypeAdapter extends NumberBytesTypeAdapter<Integer> {
+        public IntegerBytesTypeAdapter(Supplier<byte[]> paddingSupplier) {
+            super(paddingSupplier, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+
+        @Override
+        protected Integer fromLong(long l) {
+            return Integer.valueOf((int) l);
+        }
+
+        @Override
+        public Integer fromString(String s) {
+            return StringUtils.isEmpty(s) ? 0 : Integer.valueOf(s);
+        }
+    }
+
+    /**
+     * Long<->byte[],Integer,Long
+     */
+    public static class LongIntegerTypeAdapter extends NumberIntegerTypeAdapter<Long> {
+        @Override
+        public Long convertFrom(Integer i) {
+            return i.longValue();
+        }
+    }
+
+    public static class LongLongTypeAdapter extends NumberLongTypeAdapter<Long> {
+        @Override
+        public Long convertFrom(Long l) {
+            return l;
+        }
+    }
+
+    public static class LongBytesTypeAdapter extends NumberBytesTypeAdapter<Long> {
+        public LongBytesTypeAdapter(Supplier<byte[]> paddingSupplier) {
+            super(paddingSupplier, Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+
+        @Override
+        protected Long fromLong(long l) {
+            return Long.valueOf(l);
+        }
+
+        @Override
+        public Long fromString(String s) {
+            return StringUtils.isEmpty(s) ? 0 : Long.valueOf(s);
+        }
+    }
+
+    /**
+     * String<->byte[],Integer,Long
+     */
+    public static class StringIntegerTypeAdapter extends IntegerTypeAdapter<String> {
+        @Override
+        public void write(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+            this.write("", byteBuf, byteOrder, elementType, lengthStack);
+        }
+
+        @Override
+        public Integer convertTo(String s, Length length) {
+            return StringUtils.isEmpty(s) ? 0 : Integer.valueOf(s);
+        }
+
+        @Override
+        public String convertFrom(Integer i) {
+            return String.valueOf(i);
+        }
+    }
+
+    public static class StringLongTypeAdapter extends LongTypeAdapter<String> {
+
+        @Override
+        public void write(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+            this.write("", byteBuf, byteOrder, elementType, lengthStack);
+        }
+
+        @Override
+        public Long convertTo(String s, Length length) {
+            return StringUtils.isEmpty(s) ? 0 : Long.valueOf(s);
+        }
+
+        @Override
+        public String convertFrom(Long l) {
+            return String.valueOf(l);
+        }
+    }
+
+    public static class StringBytesTypeAdapter extends BytesTypeAdapter<String> {
+        protected final Supplier<byte[]> paddingSupplier;
+        protected final Charset charset;
+
+        public StringBytesTypeAdapter(Supplier<byte[]> paddingSupplier) {
+            this(paddingSupplier, StandardCharsets.UTF_8);
+        }
+
+        public StringBytesTypeAdapter(Supplier<byte[]> paddingSupplier, Charset charset) {
+            this.paddingSupplier = paddingSupplier;
+            this.charset = charset;
+        }
+
+        public Charset getCharset() {
+            return charset;
+        }
+
+        @Override
+        public void write(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+            this.write("", byteBuf, byteOrder, elementType, lengthStack);
+        }
+
+        @Override
+        public int sizeOf(MessageElementType elementType, Length[] lengthStack) {
+            return this.sizeOf("", elementType, lengthStack);
+        }
+
+        @Override
+        protected int encodedLength(String s, Length length) {
+            if (StringUtils.isEmpty(s)) {
+                return super.encodedLength(s, length);
+            }
+            //counts the bytes without encoding for UTF-8, US-ASCII and ISO-8859-1
+            return CodecUtils.encodedLength(s, charset);
+        }
+
+        @Override
+        protected int writeUnpadded(String s, ByteBuf byteBuf, Length length) {
+            if(length.value() <= 0 && StringUtils.isEmpty(s) && length.length() == LengthLengthEnum.NONE) {
+                //这种情况无法确定编码后的byte[]中是否包含 s
+                throw new IllegalArgumentException("convert String to byte[]: string is empty and length.length() is LengthLengthEnum.NONE");
+            }
+            //encoded straight into byteBuf
+            int written = StringUtils.isEmpty(s) ? 0 : CodecUtils.writeString(byteBuf, s, charset);
+            if (length.value() > 0 && written > length.value()) {
+                //不截断，而是抛异常
+                throw new IllegalArgumentException("convert String to byte[]: parameter length shorter than the length of byte[] that converted from String");
+            }
+            return written;
+        }
+
+        @Override
+        protected byte[] paddingBytes() {
+            return paddingBytes(paddingSupplier, "convert String to byte[]: the padding bytes is null");
+        }
+
+        @Override
+        public byte[] convertTo(String s, Length length) {
+            if(length.value() <= 0) {
+                //未指定长度的情况
+                if(StringUtils.isEmpty(s) && length.length() == LengthLengthEnum.NONE) {
+                    //这种情况无法确定编码后的byte[]中是否包含 s
+                    throw new IllegalArgumentException("convert String to byte[]: string is empty and length.length() is LengthLengthEnum.NONE");
+                }
+                if(StringUtils.isEmpty(s)) {
+                    return zeroLenBytes;
+                } else {
+                    return s.getBytes(charset);
+                }
+            } else {
+                //指定长度的情况
+                byte[] bytes = StringUtils.isEmpty(s) ? zeroLenBytes : s.getBytes(charset);
+                if (bytes.length > length.value()) {
+                    //不截断，而是抛异常
+                    throw new IllegalArgumentException("convert String to byte[]: parameter length shorter than the length of byte[] that converted from String");
+                }
+                //
+                int paddingLen = length.value() - bytes.length;
+                if (paddingLen <= 0) {
+                    //no need for padding
+                    return bytes;
+                }
+                //do padding
+                return padding(bytes, paddingBytes(), length.value());
+            }
+        }
+
+        @Override
+        public String read(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length length) {
+            if(length == null) {
+                throw new LengthException("bytes field must have length specified!");
+            }
+            //decoded in place, without the intermediate byte[]
+            int toReadLength = toReadLength(byteBuf, byteOrder, length);
+            String s = CodecUtils.decodeString(byteBuf, byteBuf.readerIndex(), toReadLength, charset);
+            byteBuf.skipBytes(toReadLength);
+            return s;
+        }
+
+        @Override
+        public String convertFrom(byte[] bytes) {
+            //remove '\0's
+            return CodecUtils.decodeString(Unpooled.wrappedBuffer(bytes), 0, bytes.length, charset);
+        }
+    }
+
+    /**
+     * String field of BYTES type annotated with {@link com.bignaga.codec.annotation.StringDedup},
+     * decoded through the cache of the field
+     */
+    public static class DedupStringBytesTypeAdapter extends StringBytesTypeAdapter {
+        private final StringDedupCache cache;
+
+        public DedupStringBytesTypeAdapter(Supplier<byte[]> paddingSupplier, StringDedupCache cache) {
+            super(paddingSupplier, cache.getCharset());
+            this.cache = cache;
+        }
+
+        @Override
+        public String read(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length length) {
+            if(length == null) {
+                throw new LengthException("bytes field must have length specified!");
+            }
+            int toReadLength = toReadLength(byteBuf, byteOrder, length);
+            String s = cache.get(byteBuf, byteBuf.readerIndex(), toReadLength);
+            byteBuf.skipBytes(toReadLength);
+            return s;
+        }
+    }
+
+    /**
+     * BYTES field of a buffer type: decoded as a view of the source buffer and encoded straight from the field's
+     * buffer, without an intermediate byte[]. padded with 0 to length.value() if it is specified, never truncated
+     * @param <T>
+     */
+    public static abstract class BufferBytesTypeAdapter<T> extends TypeAdapter<T> {
+        @Override
+        public int fixedSize(MessageElementType elementType, Length[] lengthStack) {
+            //padded to length.value(), without length field
+            if (ArrayUtils.isEmpty(lengthStack) || lengthStack[0].length() != LengthLengthEnum.NONE || lengthStack[0].value() <= 0) {
+                return -1;
+            }
+            return lengthStack[0].value();
+        }
+
+        @Override
+        public int sizeOf(T value, MessageElementType elementType, Length[] lengthStack) {
+            Length length = lengthOf(lengthStack);
+            int size = length.value() > 0 ? length.value() : (null == value ? 0 : readableBytes(value));
+            return CodecUtils.lengthSize(length.length()) + size;
+        }
+
+        @Override
+        public int sizeOf(MessageElementType elementType, Length[] lengthStack) {
+            return this.sizeOf(null, elementType, lengthStack);
+        }
+
+        @Override
+        public void write(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+            this.write(null, byteBuf, byteOrder, elementType, lengthStack);
+        }
+
+        @Override
+        public void write(T value, ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+            Length length = lengthOf(lengthStack);
+            int readable = null == value ? 0 : readableBytes(value);
+            int toWriteLength = length.value() > 0 ? length.value() : readable;
+            if (readable > toWriteLength) {
+                //不截断，而是抛异常
+                throw new IllegalArgumentException("the readable bytes of the buffer " + readable + " > length.value() " + toWriteLength);
+            }
+            if (length.length() != LengthLengthEnum.NONE) {
+                CodecUtils.writeLength(byteBuf, byteOrder, length.length(), toWriteLength);
+            }
+            if (readable > 0) {
+                ZeroCopy zeroCopy = ZeroCopy.of(byteBuf, readable);
+                ByteBuf component = null == zeroCopy ? null : component(value);
+                if (null != component) {
+                    zeroCopy.add(component);
+                } else {
+                    writeValue(value, byteBuf);
+                }
+            }
+            byteBuf.writeZero(toWriteLength - readable);
+        }
+
+        @Override
+        public T read(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+            return readValue(byteBuf, BytesTypeAdapter.toReadLength(byteBuf, byteOrder, lengthOf(lengthStack)));
+        }
+
+        @Override
+        public void skip(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+            byteBuf.skipBytes(BytesTypeAdapter.toReadLength(byteBuf, byteOrder, lengthOf(lengthStack)));
+        }
+
+        @Override
+        public ResumableReader<T> newReader(ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+            return ResumableReader.prefixed(byteOrder, lengthOf(lengthStack), 1, b -> read(b, byteOrder, elementType, lengthStack));
+        }
+
+        private static Length lengthOf(Length[] lengthStack) {
+            if (ArrayUtils.isEmpty(lengthStack)) {
+                throw new LengthException("bytes field must have length specified!");
+            }
+            return lengthStack[0];
+        }
+
+        /**
+         * @return the number of bytes of value to write
+         */
+        protected abstract int readableBytes(T value);
+
+        /**
+         * write the readable bytes of value, leaving value untouched
+         */
+        protected abstract void writeValue(T value, ByteBuf byteBuf);
+
+        /**
+         * @return a view of the next length bytes of byteBuf, its reader index moved past them
+         */
+        protected abstract T readValue(ByteBuf byteBuf, int length);
+
+        /**
+         * @return a buffer of the readable bytes of value sharing its memory, for {@link ZeroCopy};
+         * null to have them written by writeValue
+         */
+        protected ByteBuf component(T value) {
+            return null;
+        }
+    }
+
+    /**
+     * ByteBuf field of BYTES type.
+     *
+     * decode: the field is a retained slice of the decoded buffer, sharing its memory. whoever owns the decoded
+     * message must release the field (ReferenceCountUtil.release(message.field)), the decoded buffer can be
+     * released independently, the memory is freed once both are. if the message fails to decode after the field
+     * was read, the field is released by the adapter giving the message up.
+     * encode: the readable bytes of the field are copied with writeBytes(ByteBuf, int, int), its reader index is
+     * not moved and it is not released, the caller keeps it. a {@link ZeroCopy} composite retains a slice of it instead.
+     */
+    public static class ByteBufBytesTypeAdapter extends BufferBytesTypeAdapter<ByteBuf> {
+        @Override
+        protected int readableBytes(ByteBuf value) {
+            return value.readableBytes();
+        }
+
+        @Override
+        protected void writeValue(ByteBuf value, ByteBuf byteBuf) {
+            byteBuf.writeBytes(value, value.readerIndex(), value.readableBytes());
+        }
+
+        @Override
+        protected ByteBuf readValue(ByteBuf byteBuf, int length) {
+            return byteBuf.readRetainedSlice(length);
+        }
+
+        @Override
+        protected ByteBuf component(ByteBuf value) {
+            return value.retainedSlice(value.readerIndex(), value.readableBytes());
+        }
+    }
+
+    /**
+     * java.nio.ByteBuffer field of BYTES type.
+     *
+     * decode: the field is a ByteBuffer view of the decoded buffer (ByteBuf.nioBuffer), it does not retain the
+     * decoded buffer and is only valid until that one is released. copy it, or declare the field as ByteBuf,
+     * to keep it longer.
+     * encode: the remaining bytes of the field are copied, its position is not moved.
+     */
+    public static class ByteBufferBytesTypeAdapter extends BufferBytesTypeAdapter<ByteBuffer> {
+        @Override
+        protected int readableBytes(ByteBuffer value) {
+            return value.remaining();
+        }
+
+        @Override
+        protected void writeValue(ByteBuffer value, ByteBuf byteBuf) {
+            byteBuf.writeBytes(value.duplicate());
+        }
+
+        @Override
+        protected ByteBuffer readValue(ByteBuf byteBuf, int length) {
+            ByteBuffer value = byteBuf.nioBuffer(byteBuf.readerIndex(), length);
+            byteBuf.skipBytes(length);
+            return value;
+        }
+
+        @Override
+        protected ByteBuf component(ByteBuffer value) {
+            return Unpooled.wrappedBuffer(value.duplicate());
+        }
+    }
+}
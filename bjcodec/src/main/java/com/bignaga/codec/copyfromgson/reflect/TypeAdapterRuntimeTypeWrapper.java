@@ -89,11 +89,52 @@ final class TypeAdapterRuntimeTypeWrapper<T> extends TypeAdapter<T> {
     chosen.write(value, byteBuf, byteOrder, elementType, lengthStack);
   }
 
+  @Override
+  public int fixedSize(MessageElementType elementType, Length[] lengthStack) {
+    return delegate.fixedSize(elementType, lengthStack);
+  }
+
+  @Override
+  public int sizeOf(MessageElementType elementType, Length[] lengthStack) {
+    return choose(null, elementType).sizeOf(elementType, lengthStack);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public int sizeOf(T value, MessageElementType elementType, Length[] lengthStack) {
+    return ((TypeAdapter<T>) choose(value, elementType)).sizeOf(value, elementType, lengthStack);
+  }
+
+  /**
+   * the adapter write chooses for value
+   */
+  private TypeAdapter<?> choose(Object value, MessageElementType elementType) {
+    Type runtimeType = getRuntimeTypeIfMoreSpecific(type, value);
+    if (runtimeType == type) {
+      return delegate;
+    }
+    TypeAdapter<?> runtimeTypeAdapter = TypeAdapters.getAdapter(TypeToken.get(runtimeType), elementType);
+    if (!(runtimeTypeAdapter instanceof ReflectiveTypeAdapterFactory.Adapter)) {
+      return runtimeTypeAdapter;
+    }
+    return delegate instanceof ReflectiveTypeAdapterFactory.Adapter ? runtimeTypeAdapter : delegate;
+  }
+
   @Override
   public T read(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
     return delegate.read(byteBuf, byteOrder, elementType, lengthStack);
   }
 
+  @Override
+  public void skip(ByteBuf byteBuf, ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+    delegate.skip(byteBuf, byteOrder, elementType, lengthStack);
+  }
+
+  @Override
+  public ResumableReader<T> newReader(ByteOrder byteOrder, MessageElementType elementType, Length[] lengthStack) {
+    return delegate.newReader(byteOrder, elementType, lengthStack);
+  }
+
   /**
    * Finds a compatible runtime type if it is more specific
    */
@@ -17,12 +17,22 @@
 package com.bignaga.codec.copyfromgson.reflect;
 
 
+import com.bignaga.codec.AdapterMode;
 import com.bignaga.codec.MessageElementType;
+import com.bignaga.codec.annotation.MessageElement;
+import com.bignaga.codec.annotation.StringDedup;
 import com.bignaga.codec.copyfromgson.internal.ConstructorConstructor;
+import com.bignaga.codec.utils.StringDedupCache;
+import io.netty.buffer.ByteBuf;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
 import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
@@ -104,19 +114,36 @@ public final class TypeAdapters {
     public static final TypeAdapterFactory INTEGER_FACTORY
             = newFactory(int.class, Integer.class, INTEGER_INTEGER, INTEGER_LONG, INTEGER_BYTES);
 
+    public static final TypeAdapterFactory LONG_FACTORY
+            = newFactory(long.class, Long.class, LONG_INTEGER, LONG_LONG, LONG_BYTES);
+
     public static final TypeAdapterFactory NUMBER_FACTORY =
             newFactory(Number.class, NUMBER_INTEGER, NUMBER_LONG, NUMBER_BYTES);
 
     public static final TypeAdapterFactory STRING_FACTORY =
             newFactory(String.class, STRING_INTEGER, STRING_LONG, STRING_BYTES);
 
+    public static final TypeAdapter.ByteBufBytesTypeAdapter BYTEBUF_BYTES = new TypeAdapter.ByteBufBytesTypeAdapter();
+    public static final TypeAdapterFactory BYTEBUF_FACTORY =
+            newFactory(ByteBuf.class, null, null, BYTEBUF_BYTES);
+
+    public static final TypeAdapter.ByteBufferBytesTypeAdapter BYTEBUFFER_BYTES = new TypeAdapter.ByteBufferBytesTypeAdapter();
+    public static final TypeAdapterFactory BYTEBUFFER_FACTORY =
+            newFactory(ByteBuffer.class, null, null, BYTEBUFFER_BYTES);
+
     private static final Map<Type, InstanceCreator<?>> instanceCreators = Collections.emptyMap();
     private static final ConstructorConstructor constructorConstructor = new ConstructorConstructor(instanceCreators);
 
-    public static final TypeAdapterFactory REFLECTIVE_TYPE_FACTORY = new ReflectiveTypeAdapterFactory(constructorConstructor);
+    public static final ReflectiveTypeAdapterFactory REFLECTIVE_TYPE_FACTORY = new ReflectiveTypeAdapterFactory(constructorConstructor);
+
+    public static final TypeAdapterFactory MESSAGE_CODEC_FACTORY = new MessageCodecTypeAdapterFactory(constructorConstructor, REFLECTIVE_TYPE_FACTORY);
+
+    public static final BytecodeTypeAdapterFactory BYTECODE_TYPE_FACTORY = new BytecodeTypeAdapterFactory(constructorConstructor, REFLECTIVE_TYPE_FACTORY);
 
     private static final TypeAdapterFactory COLLECTION_TYPE_FACTORY = new CollectionTypeAdapterFactory(constructorConstructor);
 
+    private static final TypeAdapterFactory PRIMITIVE_ARRAY_FACTORY = PrimitiveArrayTypeAdapter.FACTORY;
+
     private static final TypeAdapterFactory ARRAY_FACTORY = ArrayTypeAdapter.FACTORY;
 
     public static <TT> TypeAdapterFactory newFactory(
@@ -196,19 +223,28 @@ public final class TypeAdapters {
     }
 
 
+    private final static Map<Charset, TypeAdapter.StringBytesTypeAdapter> stringBytesAdapters = new ConcurrentHashMap<>();
+    private final static Map<Charset, TypeAdapter.BooleanBytesTypeAdapter> booleanBytesAdapters = new ConcurrentHashMap<>();
     private final static List<TypeAdapterFactory> factories = new ArrayList<TypeAdapterFactory>();
     private final static TypeToken<?> NULL_KEY_SURROGATE = TypeToken.get(Object.class);
     private final static Map<Pair<TypeToken<?>, MessageElementType>, TypeAdapter<?>> typeTokenCache = new ConcurrentHashMap<>();
+    private static volatile int adapterGeneration;
 
     static {
         factories.add(BOOLEAN_FACTORY);
         factories.add(BYTE_FACTORY);
         factories.add(SHORT_FACTORY);
         factories.add(INTEGER_FACTORY);
+        factories.add(LONG_FACTORY);
         factories.add(NUMBER_FACTORY);
         factories.add(STRING_FACTORY);
+        factories.add(BYTEBUF_FACTORY);
+        factories.add(BYTEBUFFER_FACTORY);
+        factories.add(PRIMITIVE_ARRAY_FACTORY);
         factories.add(ARRAY_FACTORY);
         factories.add(COLLECTION_TYPE_FACTORY);
+        factories.add(MESSAGE_CODEC_FACTORY);
+        factories.add(BYTECODE_TYPE_FACTORY);
         factories.add(REFLECTIVE_TYPE_FACTORY);
     }
 
@@ -224,6 +260,67 @@ public final class TypeAdapters {
     }
 
 
+    /**
+     * switch the adapter of clazz between reflection and runtime generated bytecode,
+     * the adapters already built for the classes containing clazz are not affected, so switch before first use.
+     * @param clazz
+     * @param mode null to restore the default mode
+     */
+    public static void setAdapterMode(Class<?> clazz, AdapterMode mode) {
+        BYTECODE_TYPE_FACTORY.setMode(clazz, mode);
+        typeTokenCache.keySet().removeIf(key -> key.getLeft().getRawType() == clazz);
+        ++adapterGeneration;
+    }
+
+    /**
+     * the adapter mode of the classes without a mode of their own
+     * @param mode
+     */
+    public static void setDefaultAdapterMode(AdapterMode mode) {
+        BYTECODE_TYPE_FACTORY.setDefaultMode(mode);
+        typeTokenCache.clear();
+        ++adapterGeneration;
+    }
+
+    /**
+     * changes whenever the adapter mode changes, the adapters cached outside of TypeAdapters
+     * must be looked up again when it differs from the one they were built with
+     * @return
+     */
+    public static int getAdapterGeneration() {
+        return adapterGeneration;
+    }
+
+    /**
+     * the adapter of a @MessageElement field or flyweight accessor: {@link #getAdapter} with the per field
+     * options applied (charset, {@link StringDedup})
+     * @param element the annotated field or method
+     * @param type the resolved type of element
+     * @param elementType
+     * @throws IllegalArgumentException if an option does not fit the field
+     */
+    public static TypeAdapter<?> getFieldAdapter(AnnotatedElement element, TypeToken<?> type, MessageElementType elementType) {
+        TypeAdapter<?> adapter = getAdapter(type, elementType);
+        MessageElement annotation = element.getAnnotation(MessageElement.class);
+        Charset charset = null == annotation ? StandardCharsets.UTF_8 : Charset.forName(annotation.charset());
+        if (element.isAnnotationPresent(StringDedup.class)) {
+            if (!(adapter instanceof TypeAdapter.StringBytesTypeAdapter)) {
+                throw new IllegalArgumentException("@StringDedup is for String fields of BYTES type: " + element);
+            }
+            return new TypeAdapter.DedupStringBytesTypeAdapter(paddingSupplier, StringDedupCache.of((Field) element));
+        }
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            return adapter;
+        }
+        if (adapter instanceof TypeAdapter.StringBytesTypeAdapter) {
+            return stringBytesAdapters.computeIfAbsent(charset, c -> new TypeAdapter.StringBytesTypeAdapter(paddingSupplier, c));
+        }
+        if (adapter instanceof TypeAdapter.BooleanBytesTypeAdapter) {
+            return booleanBytesAdapters.computeIfAbsent(charset, c -> new TypeAdapter.BooleanBytesTypeAdapter(textSupplier, paddingSupplier, c));
+        }
+        throw new IllegalArgumentException("charset is for String/Boolean fields of BYTES type: " + element);
+    }
+
     /**
      * Returns the type adapter for {@code} type.
      *
@@ -0,0 +1,43 @@
+/**
+ * @project lbsgap
+ * @file Flyweight.java
+ * @package com.bignaga.codec.flyweight
+ * @author zhonghao
+ * @date 2026/10/17 19:00
+ * @copyright bignaga
+ */
+package com.bignaga.codec.flyweight;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * a view of an encoded message, reading its fields straight from the ByteBuf on each call, SBE style.
+ *
+ * declare the view as a public interface or abstract class extending this interface, with one abstract no-arg
+ * accessor per message element annotated with {@link com.bignaga.codec.annotation.MessageElement}
+ * (RESERVE elements are declared as void methods), and get an implementation from {@link Flyweights}.
+ * the view neither copies nor retains the buffer, it is only valid while the buffer is.
+ * @author zhonghao
+ * @date 2026/10/17 19:00
+ * @see Flyweights
+ * @since
+ */
+public interface Flyweight<T extends Flyweight<T>> {
+    /**
+     * point this view at the message starting at offset, without allocation
+     * @param byteBuf
+     * @param offset absolute index of the first byte of the message
+     * @return this
+     */
+    T wrap(ByteBuf byteBuf, int offset);
+
+    /**
+     * @return the wrapped buffer, null before the first wrap
+     */
+    ByteBuf buffer();
+
+    /**
+     * @return absolute index of the first byte of the message
+     */
+    int offset();
+}
@@ -0,0 +1,106 @@
+/**
+ * @project lbsgap
+ * @file FlyweightAccessor.java
+ * @package com.bignaga.codec.flyweight
+ * @author zhonghao
+ * @date 2026/10/17 19:05
+ * @copyright bignaga
+ */
+package com.bignaga.codec.flyweight;
+
+import com.bignaga.codec.MessageElementType;
+import com.bignaga.codec.annotation.Length;
+import com.bignaga.codec.copyfromgson.reflect.TypeAdapter;
+import io.netty.buffer.ByteBuf;
+
+import java.lang.reflect.Method;
+import java.nio.ByteOrder;
+
+/**
+ * one accessor of a flyweight with its offset and width in the message.
+ * the generated flyweight reads numeric elements inline, the others (BYTES, arrays, nested messages ...)
+ * are read through {@link #read(ByteBuf, int)} with the element's TypeAdapter
+ * @author zhonghao
+ * @date 2026/10/17 19:05
+ * @see Flyweights
+ * @since
+ */
+public final class FlyweightAccessor {
+    private final Method method;
+    private final int index;
+    private final MessageElementType elementType;
+    private final ByteOrder byteOrder;
+    private final Length[] lengthStack;
+    private final TypeAdapter<?> adapter;
+    private final int offset;
+    private final int width;
+
+    FlyweightAccessor(Method method,
+                      int index,
+                      MessageElementType elementType,
+                      ByteOrder byteOrder,
+                      Length[] lengthStack,
+                      TypeAdapter<?> adapter,
+                      int offset,
+                      int width) {
+        this.method = method;
+        this.index = index;
+        this.elementType = elementType;
+        this.byteOrder = byteOrder;
+        this.lengthStack = lengthStack;
+        this.adapter = adapter;
+        this.offset = offset;
+        this.width = width;
+    }
+
+    /**
+     * read the element at the absolute index, leaving the reader index of byteBuf untouched
+     * @param byteBuf
+     * @param index absolute index of the element
+     * @return
+     */
+    public Object read(ByteBuf byteBuf, int index) {
+        int readerIndex = byteBuf.readerIndex();
+        byteBuf.readerIndex(index);
+        try {
+            return adapter.read(byteBuf, byteOrder, elementType, lengthStack);
+        } finally {
+            byteBuf.readerIndex(readerIndex);
+        }
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public MessageElementType getElementType() {
+        return elementType;
+    }
+
+    public ByteOrder getByteOrder() {
+        return byteOrder;
+    }
+
+    /**
+     * @return offset from the start of the message, -1 if it depends on the preceding elements
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return -1 if the width depends on the value
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public String toString() {
+        return method.getName() + " index=" + index + " " + elementType + " offset=" + offset + " width=" + width;
+    }
+}
@@ -0,0 +1,356 @@
+/**
+ * @project lbsgap
+ * @file Flyweights.java
+ * @package com.bignaga.codec.flyweight
+ * @author zhonghao
+ * @date 2026/10/17 19:10
+ * @copyright bignaga
+ */
+package com.bignaga.codec.flyweight;
+
+import com.bignaga.codec.FieldCodecs;
+import com.bignaga.codec.IntFieldCodec;
+import com.bignaga.codec.LengthPlan;
+import com.bignaga.codec.LongFieldCodec;
+import com.bignaga.codec.MessageElementType;
+import com.bignaga.codec.annotation.Length;
+import com.bignaga.codec.annotation.MessageElement;
+import com.bignaga.codec.copyfromgson.internal.Primitives;
+import com.bignaga.codec.copyfromgson.reflect.TypeAdapter;
+import com.bignaga.codec.copyfromgson.reflect.TypeAdapters;
+import com.bignaga.codec.copyfromgson.reflect.TypeToken;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * spins the implementation of a {@link Flyweight} view at runtime.
+ *
+ * every accessor reads at base offset + the offset of its element, computed once from the fixed widths of the
+ * preceding elements: numeric elements with a primitive return type are read with the absolute get of their
+ * {@link FieldCodecs} codec, held in a static final field so the call is inlined, the others through their
+ * TypeAdapter. an element may have a variable width (a length prefixed String ...) but then the elements after it
+ * have no fixed offset, and are rejected.
+ * <pre>
+ *     SampleView view = Flyweights.get(SampleView.class).wrap(byteBuf, byteBuf.readerIndex());
+ *     int a = view.a();
+ * </pre>
+ * @author zhonghao
+ * @date 2026/10/17 19:10
+ * @see Flyweight
+ * @since
+ */
+public final class Flyweights {
+    private Flyweights() {
+        throw new UnsupportedOperationException();
+    }
+
+    private static final String GENERATED_PACKAGE = Flyweights.class.getPackage().getName() + ".generated.";
+    private static final AtomicInteger classCounter = new AtomicInteger();
+
+    /**
+     * the classes of this library, shared by the pools of the flyweights, see {@link #define(Class, FlyweightAccessor[])}
+     */
+    private static final ClassPool classPool = newClassPool();
+
+    private static final ClassValue<Implementation> implementations = new ClassValue<Implementation>() {
+        @Override
+        protected Implementation computeValue(Class<?> type) {
+            return generate(type);
+        }
+    };
+
+    private static final ClassValue<Views> perThread = new ClassValue<Views>() {
+        @Override
+        protected Views computeValue(Class<?> type) {
+            return new Views();
+        }
+    };
+
+    /**
+     * @param type a public interface or abstract class extending {@link Flyweight}
+     * @return a new unwrapped view
+     * @throws IllegalArgumentException if type is not a valid flyweight declaration
+     */
+    public static <T extends Flyweight<T>> T newInstance(Class<T> type) {
+        return type.cast(implementations.get(type).newInstance());
+    }
+
+    /**
+     * the view of the calling thread, to be re-pointed with {@link Flyweight#wrap} at each message
+     * @param type a public interface or abstract class extending {@link Flyweight}
+     * @return
+     * @throws IllegalArgumentException if type is not a valid flyweight declaration
+     */
+    public static <T extends Flyweight<T>> T get(Class<T> type) {
+        Views views = perThread.get(type);
+        WeakReference<Object> reference = views.local.get();
+        Object view = null == reference ? null : reference.get();
+        if (null == view) {
+            view = implementations.get(type).newInstance();
+            views.anchors.put(Thread.currentThread(), view);
+            views.local.set(new WeakReference<>(view));
+        }
+        return type.cast(view);
+    }
+
+    /**
+     * @param type a public interface or abstract class extending {@link Flyweight}
+     * @return the accessors of type in wire order
+     */
+    public static List<FlyweightAccessor> accessorsOf(Class<?> type) {
+        return implementations.get(type).accessorList;
+    }
+
+    private static ClassPool newClassPool() {
+        ClassPool pool = new ClassPool(null);
+        pool.appendSystemPath();
+        pool.appendClassPath(new LoaderClassPath(Flyweights.class.getClassLoader()));
+        return pool;
+    }
+
+    private static Implementation generate(Class<?> type) {
+        if (!Flyweight.class.isAssignableFrom(type)) {
+            throw new IllegalArgumentException(type.getName() + " does not extend " + Flyweight.class.getName());
+        }
+        if (!Modifier.isPublic(type.getModifiers())) {
+            throw new IllegalArgumentException(type.getName() + " is not public");
+        }
+        if (!type.isInterface() && !Modifier.isAbstract(type.getModifiers())) {
+            throw new IllegalArgumentException(type.getName() + " is neither an interface nor an abstract class");
+        }
+        FlyweightAccessor[] accessors = collectAccessors(type);
+        try {
+            synchronized (classPool) {
+                Class<?> implementationClass = define(type, accessors);
+                Constructor<?> constructor = implementationClass.getConstructor(FlyweightAccessor[].class);
+                return new Implementation(constructor, accessors);
+            }
+        } catch (Exception | LinkageError e) {
+            throw new IllegalArgumentException("can not generate flyweight of " + type.getName(), e);
+        }
+    }
+
+    private static FlyweightAccessor[] collectAccessors(Class<?> type) {
+        //no-arg methods by name, the most specific declaration first
+        Map<String, Method> methods = new LinkedHashMap<>();
+        for (Method method : type.getMethods()) {
+            methods.putIfAbsent(method.getName() + method.getParameterCount(), method);
+        }
+        for (Class<?> c = type; null != c && c != Object.class; c = c.getSuperclass()) {
+            for (Method method : c.getDeclaredMethods()) {
+                methods.putIfAbsent(method.getName() + method.getParameterCount(), method);
+            }
+        }
+
+        List<Method> annotated = new ArrayList<>();
+        for (Method method : methods.values()) {
+            if (method.isAnnotationPresent(MessageElement.class)) {
+                checkAccessor(method);
+                annotated.add(method);
+            } else if (Modifier.isAbstract(method.getModifiers()) && method.getDeclaringClass() != Flyweight.class) {
+                throw new IllegalArgumentException("abstract method " + method.getName() + " of " + type.getName()
+                        + " is not a @MessageElement");
+            }
+        }
+        annotated.sort(Comparator.comparingInt(m -> m.getAnnotation(MessageElement.class).index()));
+
+        FlyweightAccessor[] accessors = new FlyweightAccessor[annotated.size()];
+        int offset = 0;
+        for (int i = 0; i < accessors.length; ++i) {
+            Method method = annotated.get(i);
+            MessageElement annotation = method.getAnnotation(MessageElement.class);
+            MessageElementType elementType = annotation.type();
+            if (offset < 0 && elementType != MessageElementType.RESERVE) {
+                throw new IllegalArgumentException("element " + method.getName() + " of " + type.getName()
+                        + " follows a variable width element, it has no fixed offset");
+            }
+            TypeToken<?> returnType = method.getReturnType() == void.class
+                    ? TypeToken.get(Object.class) : TypeToken.get(method.getGenericReturnType());
+            TypeAdapter<?> adapter = TypeAdapters.getFieldAdapter(method, returnType, elementType);
+            Length[] lengthStack = LengthPlan.compile(annotation.lengthStack());
+            int width = adapter.fixedSize(elementType, lengthStack);
+            accessors[i] = new FlyweightAccessor(method,
+                    annotation.index(),
+                    elementType,
+                    annotation.byteOrder().byteOrder,
+                    lengthStack,
+                    adapter,
+                    offset,
+                    width);
+            offset = offset < 0 || width < 0 ? -1 : offset + width;
+        }
+        return accessors;
+    }
+
+    private static void checkAccessor(Method method) {
+        int modifiers = method.getModifiers();
+        if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)
+                || !(Modifier.isPublic(modifiers) || Modifier.isProtected(modifiers))) {
+            throw new IllegalArgumentException("accessor " + method.getName() + " must be public or protected, not static nor final");
+        }
+        if (method.getParameterCount() != 0) {
+            throw new IllegalArgumentException("accessor " + method.getName() + " has parameters");
+        }
+        boolean reserve = method.getAnnotation(MessageElement.class).type() == MessageElementType.RESERVE;
+        if (reserve != (method.getReturnType() == void.class)) {
+            throw new IllegalArgumentException("accessor " + method.getName() + " must return void if and only if it is RESERVE");
+        }
+    }
+
+    private static Class<?> define(Class<?> type, FlyweightAccessor[] accessors) throws Exception {
+        ClassLoader loader = type.getClassLoader();
+        //the classes of loader are looked up by a pool of this flyweight only, so classPool keeps neither them nor loader
+        ClassPool pool = new ClassPool(classPool);
+        pool.appendClassPath(new LoaderClassPath(loader));
+        String className = GENERATED_PACKAGE + type.getName().replace('.', '_').replace('$', '_')
+                + "$Flyweight" + classCounter.incrementAndGet();
+        CtClass ctClass = pool.makeClass(className);
+        if (type.isInterface()) {
+            ctClass.addInterface(pool.get(type.getName()));
+        } else {
+            ctClass.setSuperclass(pool.get(type.getName()));
+        }
+        ctClass.addField(CtField.make("private io.netty.buffer.ByteBuf byteBuf;", ctClass));
+        ctClass.addField(CtField.make("private int offset;", ctClass));
+        ctClass.addField(CtField.make("private final " + FlyweightAccessor.class.getName() + "[] accessors;", ctClass));
+        ctClass.addConstructor(CtNewConstructor.make(
+                "public " + ctClass.getSimpleName() + "(" + FlyweightAccessor.class.getName() + "[] accessors) {"
+                        + " this.accessors = $1; }", ctClass));
+        ctClass.addMethod(CtNewMethod.make("public " + Flyweight.class.getName()
+                + " wrap(io.netty.buffer.ByteBuf byteBuf, int offset) { this.byteBuf = $1; this.offset = $2; return this; }", ctClass));
+        ctClass.addMethod(CtNewMethod.make("public io.netty.buffer.ByteBuf buffer() { return this.byteBuf; }", ctClass));
+        ctClass.addMethod(CtNewMethod.make("public int offset() { return this.offset; }", ctClass));
+        for (int i = 0; i < accessors.length; ++i) {
+            FlyweightAccessor accessor = accessors[i];
+            if (isInline(accessor)) {
+                boolean wide = isWide(accessor);
+                String codecType = (wide ? LongFieldCodec.class : IntFieldCodec.class).getName();
+                String lookup = FieldCodecs.class.getName() + (wide ? ".longCodec(" : ".intCodec(")
+                        + MessageElementType.class.getName() + "." + accessor.getElementType().name() + ", java.nio.ByteOrder."
+                        + (accessor.getByteOrder() == ByteOrder.LITTLE_ENDIAN ? "LITTLE_ENDIAN" : "BIG_ENDIAN") + ")";
+                ctClass.addField(CtField.make("private static final " + codecType + " codec" + i + ";", ctClass),
+                        CtField.Initializer.byExpr(lookup));
+            }
+            ctClass.addMethod(CtNewMethod.make(accessorSource(accessor, i), ctClass));
+        }
+        byte[] bytecode = ctClass.toBytecode();
+        ctClass.detach();
+        return new DefiningClassLoader(loader).define(className, bytecode);
+    }
+
+    private static String accessorSource(FlyweightAccessor accessor, int i) {
+        Method method = accessor.getMethod();
+        Class<?> returnType = method.getReturnType();
+        StringBuilder sb = new StringBuilder(128);
+        sb.append("public ").append(typeName(returnType)).append(' ').append(method.getName()).append("() {");
+        if (returnType == void.class) {
+            return sb.append(" }").toString();
+        }
+        String index = "this.offset + " + accessor.getOffset();
+        if (isInline(accessor)) {
+            boolean wide = isWide(accessor);
+            String wire = "codec" + i + (wide ? ".getLong" : ".getInt") + "(this.byteBuf, " + index + ")";
+            sb.append(" return ").append(convertFromWire(returnType, wire, wide)).append(';');
+        } else if (returnType.isPrimitive()) {
+            String box = Primitives.wrap(returnType).getName();
+            sb.append(" return ((").append(box).append(") this.accessors[").append(i).append("].read(this.byteBuf, ")
+                    .append(index).append(")).").append(returnType.getName()).append("Value();");
+        } else {
+            sb.append(" return (").append(typeName(returnType)).append(") this.accessors[").append(i)
+                    .append("].read(this.byteBuf, ").append(index).append(");");
+        }
+        return sb.append(" }").toString();
+    }
+
+    /**
+     * a numeric element read into a primitive other than char/float/double, with its field codec
+     */
+    private static boolean isInline(FlyweightAccessor accessor) {
+        Class<?> returnType = accessor.getMethod().getReturnType();
+        return returnType.isPrimitive() && returnType != void.class && returnType != char.class
+                && returnType != float.class && returnType != double.class && FieldCodecs.isNumeric(accessor.getElementType());
+    }
+
+    /**
+     * read as a long, so that a boolean tests all the bits of a LONG element
+     */
+    private static boolean isWide(FlyweightAccessor accessor) {
+        return accessor.getMethod().getReturnType() == long.class || accessor.getElementType() == MessageElementType.LONG;
+    }
+
+    private static String convertFromWire(Class<?> returnType, String wire, boolean wide) {
+        if (returnType == boolean.class) {
+            return wire + (wide ? " != 0L" : " != 0");
+        }
+        return "(" + returnType.getName() + ") " + wire;
+    }
+
+    /**
+     * source name for javassist, nested classes keep their '$'
+     */
+    private static String typeName(Class<?> type) {
+        return type.isArray() ? typeName(type.getComponentType()) + "[]" : type.getName();
+    }
+
+    /**
+     * the view of each thread. a thread holds its view weakly: a view held by a thread would keep its class, and so
+     * the loader of the flyweight declaration, from being unloaded. the views are held strongly by anchors, which only
+     * the flyweight class reaches, so a view lives as long as both its thread and its class and is never recreated
+     */
+    private static final class Views {
+        final ThreadLocal<WeakReference<Object>> local = new ThreadLocal<>();
+        final Map<Thread, Object> anchors = Collections.synchronizedMap(new WeakHashMap<>());
+    }
+
+    private static final class Implementation {
+        private final Constructor<?> constructor;
+        private final FlyweightAccessor[] accessors;
+        private final List<FlyweightAccessor> accessorList;
+
+        Implementation(Constructor<?> constructor, FlyweightAccessor[] accessors) {
+            this.constructor = constructor;
+            this.accessors = accessors;
+            this.accessorList = Collections.unmodifiableList(Arrays.asList(accessors.clone()));
+        }
+
+        Object newInstance() {
+            try {
+                return constructor.newInstance((Object) accessors);
+            } catch (InstantiationException | IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            } catch (InvocationTargetException e) {
+                throw new IllegalStateException(e.getTargetException());
+            }
+        }
+    }
+
+    private static final class DefiningClassLoader extends ClassLoader {
+        DefiningClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(String name, byte[] bytecode) {
+            return defineClass(name, bytecode, 0, bytecode.length);
+        }
+    }
+}
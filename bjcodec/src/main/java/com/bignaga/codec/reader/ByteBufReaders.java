@@ -34,7 +34,7 @@ public final class ByteBufReaders {
     public static final ByteBufReader<Integer> INT24_READER = (byteBuf, byteOrder, length) -> Integer.valueOf(byteOrder == ByteOrder.BIG_ENDIAN ? byteBuf.readMedium() : byteBuf.readMediumLE());
     public static final ByteBufReader<Integer> UINT24_READER = (byteBuf, byteOrder, length) -> Integer.valueOf(byteOrder == ByteOrder.BIG_ENDIAN ? byteBuf.readUnsignedMedium() : byteBuf.readUnsignedMediumLE());
 
-    public static final ByteBufReader<Integer> INT32_READER = (byteBuf, byteOrder, length) -> byteOrder == ByteOrder.BIG_ENDIAN ? byteBuf.readInt() : byteBuf.readInt();
+    public static final ByteBufReader<Integer> INT32_READER = (byteBuf, byteOrder, length) -> byteOrder == ByteOrder.BIG_ENDIAN ? byteBuf.readInt() : byteBuf.readIntLE();
     public static final ByteBufReader<Long> UINT32_READER = (byteBuf, byteOrder, length) -> byteOrder == ByteOrder.BIG_ENDIAN ? byteBuf.readUnsignedInt() : byteBuf.readUnsignedIntLE();
 
     public static final ByteBufReader<Long> LONG_READER = (byteBuf, byteOrder, length) -> byteOrder == ByteOrder.BIG_ENDIAN ? byteBuf.readLong() : byteBuf.readLongLE();
@@ -45,6 +45,39 @@ public final class ByteBufReaders {
         return bytes;
     };
 
+    /*
+     * the readers of one byte order, they ignore the byteOrder parameter
+     */
+    public static final ByteBufReader<Integer> INT16_BE_READER = (byteBuf, byteOrder, length) -> Integer.valueOf(byteBuf.readShort());
+    public static final ByteBufReader<Integer> INT16_LE_READER = (byteBuf, byteOrder, length) -> Integer.valueOf(byteBuf.readShortLE());
+    public static final ByteBufReader<Integer> UINT16_BE_READER = (byteBuf, byteOrder, length) -> Integer.valueOf(byteBuf.readUnsignedShort());
+    public static final ByteBufReader<Integer> UINT16_LE_READER = (byteBuf, byteOrder, length) -> Integer.valueOf(byteBuf.readUnsignedShortLE());
+    public static final ByteBufReader<Integer> INT32_BE_READER = (byteBuf, byteOrder, length) -> byteBuf.readInt();
+    public static final ByteBufReader<Integer> INT32_LE_READER = (byteBuf, byteOrder, length) -> byteBuf.readIntLE();
+    public static final ByteBufReader<Long> UINT32_BE_READER = (byteBuf, byteOrder, length) -> byteBuf.readUnsignedInt();
+    public static final ByteBufReader<Long> UINT32_LE_READER = (byteBuf, byteOrder, length) -> byteBuf.readUnsignedIntLE();
+    public static final ByteBufReader<Long> LONG_BE_READER = (byteBuf, byteOrder, length) -> byteBuf.readLong();
+    public static final ByteBufReader<Long> LONG_LE_READER = (byteBuf, byteOrder, length) -> byteBuf.readLongLE();
+
+    /**
+     * the reader of type bound to byteOrder, to be looked up once per field rather than per read
+     * @return null if type has no reader
+     */
+    public static ByteBufReader<?> getReader(MessageElementType type, ByteOrder byteOrder) {
+        boolean le = byteOrder == ByteOrder.LITTLE_ENDIAN;
+        switch (type) {
+            case U8: return UINT8_READER;
+            case S8: return INT8_READER;
+            case U16: return le ? UINT16_LE_READER : UINT16_BE_READER;
+            case S16: return le ? INT16_LE_READER : INT16_BE_READER;
+            case U32: return le ? UINT32_LE_READER : UINT32_BE_READER;
+            case S32: return le ? INT32_LE_READER : INT32_BE_READER;
+            case BYTES: return BYTES_READER;
+            case LONG : return le ? LONG_LE_READER : LONG_BE_READER;
+        }
+        return null;
+    }
+
     public static ByteBufReader<?> getReader(MessageElementType type) {
         switch (type) {
             case U8: return UINT8_READER;
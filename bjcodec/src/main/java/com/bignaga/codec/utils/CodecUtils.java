@@ -0,0 +1,427 @@
+/**
+ * @project lbsgap
+ * @file CodecUtils.java
+ * @package com.bignaga.utils
+ * @author zhonghao
+ * @date 2018/9/7 18:20
+ * @copyright bignaga
+ */
+package com.bignaga.codec.utils;
+
+import com.bignaga.codec.LengthLengthEnum;
+import com.bignaga.utils.ThrowAs;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.util.ByteProcessor;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <一句话功能简述>
+ * <功能详细描述>
+ * @author zhonghao
+ * @date 2018/9/7 18:20
+ * @see
+ * @since
+ */
+public class CodecUtils {
+    private static final ByteProcessor FIND_NON_ASCII = value -> value >= 0;
+    private static final int MAX_SCRATCH_SIZE = 4096;
+    /**
+     * copy of the bytes of off-heap buffers before building a String
+     */
+    private static final ThreadLocal<byte[]> scratch = ThreadLocal.withInitial(() -> new byte[256]);
+    private static final ThreadLocal<CharBuffer> charScratch = ThreadLocal.withInitial(() -> CharBuffer.allocate(256));
+    /**
+     * the coders of the thread, malformed input and unmappable characters are replaced
+     */
+    private static final ThreadLocal<Map<Charset, CharsetEncoder>> encoders = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<Map<Charset, CharsetDecoder>> decoders = ThreadLocal.withInitial(HashMap::new);
+    private static final Map<Charset, Boolean> asciiCompatible = new ConcurrentHashMap<>();
+    private static final String ASCII_CHARS;
+
+    static {
+        StringBuilder sb = new StringBuilder(128);
+        for (char c = 0; c < 128; ++c) {
+            sb.append(c);
+        }
+        ASCII_CHARS = sb.toString();
+    }
+
+    public static void writeLength(ByteBuf byteBuf, ByteOrder byteOrder, LengthLengthEnum lengthLengthEnum, int lengthLen) {
+        switch (lengthLengthEnum) {
+            case FOUR_BYTES: {
+                if(ByteOrder.BIG_ENDIAN.equals(byteOrder)) {
+                    byteBuf.writeInt(lengthLen);
+                } else {
+                    byteBuf.writeIntLE(lengthLen);
+                }
+            } break;
+            case TWO_BYTES: {
+                if(ByteOrder.BIG_ENDIAN.equals(byteOrder)) {
+                    byteBuf.writeShort(lengthLen);
+                } else {
+                    byteBuf.writeShortLE(lengthLen);
+                }
+            } break;
+            case ONE_BYTES: {
+                byteBuf.writeByte(lengthLen);
+            } break;
+            default: break;
+        }
+    }
+
+    /**
+     * @return the number of bytes of the length field self
+     */
+    public static int lengthSize(LengthLengthEnum lengthLengthEnum) {
+        switch (lengthLengthEnum) {
+            case FOUR_BYTES: return 4;
+            case TWO_BYTES: return 2;
+            case ONE_BYTES: return 1;
+            default: return 0;
+        }
+    }
+
+    /**
+     * @return the number of chars of String.valueOf(l)
+     */
+    public static int decimalLength(long l) {
+        if (l == Long.MIN_VALUE) {
+            return 20;
+        }
+        int len = 1;
+        if (l < 0) {
+            ++len;
+            l = -l;
+        }
+        while (l >= 10) {
+            l /= 10;
+            ++len;
+        }
+        return len;
+    }
+
+    /**
+     * write l as ASCII decimal digits, as String.valueOf(l) but without the String
+     * @return the number of bytes written
+     */
+    public static int writeDecimal(ByteBuf byteBuf, long l) {
+        int len = decimalLength(l);
+        byteBuf.ensureWritable(len);
+        int writerIndex = byteBuf.writerIndex();
+        int index = writerIndex + len;
+        //digits of the negative value, so that Long.MIN_VALUE does not overflow
+        long n = l < 0 ? l : -l;
+        do {
+            byteBuf.setByte(--index, (int) ('0' - n % 10));
+            n /= 10;
+        } while (n != 0);
+        if (l < 0) {
+            byteBuf.setByte(--index, '-');
+        }
+        byteBuf.writerIndex(writerIndex + len);
+        return len;
+    }
+
+    /**
+     * parse the length bytes at index as an ASCII decimal, the reader index is not moved.
+     * leading and trailing '\0's and spaces are ignored, nothing but them is 0
+     * @param min the smallest value allowed
+     * @param max the largest value allowed
+     * @throws NumberFormatException if the bytes are not a decimal or it is out of [min, max]
+     */
+    public static long parseDecimal(ByteBuf byteBuf, int index, int length, long min, long max) {
+        int begin = index;
+        int end = index + length;
+        while (begin < end && isBlank(byteBuf.getByte(begin))) {
+            ++begin;
+        }
+        while (end > begin && isBlank(byteBuf.getByte(end - 1))) {
+            --end;
+        }
+        if (begin == end) {
+            return 0;
+        }
+        int i = begin;
+        boolean negative = false;
+        byte first = byteBuf.getByte(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++i == end) {
+                throw numberFormatException(byteBuf, begin, end);
+            }
+        }
+        //accumulated negatively as Long.parseLong does, Long.MIN_VALUE has no positive counterpart
+        long limit = negative ? min : -max;
+        long multmin = limit / 10;
+        long result = 0;
+        for (; i < end; ++i) {
+            int digit = byteBuf.getByte(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw numberFormatException(byteBuf, begin, end);
+            }
+            if (result < multmin) {
+                throw outOfRangeException(byteBuf, begin, end, min, max);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw outOfRangeException(byteBuf, begin, end, min, max);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == 0 || b == ' ';
+    }
+
+    private static NumberFormatException numberFormatException(ByteBuf byteBuf, int begin, int end) {
+        return new NumberFormatException("For input string: \"" + byteBuf.toString(begin, end - begin, StandardCharsets.ISO_8859_1) + "\"");
+    }
+
+    private static NumberFormatException outOfRangeException(ByteBuf byteBuf, int begin, int end, long min, long max) {
+        return new NumberFormatException("Value out of range [" + min + ", " + max + "]. Value:\""
+                + byteBuf.toString(begin, end - begin, StandardCharsets.ISO_8859_1) + "\"");
+    }
+
+    /**
+     * @return length minus the number of trailing '\0's of the length bytes at index
+     */
+    public static int trimNulLength(ByteBuf byteBuf, int index, int length) {
+        if (length <= 0) {
+            return 0;
+        }
+        int last = byteBuf.forEachByteDesc(index, length, ByteProcessor.FIND_NON_NUL);
+        return last < 0 ? 0 : last - index + 1;
+    }
+
+    /**
+     * decode the length bytes at index as UTF-8 without the trailing '\0's, the reader index is not moved.
+     * 7-bit bytes are copied once into the String, the others go through the UTF-8 decoder
+     */
+    public static String decodeString(ByteBuf byteBuf, int index, int length) {
+        return decodeString(byteBuf, index, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * decode the length bytes at index as charset without the trailing '\0's, the reader index is not moved.
+     * with an ASCII compatible charset, 7-bit bytes are copied once into the String; the others go through
+     * the decoder of the thread
+     */
+    public static String decodeString(ByteBuf byteBuf, int index, int length, Charset charset) {
+        if (!isAsciiCompatible(charset)) {
+            //'\0' is not a single 0 byte, trim the chars
+            String s = decode(byteBuf, index, length, charset);
+            int len = s.length();
+            while (len > 0 && s.charAt(len - 1) == '\0') {
+                --len;
+            }
+            return len == s.length() ? s : s.substring(0, len);
+        }
+        int len = trimNulLength(byteBuf, index, length);
+        if (len == 0) {
+            return "";
+        }
+        if (!StandardCharsets.ISO_8859_1.equals(charset) && byteBuf.forEachByte(index, len, FIND_NON_ASCII) >= 0) {
+            return decode(byteBuf, index, len, charset);
+        }
+        return latin1(byteBuf, index, len);
+    }
+
+    /**
+     * encode s as charset straight into byteBuf: UTF-8, US-ASCII and ISO-8859-1 by ByteBuf.writeCharSequence,
+     * the others by the encoder of the thread into the writable bytes of byteBuf.
+     * byteBuf is expanded by the encoded length, not by the worst case, when the worst case is not writable, so that
+     * a buffer sized with sizeOf is not reallocated
+     * @return the number of bytes written
+     */
+    public static int writeString(ByteBuf byteBuf, CharSequence s, Charset charset) {
+        if (s.length() == 0) {
+            return 0;
+        }
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            if (byteBuf.writableBytes() >= ByteBufUtil.utf8MaxBytes(s)) {
+                return byteBuf.writeCharSequence(s, charset);
+            }
+            return ByteBufUtil.reserveAndWriteUtf8(byteBuf, s, ByteBufUtil.utf8Bytes(s));
+        }
+        if (StandardCharsets.US_ASCII.equals(charset) || StandardCharsets.ISO_8859_1.equals(charset)) {
+            return byteBuf.writeCharSequence(s, charset);
+        }
+        CharsetEncoder encoder = encoderOf(charset);
+        int maxLength = (int) Math.ceil(s.length() * (double) encoder.maxBytesPerChar());
+        if (byteBuf.writableBytes() < maxLength || byteBuf.nioBufferCount() != 1) {
+            byte[] bytes = s.toString().getBytes(charset);
+            byteBuf.writeBytes(bytes);
+            return bytes.length;
+        }
+        int writerIndex = byteBuf.writerIndex();
+        ByteBuffer dst = byteBuf.internalNioBuffer(writerIndex, maxLength);
+        int start = dst.position();
+        encoder.reset();
+        CoderResult result = encoder.encode(CharBuffer.wrap(s), dst, true);
+        if (!result.isUnderflow() || !(result = encoder.flush(dst)).isUnderflow()) {
+            throwCharacterCodingException(result);
+        }
+        int written = dst.position() - start;
+        byteBuf.writerIndex(writerIndex + written);
+        return written;
+    }
+
+    /**
+     * the number of bytes of s encoded as charset, without encoding it for UTF-8, US-ASCII and ISO-8859-1
+     */
+    public static int encodedLength(CharSequence s, Charset charset) {
+        if (s.length() == 0) {
+            return 0;
+        }
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            return ByteBufUtil.utf8Bytes(s);
+        }
+        if (StandardCharsets.ISO_8859_1.equals(charset) || StandardCharsets.US_ASCII.equals(charset)) {
+            return s.length();
+        }
+        return s.toString().getBytes(charset).length;
+    }
+
+    /**
+     * @return true if charset encodes the 7-bit chars as one byte of the same value, as UTF-8, GBK ... do
+     */
+    public static boolean isAsciiCompatible(Charset charset) {
+        if (StandardCharsets.UTF_8.equals(charset) || StandardCharsets.US_ASCII.equals(charset) || StandardCharsets.ISO_8859_1.equals(charset)) {
+            return true;
+        }
+        return asciiCompatible.computeIfAbsent(charset, c -> c.canEncode()
+                && Arrays.equals(ASCII_CHARS.getBytes(c), ASCII_CHARS.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static String decode(ByteBuf byteBuf, int index, int length, Charset charset) {
+        if (length == 0) {
+            return "";
+        }
+        CharsetDecoder decoder = decoderOf(charset);
+        int maxChars = (int) Math.ceil(length * (double) decoder.maxCharsPerByte());
+        CharBuffer dst = charScratch.get();
+        if (dst.capacity() < maxChars) {
+            dst = CharBuffer.allocate(maxChars);
+            if (maxChars <= MAX_SCRATCH_SIZE) {
+                charScratch.set(dst);
+            }
+        }
+        dst.clear();
+        ByteBuffer src = byteBuf.nioBufferCount() == 1 ? byteBuf.internalNioBuffer(index, length) : byteBuf.nioBuffer(index, length);
+        decoder.reset();
+        CoderResult result = decoder.decode(src, dst, true);
+        if (!result.isUnderflow() || !(result = decoder.flush(dst)).isUnderflow()) {
+            throwCharacterCodingException(result);
+        }
+        dst.flip();
+        return dst.toString();
+    }
+
+    private static CharsetEncoder encoderOf(Charset charset) {
+        return encoders.get().computeIfAbsent(charset, c -> c.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE));
+    }
+
+    private static CharsetDecoder decoderOf(Charset charset) {
+        return decoders.get().computeIfAbsent(charset, c -> c.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE));
+    }
+
+    private static void throwCharacterCodingException(CoderResult result) {
+        try {
+            result.throwException();
+        } catch (CharacterCodingException e) {
+            ThrowAs.ThrowAsRuntimeException(e);
+        }
+    }
+
+    /**
+     * one copy into the String, ASCII is Latin-1 and Latin-1 is the cheapest decoder of the JDK
+     */
+    private static String latin1(ByteBuf byteBuf, int index, int len) {
+        if (byteBuf.hasArray()) {
+            return new String(byteBuf.array(), byteBuf.arrayOffset() + index, len, StandardCharsets.ISO_8859_1);
+        }
+        byte[] bytes = scratch.get();
+        if (bytes.length < len) {
+            if (len > MAX_SCRATCH_SIZE) {
+                return new String(ByteBufUtil.getBytes(byteBuf, index, len), StandardCharsets.ISO_8859_1);
+            }
+            bytes = new byte[Math.min(MAX_SCRATCH_SIZE, Math.max(len, bytes.length << 1))];
+            scratch.set(bytes);
+        }
+        byteBuf.getBytes(index, bytes, 0, len);
+        return new String(bytes, 0, len, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * overwrite the length field at index, written before the value it counts
+     */
+    public static void setLength(ByteBuf byteBuf, int index, ByteOrder byteOrder, LengthLengthEnum lengthLengthEnum, int lengthLen) {
+        switch (lengthLengthEnum) {
+            case FOUR_BYTES: {
+                if(ByteOrder.BIG_ENDIAN.equals(byteOrder)) {
+                    byteBuf.setInt(index, lengthLen);
+                } else {
+                    byteBuf.setIntLE(index, lengthLen);
+                }
+            } break;
+            case TWO_BYTES: {
+                if(ByteOrder.BIG_ENDIAN.equals(byteOrder)) {
+                    byteBuf.setShort(index, lengthLen);
+                } else {
+                    byteBuf.setShortLE(index, lengthLen);
+                }
+            } break;
+            case ONE_BYTES: {
+                byteBuf.setByte(index, lengthLen);
+            } break;
+            default: break;
+        }
+    }
+
+    public static int readLength(ByteBuf byteBuf, ByteOrder byteOrder, LengthLengthEnum lengthLengthEnum) {
+        switch (lengthLengthEnum) {
+            case FOUR_BYTES: {
+                if(ByteOrder.BIG_ENDIAN.equals(byteOrder)) {
+                    return byteBuf.readInt();
+                } else {
+                    return byteBuf.readIntLE();
+                }
+            }
+            case TWO_BYTES: {
+                if(ByteOrder.BIG_ENDIAN.equals(byteOrder)) {
+                    return byteBuf.readUnsignedShort();
+                } else {
+                    return byteBuf.readUnsignedShortLE();
+                }
+            }
+            case ONE_BYTES: {
+                return byteBuf.readUnsignedByte();
+            }
+            default: break;
+        }
+
+        return Integer.MIN_VALUE;
+    }
+
+}
@@ -0,0 +1,193 @@
+/**
+ * @project lbsgap
+ * @file StringDedupCache.java
+ * @package com.bignaga.codec.utils
+ * @author zhonghao
+ * @date 2026/10/17 20:10
+ * @copyright bignaga
+ */
+package com.bignaga.codec.utils;
+
+import com.bignaga.codec.annotation.MessageElement;
+import com.bignaga.codec.annotation.StringDedup;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
+import java.lang.reflect.Field;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * bounded cache of decoded strings keyed by their raw bytes, so that a hit allocates nothing.
+ *
+ * the table is 2-way set associative: the bytes hash to a pair of slots, a miss replaces the older entry
+ * of the pair. the pairs are guarded by a fixed number of striped locks. bytes longer than
+ * {@link #MAX_CACHED_LENGTH} are decoded without the cache.
+ * @author zhonghao
+ * @date 2026/10/17 20:10
+ * @see StringDedup
+ * @since
+ */
+public final class StringDedupCache {
+    public static final int MAX_CACHED_LENGTH = 256;
+    private static final int MAX_STRIPES = 64;
+
+    /**
+     * the caches of the fields of a class, held by the class itself so they are unloaded with it
+     */
+    private static final ClassValue<Map<Field, StringDedupCache>> fieldCaches = new ClassValue<Map<Field, StringDedupCache>>() {
+        @Override
+        protected Map<Field, StringDedupCache> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final Charset charset;
+    private final boolean trimNul;
+    private final Entry[] table;
+    private final int mask;
+    private final Object[] locks;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param field a field annotated with {@link StringDedup}
+     * @return the cache of field, created on first use
+     * @throws IllegalArgumentException if field is not annotated with {@link StringDedup}
+     */
+    public static StringDedupCache of(Field field) {
+        return fieldCaches.get(field.getDeclaringClass()).computeIfAbsent(field, f -> {
+            StringDedup dedup = f.getAnnotation(StringDedup.class);
+            if (null == dedup) {
+                throw new IllegalArgumentException(f + " is not annotated with @StringDedup");
+            }
+            MessageElement element = f.getAnnotation(MessageElement.class);
+            return new StringDedupCache(dedup.capacity(),
+                    null == element ? StandardCharsets.UTF_8 : Charset.forName(element.charset()));
+        });
+    }
+
+    /**
+     * @param capacity max number of strings kept, rounded up to a power of 2, at least 2
+     */
+    public StringDedupCache(int capacity) {
+        this(capacity, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param capacity max number of strings kept, rounded up to a power of 2, at least 2
+     * @param charset of the cached strings
+     */
+    public StringDedupCache(int capacity, Charset charset) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must > 0: " + capacity);
+        }
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.charset = charset;
+        this.trimNul = CodecUtils.isAsciiCompatible(charset);
+        this.table = new Entry[size];
+        this.mask = size - 1;
+        this.locks = new Object[Math.min(MAX_STRIPES, size >>> 1)];
+        for (int i = 0; i < locks.length; ++i) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * the string of the length bytes at index, decoded as {@link CodecUtils#decodeString} does.
+     * the reader index is not moved
+     */
+    public String get(ByteBuf byteBuf, int index, int length) {
+        if (trimNul) {
+            length = CodecUtils.trimNulLength(byteBuf, index, length);
+        }
+        if (length == 0) {
+            return "";
+        }
+        if (length > MAX_CACHED_LENGTH) {
+            return CodecUtils.decodeString(byteBuf, index, length, charset);
+        }
+        int hash = hash(byteBuf, index, length);
+        int slot = hash & mask & ~1;
+        Object lock = locks[(slot >>> 1) & (locks.length - 1)];
+        synchronized (lock) {
+            Entry first = table[slot];
+            if (null != first && first.matches(hash, byteBuf, index, length)) {
+                hits.increment();
+                return first.value;
+            }
+            Entry second = table[slot + 1];
+            if (null != second && second.matches(hash, byteBuf, index, length)) {
+                //most recent first
+                table[slot] = second;
+                table[slot + 1] = first;
+                hits.increment();
+                return second.value;
+            }
+        }
+        misses.increment();
+        Entry entry = new Entry(hash, ByteBufUtil.getBytes(byteBuf, index, length),
+                CodecUtils.decodeString(byteBuf, index, length, charset));
+        synchronized (lock) {
+            table[slot + 1] = table[slot];
+            table[slot] = entry;
+        }
+        return entry.value;
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public int getCapacity() {
+        return table.length;
+    }
+
+    @Override
+    public String toString() {
+        return "StringDedupCache{capacity=" + table.length + ", charset=" + charset + ", hits=" + hits.sum() + ", misses=" + misses.sum() + '}';
+    }
+
+    private static int hash(ByteBuf byteBuf, int index, int length) {
+        int h = 1;
+        for (int i = index, end = index + length; i < end; ++i) {
+            h = 31 * h + byteBuf.getByte(i);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Entry {
+        final int hash;
+        final byte[] bytes;
+        final String value;
+
+        Entry(int hash, byte[] bytes, String value) {
+            this.hash = hash;
+            this.bytes = bytes;
+            this.value = value;
+        }
+
+        boolean matches(int hash, ByteBuf byteBuf, int index, int length) {
+            if (this.hash != hash || bytes.length != length) {
+                return false;
+            }
+            for (int i = 0; i < length; ++i) {
+                if (bytes[i] != byteBuf.getByte(index + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
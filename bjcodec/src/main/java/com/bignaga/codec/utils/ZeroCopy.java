@@ -0,0 +1,128 @@
+/**
+ * @project lbsgap
+ * @file ZeroCopy.java
+ * @package com.bignaga.codec.utils
+ * @author zhonghao
+ * @date 2026/10/17 23:30
+ * @copyright bignaga
+ */
+package com.bignaga.codec.utils;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * encode into a {@link CompositeByteBuf} whose large payloads are components of their own instead of copies:
+ * while {@link #encode(ByteBufAllocator, ByteBuf, int, Consumer)} runs, the adapters of byte[] (U8/S8), ByteBuf
+ * and ByteBuffer fields hand payloads of threshold bytes or more to {@link #add(ByteBuf)} rather than writing them.
+ * the other fields are written into the small buffer passed in, which is cut into components around the payloads.
+ *
+ * payloads are not copied: a byte[] is wrapped, a ByteBuf field is retained, so they must not be modified
+ * until the composite has been written out. generated {@link com.bignaga.codec.MessageCodec}s copy as usual.
+ * @author zhonghao
+ * @date 2026/10/17 23:30
+ * @see com.bignaga.codec.Codec#encodeComposite(Object, ByteBufAllocator, int)
+ * @since
+ */
+public final class ZeroCopy {
+    private static final ThreadLocal<ZeroCopy> current = new ThreadLocal<>();
+
+    private final ByteBuf byteBuf;
+    private final int threshold;
+    /**
+     * writer index of byteBuf where each payload goes
+     */
+    private final List<Integer> cuts = new ArrayList<>();
+    private final List<ByteBuf> payloads = new ArrayList<>();
+
+    private ZeroCopy(ByteBuf byteBuf, int threshold) {
+        this.byteBuf = byteBuf;
+        this.threshold = threshold;
+    }
+
+    /**
+     * run encode, which writes into byteBuf, and compose its output
+     * @param byteBuf the buffer encode writes to, owned by the result afterwards (released if encode fails)
+     * @param threshold payloads of at least that many bytes become components
+     * @return the bytes written into byteBuf and the payloads, in order
+     */
+    public static CompositeByteBuf encode(ByteBufAllocator allocator, ByteBuf byteBuf, int threshold, Consumer<ByteBuf> encode) {
+        ZeroCopy zeroCopy = new ZeroCopy(byteBuf, threshold);
+        ZeroCopy previous = current.get();
+        current.set(zeroCopy);
+        try {
+            encode.accept(byteBuf);
+        } catch (RuntimeException e) {
+            zeroCopy.release();
+            throw e;
+        } finally {
+            if (null == previous) {
+                current.remove();
+            } else {
+                current.set(previous);
+            }
+        }
+        return zeroCopy.compose(allocator);
+    }
+
+    /**
+     * @return the composition writing into byteBuf if a payload of length bytes is to be added to it, null if the
+     * payload is to be written as usual
+     */
+    public static ZeroCopy of(ByteBuf byteBuf, int length) {
+        ZeroCopy zeroCopy = current.get();
+        if (null == zeroCopy || zeroCopy.byteBuf != byteBuf || length < zeroCopy.threshold || length <= 0) {
+            return null;
+        }
+        return zeroCopy;
+    }
+
+    /**
+     * @return true if payloads written into byteBuf may be added as components, so its final size is not known up front
+     */
+    public static boolean composes(ByteBuf byteBuf) {
+        ZeroCopy zeroCopy = current.get();
+        return null != zeroCopy && zeroCopy.byteBuf == byteBuf;
+    }
+
+    /**
+     * add payload at the writer index of byteBuf, in place of writing it
+     * @param payload owned by the composition from now on
+     */
+    public void add(ByteBuf payload) {
+        cuts.add(byteBuf.writerIndex());
+        payloads.add(payload);
+    }
+
+    private CompositeByteBuf compose(ByteBufAllocator allocator) {
+        int n = payloads.size();
+        CompositeByteBuf composite = allocator.compositeBuffer(2 * n + 1);
+        int from = byteBuf.readerIndex();
+        for (int i = 0; i < n; ++i) {
+            int cut = cuts.get(i);
+            if (cut > from) {
+                composite.addComponent(true, byteBuf.retainedSlice(from, cut - from));
+            }
+            composite.addComponent(true, payloads.get(i));
+            from = cut;
+        }
+        if (byteBuf.writerIndex() > from || composite.numComponents() == 0) {
+            composite.addComponent(true, byteBuf.retainedSlice(from, byteBuf.writerIndex() - from));
+        }
+        //the slices hold it now
+        byteBuf.release();
+        return composite;
+    }
+
+    private void release() {
+        for (ByteBuf payload : payloads) {
+            payload.release();
+        }
+        byteBuf.release();
+    }
+}
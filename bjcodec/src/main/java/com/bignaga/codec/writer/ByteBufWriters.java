@@ -132,6 +132,37 @@ public final class ByteBufWriters {
 
     public static ByteBufWriter<byte[]> BYTES_WRITER = (bytes, byteBuf, byteOrder) -> byteBuf.writeBytes(bytes);
 
+    /*
+     * the writers of one byte order, they ignore the byteOrder parameter
+     */
+    public static final ByteBufWriter<Integer> INT16_BE_WRITER = (i, byteBuf, byteOrder) -> byteBuf.writeShort(i);
+    public static final ByteBufWriter<Integer> INT16_LE_WRITER = (i, byteBuf, byteOrder) -> byteBuf.writeShortLE(i);
+    public static final ByteBufWriter<Integer> INT32_BE_WRITER = (i, byteBuf, byteOrder) -> byteBuf.writeInt(i);
+    public static final ByteBufWriter<Integer> INT32_LE_WRITER = (i, byteBuf, byteOrder) -> byteBuf.writeIntLE(i);
+    public static final ByteBufWriter<Long> UINT32_BE_WRITER = (l, byteBuf, byteOrder) -> byteBuf.writeInt(l.intValue());
+    public static final ByteBufWriter<Long> UINT32_LE_WRITER = (l, byteBuf, byteOrder) -> byteBuf.writeIntLE(l.intValue());
+    public static final ByteBufWriter<Long> LONG_BE_WRITER = (l, byteBuf, byteOrder) -> byteBuf.writeLong(l);
+    public static final ByteBufWriter<Long> LONG_LE_WRITER = (l, byteBuf, byteOrder) -> byteBuf.writeLongLE(l);
+
+    /**
+     * the writer of type bound to byteOrder, to be looked up once per field rather than per write
+     * @return null if type has no writer
+     */
+    public static ByteBufWriter<?> getWriter(MessageElementType type, ByteOrder byteOrder) {
+        boolean le = byteOrder == ByteOrder.LITTLE_ENDIAN;
+        switch (type) {
+            case U8:
+            case S8: return INT8_WRITER;
+            case U16:
+            case S16: return le ? INT16_LE_WRITER : INT16_BE_WRITER;
+            case U32: return le ? UINT32_LE_WRITER : UINT32_BE_WRITER;
+            case S32: return le ? INT32_LE_WRITER : INT32_BE_WRITER;
+            case LONG: return le ? LONG_LE_WRITER : LONG_BE_WRITER;
+            case BYTES: return BYTES_WRITER;
+        }
+        return null;
+    }
+
     public static ByteBufWriter<?> getWirter(MessageElementType type) {
         switch (type) {
             case U8:
@@ -140,6 +171,7 @@ public final class ByteBufWriters {
             case S16: return INT16_WRITER;
             case U32: return UINT32_WRITER;
             case S32: return INT32_WRITER;
+            case LONG: return LONG_WRITER;
             case BYTES: return BYTES_WRITER;
         }
         return null;
@@ -0,0 +1,54 @@
+/**
+ * @project lbsgap
+ * @file CodecTest.java
+ * @package com.bignaga.codec
+ * @author zhonghao
+ * @date 2026/10/18 19:00
+ * @copyright bignaga
+ */
+package com.bignaga.codec;
+
+import com.bignaga.codec.annotation.Length;
+import com.bignaga.codec.annotation.Message;
+import com.bignaga.codec.annotation.MessageElement;
+import io.netty.buffer.ByteBuf;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author zhonghao
+ * @date 2026/10/18 19:00
+ * @see Codec
+ * @since
+ */
+public class CodecTest {
+
+    @Message(1)
+    public static class Variable {
+        @MessageElement(index = 0, type = MessageElementType.S32)
+        public int id = 1;
+        @MessageElement(index = 1, type = MessageElementType.BYTES, lengthStack = {@Length(length = LengthLengthEnum.TWO_BYTES)})
+        public String text;
+    }
+
+    @Test
+    public void encodeAllocatesTheSizeOfTheValue() {
+        Variable value = new Variable();
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100; ++i) {
+            text.append(i % 10);
+        }
+        value.text = text.toString();
+        ByteBuf byteBuf = Codec.encode(value, ByteOrder.BIG_ENDIAN, Codec.dummyLengthStack, MessageElementType.STRUCT);
+        try {
+            assertEquals(4 + 2 + 100, byteBuf.readableBytes());
+            assertEquals(byteBuf.readableBytes(), byteBuf.capacity());
+            assertEquals(value.text, Codec.decode(byteBuf, Variable.class).text);
+        } finally {
+            byteBuf.release();
+        }
+    }
+}
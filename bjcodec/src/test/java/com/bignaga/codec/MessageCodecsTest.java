@@ -0,0 +1,42 @@
+/**
+ * @project lbsgap
+ * @file MessageCodecsTest.java
+ * @package com.bignaga.codec
+ * @author zhonghao
+ * @date 2026/10/18 17:40
+ * @copyright bignaga
+ */
+package com.bignaga.codec;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author zhonghao
+ * @date 2026/10/18 17:40
+ * @see MessageCodecs
+ * @since
+ */
+public class MessageCodecsTest {
+    public static class Plain {
+    }
+
+    public static class Broken {
+    }
+
+    @Test
+    public void classesWithoutCodecHaveNone() {
+        assertNull(MessageCodecs.find(Plain.class));
+        assertNull(MessageCodecs.find(int.class));
+        assertNull(MessageCodecs.find(String.class));
+    }
+
+    @Test
+    public void brokenCodecsAreNotHidden() {
+        assertThrows(ExceptionInInitializerError.class, () -> MessageCodecs.find(Broken.class));
+        //the class is left unusable, later lookups keep failing instead of falling back to reflection
+        assertThrows(NoClassDefFoundError.class, () -> MessageCodecs.find(Broken.class));
+    }
+}
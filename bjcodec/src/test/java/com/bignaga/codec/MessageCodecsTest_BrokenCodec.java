@@ -0,0 +1,35 @@
+/**
+ * @project lbsgap
+ * @file MessageCodecsTest_BrokenCodec.java
+ * @package com.bignaga.codec
+ * @author zhonghao
+ * @date 2026/10/18 17:40
+ * @copyright bignaga
+ */
+package com.bignaga.codec;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * stands for a generated codec of {@link MessageCodecsTest.Broken} that fails to initialize
+ * @author zhonghao
+ * @date 2026/10/18 17:40
+ * @see MessageCodecsTest
+ * @since
+ */
+public final class MessageCodecsTest_BrokenCodec implements MessageCodec<MessageCodecsTest.Broken> {
+    static {
+        if (Boolean.TRUE) {
+            throw new IllegalStateException("broken codec");
+        }
+    }
+
+    @Override
+    public MessageCodecsTest.Broken decode(ByteBuf byteBuf) {
+        return new MessageCodecsTest.Broken();
+    }
+
+    @Override
+    public void encode(MessageCodecsTest.Broken value, ByteBuf byteBuf) {
+    }
+}
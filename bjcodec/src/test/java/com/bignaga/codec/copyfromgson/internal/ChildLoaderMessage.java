@@ -0,0 +1,26 @@
+/**
+ * @project lbsgap
+ * @file ChildLoaderMessage.java
+ * @package com.bignaga.codec.copyfromgson.internal
+ * @author zhonghao
+ * @date 2026/10/18 14:10
+ * @copyright bignaga
+ */
+package com.bignaga.codec.copyfromgson.internal;
+
+import com.bignaga.codec.MessageElementType;
+import com.bignaga.codec.annotation.Message;
+import com.bignaga.codec.annotation.MessageElement;
+
+/**
+ * a top level message, which {@link ConstructorConstructorTest} defines again in a child class loader
+ * @author zhonghao
+ * @date 2026/10/18 14:10
+ * @see ConstructorConstructorTest
+ * @since
+ */
+@Message(1)
+public class ChildLoaderMessage {
+    @MessageElement(index = 0, type = MessageElementType.S32)
+    public int value;
+}
@@ -0,0 +1,82 @@
+/**
+ * @project lbsgap
+ * @file ConstructorConstructorTest.java
+ * @package com.bignaga.codec.copyfromgson.internal
+ * @author zhonghao
+ * @date 2026/10/18 14:10
+ * @copyright bignaga
+ */
+package com.bignaga.codec.copyfromgson.internal;
+
+import com.bignaga.codec.Codec;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+/**
+ * construction of message classes by their no-args constructor
+ * @author zhonghao
+ * @date 2026/10/18 14:10
+ * @see ConstructorConstructor
+ * @since
+ */
+public class ConstructorConstructorTest {
+
+    @Test
+    public void constructsPublicClassOfChildLoader() throws Exception {
+        Class<?> child = new ChildFirstLoader(ChildLoaderMessage.class.getName()).loadClass(ChildLoaderMessage.class.getName());
+        assertNotSame(ChildLoaderMessage.class, child);
+
+        ByteBuf byteBuf = Unpooled.buffer().writeInt(7);
+        Object message = Codec.decode(byteBuf, child);
+        assertEquals(child, message.getClass());
+        assertEquals(7, child.getField("value").getInt(message));
+    }
+
+    /**
+     * defines the class named name itself, a class the loader of this library can not see
+     */
+    private static final class ChildFirstLoader extends ClassLoader {
+        private final String name;
+
+        ChildFirstLoader(String name) {
+            super(ConstructorConstructorTest.class.getClassLoader());
+            this.name = name;
+        }
+
+        @Override
+        protected Class<?> loadClass(String className, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(className)) {
+                return super.loadClass(className, resolve);
+            }
+            synchronized (getClassLoadingLock(className)) {
+                Class<?> loaded = findLoadedClass(className);
+                if (null == loaded) {
+                    byte[] bytecode = read(className.replace('.', '/') + ".class");
+                    loaded = defineClass(className, bytecode, 0, bytecode.length);
+                }
+                return loaded;
+            }
+        }
+
+        private byte[] read(String resource) throws ClassNotFoundException {
+            try (InputStream in = getParent().getResourceAsStream(resource)) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                for (int n; (n = in.read(buffer)) > 0; ) {
+                    out.write(buffer, 0, n);
+                }
+                return out.toByteArray();
+            } catch (IOException | NullPointerException e) {
+                throw new ClassNotFoundException(resource, e);
+            }
+        }
+    }
+}
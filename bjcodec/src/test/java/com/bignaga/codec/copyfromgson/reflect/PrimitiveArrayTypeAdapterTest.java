@@ -0,0 +1,72 @@
+/**
+ * @project lbsgap
+ * @file PrimitiveArrayTypeAdapterTest.java
+ * @package com.bignaga.codec.copyfromgson.reflect
+ * @author zhonghao
+ * @date 2026/10/18 10:10
+ * @copyright bignaga
+ */
+package com.bignaga.codec.copyfromgson.reflect;
+
+import com.bignaga.codec.Codec;
+import com.bignaga.codec.LengthLengthEnum;
+import com.bignaga.codec.MessageElementType;
+import com.bignaga.codec.annotation.Length;
+import com.bignaga.codec.annotation.Message;
+import com.bignaga.codec.annotation.MessageElement;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * round trip of the bulk arrays, and length prefixes larger than the buffer
+ * @author zhonghao
+ * @date 2026/10/18 10:10
+ * @see PrimitiveArrayTypeAdapter
+ * @since
+ */
+public class PrimitiveArrayTypeAdapterTest {
+
+    @Message(1)
+    public static class Ints {
+        @MessageElement(index = 0, type = MessageElementType.S32, lengthStack = {@Length(length = LengthLengthEnum.FOUR_BYTES)})
+        int[] values;
+    }
+
+    @Message(2)
+    public static class FirstLong {
+        @MessageElement(index = 0, type = MessageElementType.LONG, lengthStack = {@Length(value = 1, length = LengthLengthEnum.FOUR_BYTES)})
+        long[] values;
+    }
+
+    @Test
+    public void roundTrip() {
+        Ints ints = new Ints();
+        ints.values = new int[]{1, -2, Integer.MAX_VALUE};
+        ByteBuf byteBuf = Unpooled.buffer();
+        Codec.encode(ints, byteBuf);
+        assertEquals(Codec.sizeOf(ints), byteBuf.readableBytes());
+        assertArrayEquals(ints.values, Codec.decode(byteBuf, Ints.class).values);
+        assertEquals(0, byteBuf.readableBytes());
+    }
+
+    @Test
+    public void oversizedPrefixIsRejectedBeforeAllocating() {
+        //0x40000001 elements of 4 bytes overflow an int to 4 bytes
+        ByteBuf byteBuf = Unpooled.buffer();
+        byteBuf.writeInt(0x40000001).writeInt(7);
+        assertThrows(IndexOutOfBoundsException.class, () -> Codec.decode(byteBuf, Ints.class));
+    }
+
+    @Test
+    public void oversizedDiscardIsRejected() {
+        //1 element kept, 0x7FFFFFFE of 8 bytes discarded
+        ByteBuf byteBuf = Unpooled.buffer();
+        byteBuf.writeInt(Integer.MAX_VALUE).writeLong(7);
+        assertThrows(IndexOutOfBoundsException.class, () -> Codec.decode(byteBuf, FirstLong.class));
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * @project lbsgap
+ * @file ReflectiveTypeAdapterFactoryTest.java
+ * @package com.bignaga.codec.copyfromgson.reflect
+ * @author zhonghao
+ * @date 2026/10/18 16:40
+ * @copyright bignaga
+ */
+package com.bignaga.codec.copyfromgson.reflect;
+
+import com.bignaga.codec.AdapterMode;
+import com.bignaga.codec.Codec;
+import com.bignaga.codec.FieldSelector;
+import com.bignaga.codec.LengthLengthEnum;
+import com.bignaga.codec.MessageElementType;
+import com.bignaga.codec.annotation.Length;
+import com.bignaga.codec.annotation.Message;
+import com.bignaga.codec.annotation.MessageElement;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * the primitive bound fields, and the retained slices of a message that fails to decode
+ * @author zhonghao
+ * @date 2026/10/18 16:40
+ * @see ReflectiveTypeAdapterFactory
+ * @since
+ */
+public class ReflectiveTypeAdapterFactoryTest {
+
+    @Message(1)
+    public static class Flags {
+        @MessageElement(index = 0, type = MessageElementType.LONG)
+        public boolean wide;
+        @MessageElement(index = 1, type = MessageElementType.U32)
+        public boolean unsigned;
+    }
+
+    @Message(2)
+    public static class BytecodeFlags {
+        @MessageElement(index = 0, type = MessageElementType.LONG)
+        public boolean wide;
+        @MessageElement(index = 1, type = MessageElementType.U32)
+        public boolean unsigned;
+    }
+
+    @Message(3)
+    public static class Slices {
+        @MessageElement(index = 0, type = MessageElementType.BYTES, lengthStack = {@Length(length = LengthLengthEnum.ONE_BYTES)})
+        public ByteBuf head;
+        @MessageElement(index = 1, type = MessageElementType.BYTES,
+                lengthStack = {@Length(value = 1, length = LengthLengthEnum.ONE_BYTES), @Length(length = LengthLengthEnum.ONE_BYTES)})
+        public ByteBuf[] items;
+        @MessageElement(index = 2, type = MessageElementType.S32)
+        public int tail;
+    }
+
+    @Message(4)
+    public static class BytecodeSlices {
+        @MessageElement(index = 0, type = MessageElementType.BYTES, lengthStack = {@Length(length = LengthLengthEnum.ONE_BYTES)})
+        public ByteBuf head;
+        @MessageElement(index = 1, type = MessageElementType.BYTES,
+                lengthStack = {@Length(value = 1, length = LengthLengthEnum.ONE_BYTES), @Length(length = LengthLengthEnum.ONE_BYTES)})
+        public ByteBuf[] items;
+        @MessageElement(index = 2, type = MessageElementType.S32)
+        public int tail;
+    }
+
+    @Test
+    public void booleanOfLongElementTestsAllBits() {
+        assertAllBitsTested(Flags.class);
+    }
+
+    @Test
+    public void booleanOfLongElementTestsAllBitsInBytecodeMode() {
+        TypeAdapters.setAdapterMode(BytecodeFlags.class, AdapterMode.BYTECODE);
+        try {
+            assertAllBitsTested(BytecodeFlags.class);
+        } finally {
+            TypeAdapters.setAdapterMode(BytecodeFlags.class, null);
+        }
+    }
+
+    @Test
+    public void failedReadReleasesFieldsRead() {
+        assertFailedReadReleases(Slices.class);
+    }
+
+    @Test
+    public void failedReadReleasesFieldsReadInBytecodeMode() {
+        TypeAdapters.setAdapterMode(BytecodeSlices.class, AdapterMode.BYTECODE);
+        try {
+            assertFailedReadReleases(BytecodeSlices.class);
+        } finally {
+            TypeAdapters.setAdapterMode(BytecodeSlices.class, null);
+        }
+    }
+
+    @Test
+    public void failedProjectionReleasesFieldsRead() {
+        ByteBuf source = slices(2);
+        assertThrows(IndexOutOfBoundsException.class, () -> Codec.decode(source, Slices.class, FieldSelector.of("head", "tail")));
+        assertEquals(1, source.refCnt());
+    }
+
+    @Test
+    public void discardedElementsAreNotRetained() {
+        ByteBuf source = slices(4);
+        Slices decoded = Codec.decode(source, Slices.class);
+        assertEquals(1, decoded.items.length);
+        assertEquals(1, decoded.tail);
+        //head and the element kept
+        assertEquals(3, source.refCnt());
+        decoded.head.release();
+        decoded.items[0].release();
+        assertEquals(1, source.refCnt());
+    }
+
+    private static void assertFailedReadReleases(Class<?> classOfT) {
+        ByteBuf source = slices(2);
+        assertThrows(IndexOutOfBoundsException.class, () -> Codec.decode(source, classOfT));
+        assertEquals(1, source.refCnt());
+    }
+
+    /**
+     * a head, two items of which one is kept, and tailBytes bytes of the tail
+     */
+    private static ByteBuf slices(int tailBytes) {
+        ByteBuf source = Unpooled.buffer()
+                .writeByte(2).writeByte('a').writeByte('b')
+                .writeByte(2).writeByte(1).writeByte('x').writeByte(1).writeByte('y');
+        for (int i = 0; i < tailBytes; ++i) {
+            source.writeByte(i == tailBytes - 1 ? 1 : 0);
+        }
+        return source;
+    }
+
+    private static void assertAllBitsTested(Class<?> classOfT) {
+        ByteBuf byteBuf = Unpooled.buffer().writeLong(0x1_0000_0000L).writeInt(0x8000_0000);
+        Object decoded = Codec.decode(byteBuf, classOfT);
+        assertTrue(field(decoded, "wide"));
+        assertTrue(field(decoded, "unsigned"));
+
+        ByteBuf encoded = Unpooled.buffer();
+        Codec.encode(decoded, encoded);
+        assertEquals("000000000000000100000001", ByteBufUtil.hexDump(encoded));
+
+        decoded = Codec.decode(Unpooled.buffer().writeLong(0L).writeInt(0), classOfT);
+        assertFalse(field(decoded, "wide"));
+        assertFalse(field(decoded, "unsigned"));
+    }
+
+    private static boolean field(Object target, String name) {
+        try {
+            return target.getClass().getField(name).getBoolean(target);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/**
+ * @project lbsgap
+ * @file ResumableReaderTest.java
+ * @package com.bignaga.codec.copyfromgson.reflect
+ * @author zhonghao
+ * @date 2026/10/18 15:20
+ * @copyright bignaga
+ */
+package com.bignaga.codec.copyfromgson.reflect;
+
+import com.bignaga.codec.AdapterMode;
+import com.bignaga.codec.Codec;
+import com.bignaga.codec.LengthLengthEnum;
+import com.bignaga.codec.MessageElementType;
+import com.bignaga.codec.annotation.Length;
+import com.bignaga.codec.annotation.Message;
+import com.bignaga.codec.annotation.MessageElement;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * messages fed to {@link Codec#newReader(Class)} a byte at a time decode as the whole frame does, without keeping
+ * references to the input other than the ByteBuf fields of the message
+ * @author zhonghao
+ * @date 2026/10/18 15:20
+ * @see ResumableReader
+ * @since
+ */
+public class ResumableReaderTest {
+
+    @Message(1)
+    public static class Reflective {
+        @MessageElement(index = 0, type = MessageElementType.S32)
+        public int id;
+        @MessageElement(index = 1, type = MessageElementType.BYTES, lengthStack = {@Length(length = LengthLengthEnum.TWO_BYTES)})
+        public String name;
+        @MessageElement(index = 2, type = MessageElementType.BYTES, lengthStack = {@Length(length = LengthLengthEnum.FOUR_BYTES)})
+        public ByteBuf payload;
+        @MessageElement(index = 3, type = MessageElementType.U16, lengthStack = {@Length(length = LengthLengthEnum.ONE_BYTES)})
+        public List<Integer> values;
+        @MessageElement(index = 4, type = MessageElementType.S16)
+        public short tail;
+    }
+
+    @Message(2)
+    public static class Bytecode {
+        @MessageElement(index = 0, type = MessageElementType.S32)
+        public int id;
+        @MessageElement(index = 1, type = MessageElementType.BYTES, lengthStack = {@Length(length = LengthLengthEnum.TWO_BYTES)})
+        public ByteBuf payload;
+        @MessageElement(index = 2, type = MessageElementType.BYTES, lengthStack = {@Length(length = LengthLengthEnum.ONE_BYTES)})
+        public ByteBuf extra;
+        @MessageElement(index = 3, type = MessageElementType.S16)
+        public short tail;
+    }
+
+    /**
+     * decoded by {@link ResumableReaderTest_CodecMessageCodec}
+     */
+    @Message(3)
+    public static class CodecMessage {
+        @MessageElement(index = 0, type = MessageElementType.S32)
+        public int id;
+        @MessageElement(index = 1, type = MessageElementType.BYTES, lengthStack = {@Length(length = LengthLengthEnum.TWO_BYTES)})
+        public ByteBuf payload;
+        @MessageElement(index = 2, type = MessageElementType.S16)
+        public short tail;
+    }
+
+    @Message(4)
+    public static class Truncated {
+        @MessageElement(index = 0, type = MessageElementType.BYTES,
+                lengthStack = {@Length(value = 1, length = LengthLengthEnum.ONE_BYTES), @Length(length = LengthLengthEnum.ONE_BYTES)})
+        public ByteBuf[] payloads;
+    }
+
+    @Test
+    public void reflectiveByteByByte() {
+        Reflective message = new Reflective();
+        message.id = 7;
+        message.name = "name";
+        message.payload = Unpooled.wrappedBuffer(new byte[]{1, 2, 3});
+        message.values = java.util.Arrays.asList(1, 2, 0xffff);
+        message.tail = -1;
+        ByteBuf source = encode(message);
+
+        Reflective decoded = feedByteByByte(source, Reflective.class);
+        assertEquals(7, decoded.id);
+        assertEquals("name", decoded.name);
+        assertArrayEquals(new byte[]{1, 2, 3}, ByteBufUtil.getBytes(decoded.payload));
+        assertEquals(message.values, decoded.values);
+        assertEquals(-1, decoded.tail);
+        //the payload is the only reference to the input
+        assertEquals(2, source.refCnt());
+        decoded.payload.release();
+        assertEquals(1, source.refCnt());
+    }
+
+    @Test
+    public void bytecodeByteByByte() {
+        TypeAdapters.setAdapterMode(Bytecode.class, AdapterMode.BYTECODE);
+        try {
+            Bytecode message = new Bytecode();
+            message.id = 7;
+            message.payload = Unpooled.copiedBuffer("payload", StandardCharsets.US_ASCII);
+            message.extra = Unpooled.wrappedBuffer(new byte[]{9});
+            message.tail = 3;
+            ByteBuf source = encode(message);
+
+            Bytecode decoded = feedByteByByte(source, Bytecode.class);
+            assertEquals(7, decoded.id);
+            assertEquals("payload", decoded.payload.toString(StandardCharsets.US_ASCII));
+            assertArrayEquals(new byte[]{9}, ByteBufUtil.getBytes(decoded.extra));
+            assertEquals(3, decoded.tail);
+            assertEquals(3, source.refCnt());
+            decoded.payload.release();
+            decoded.extra.release();
+            assertEquals(1, source.refCnt());
+
+            //all of it at once, by the generated read
+            Bytecode whole = Codec.decode(source, Bytecode.class);
+            assertEquals(7, whole.id);
+            assertEquals(3, source.refCnt());
+            whole.payload.release();
+            whole.extra.release();
+            assertEquals(1, source.refCnt());
+        } finally {
+            TypeAdapters.setAdapterMode(Bytecode.class, null);
+        }
+    }
+
+    @Test
+    public void codecIsUsedOnlyForWholeMessages() {
+        CodecMessage message = new CodecMessage();
+        message.id = 7;
+        message.payload = Unpooled.wrappedBuffer(new byte[]{1, 2, 3});
+        message.tail = 5;
+        ByteBuf source = encode(message);
+
+        ResumableReaderTest_CodecMessageCodec.decodes = 0;
+        CodecMessage decoded = feedByteByByte(source, CodecMessage.class);
+        assertEquals(0, ResumableReaderTest_CodecMessageCodec.decodes);
+        assertEquals(7, decoded.id);
+        assertArrayEquals(new byte[]{1, 2, 3}, ByteBufUtil.getBytes(decoded.payload));
+        assertEquals(5, decoded.tail);
+        decoded.payload.release();
+        assertEquals(1, source.refCnt());
+
+        ResumableReader<CodecMessage> reader = Codec.newReader(CodecMessage.class);
+        assertTrue(reader.resume(source));
+        assertEquals(1, ResumableReaderTest_CodecMessageCodec.decodes);
+        assertEquals(0, source.readableBytes());
+        reader.result().payload.release();
+        assertEquals(1, source.refCnt());
+    }
+
+    @Test
+    public void abandonReleasesWhatWasRead() {
+        Reflective message = new Reflective();
+        message.name = "";
+        message.payload = Unpooled.wrappedBuffer(new byte[]{1, 2, 3});
+        message.values = java.util.Arrays.asList(1, 2);
+        ByteBuf source = encode(message);
+
+        ResumableReader<Reflective> reader = Codec.newReader(Reflective.class);
+        //up to the middle of the list, after the payload
+        assertFalse(reader.resume(source.slice(0, source.readableBytes() - 4)));
+        assertEquals(2, source.refCnt());
+        reader.abandon();
+        assertEquals(1, source.refCnt());
+    }
+
+    @Test
+    public void discardedElementsAreReleased() {
+        ByteBuf source = Unpooled.buffer();
+        //2 payloads of which only the first is kept
+        source.writeByte(2).writeByte(1).writeByte(10).writeByte(2).writeByte(20).writeByte(21);
+
+        Truncated decoded = feedByteByByte(source, Truncated.class);
+        assertEquals(1, decoded.payloads.length);
+        assertArrayEquals(new byte[]{10}, ByteBufUtil.getBytes(decoded.payloads[0]));
+        assertEquals(2, source.refCnt());
+        decoded.payloads[0].release();
+        assertEquals(1, source.refCnt());
+    }
+
+    private static ByteBuf encode(Object message) {
+        ByteBuf byteBuf = Unpooled.buffer();
+        Codec.encode(message, byteBuf);
+        return byteBuf;
+    }
+
+    /**
+     * resume a reader with one more byte of source at a time, as a decoder cumulating its input does
+     */
+    private static <T> T feedByteByByte(ByteBuf source, Class<T> classOfT) {
+        ResumableReader<T> reader = Codec.newReader(classOfT);
+        int length = source.readableBytes();
+        for (int end = 1; end <= length; ++end) {
+            ByteBuf received = source.slice(0, end);
+            received.readerIndex(source.readerIndex());
+            boolean done = reader.resume(received);
+            source.readerIndex(received.readerIndex());
+            assertEquals(end == length, done);
+        }
+        assertEquals(0, source.readableBytes());
+        source.readerIndex(0);
+        return reader.result();
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * @project lbsgap
+ * @file ResumableReaderTest_CodecMessageCodec.java
+ * @package com.bignaga.codec.copyfromgson.reflect
+ * @author zhonghao
+ * @date 2026/10/18 15:20
+ * @copyright bignaga
+ */
+package com.bignaga.codec.copyfromgson.reflect;
+
+import com.bignaga.codec.MessageCodec;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * stands for the codec bjcodec-processor generates for {@link ResumableReaderTest.CodecMessage}, and counts its decodes
+ * @author zhonghao
+ * @date 2026/10/18 15:20
+ * @see ResumableReaderTest
+ * @since
+ */
+public final class ResumableReaderTest_CodecMessageCodec implements MessageCodec<ResumableReaderTest.CodecMessage> {
+    static int decodes;
+
+    @Override
+    public ResumableReaderTest.CodecMessage decode(ByteBuf byteBuf) {
+        ++decodes;
+        ResumableReaderTest.CodecMessage value = new ResumableReaderTest.CodecMessage();
+        value.id = byteBuf.readInt();
+        value.payload = byteBuf.readRetainedSlice(byteBuf.readUnsignedShort());
+        value.tail = byteBuf.readShort();
+        return value;
+    }
+
+    @Override
+    public void encode(ResumableReaderTest.CodecMessage value, ByteBuf byteBuf) {
+        byteBuf.writeInt(value.id);
+        byteBuf.writeShort(value.payload.readableBytes());
+        byteBuf.writeBytes(value.payload, value.payload.readerIndex(), value.payload.readableBytes());
+        byteBuf.writeShort(value.tail);
+    }
+}
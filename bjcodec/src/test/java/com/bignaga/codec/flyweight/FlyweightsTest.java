@@ -0,0 +1,70 @@
+/**
+ * @project lbsgap
+ * @file FlyweightsTest.java
+ * @package com.bignaga.codec.flyweight
+ * @author zhonghao
+ * @date 2026/10/18 18:30
+ * @copyright bignaga
+ */
+package com.bignaga.codec.flyweight;
+
+import com.bignaga.codec.ByteOrderEnum;
+import com.bignaga.codec.MessageElementType;
+import com.bignaga.codec.annotation.MessageElement;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author zhonghao
+ * @date 2026/10/18 18:30
+ * @see Flyweights
+ * @since
+ */
+public class FlyweightsTest {
+
+    public interface Sample extends Flyweight<Sample> {
+        @MessageElement(index = 0, type = MessageElementType.U8)
+        int a();
+
+        @MessageElement(index = 1, type = MessageElementType.S16, byteOrder = ByteOrderEnum.LITTLE_ENDIAN)
+        short b();
+
+        @MessageElement(index = 2, type = MessageElementType.U32)
+        long c();
+
+        @MessageElement(index = 3, type = MessageElementType.LONG)
+        boolean wide();
+    }
+
+    @Test
+    public void accessorsReadAtTheirOffset() {
+        ByteBuf byteBuf = Unpooled.buffer()
+                .writeByte(0x55)
+                .writeByte(200).writeShortLE(-3).writeInt(0xF000_0000).writeLong(0x1_0000_0000L);
+        Sample sample = Flyweights.get(Sample.class).wrap(byteBuf, 1);
+        assertEquals(200, sample.a());
+        assertEquals(-3, sample.b());
+        assertEquals(0xF000_0000L, sample.c());
+        assertTrue(sample.wide());
+        assertEquals(0, byteBuf.readerIndex());
+    }
+
+    @Test
+    public void viewOfThreadOutlivesGc() throws InterruptedException {
+        WeakReference<Sample> first = new WeakReference<>(Flyweights.get(Sample.class));
+        for (int i = 0; i < 3; ++i) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNotNull(first.get());
+        assertSame(first.get(), Flyweights.get(Sample.class));
+    }
+}